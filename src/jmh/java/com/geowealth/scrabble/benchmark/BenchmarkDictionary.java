@@ -0,0 +1,83 @@
+package com.geowealth.scrabble.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes synthetic dictionaries for the benchmarks. The same arguments always produce the
+ * same dictionary.
+ * <p>
+ * Half of the words are derived from a shorter word by inserting a character, so that the
+ * dictionary holds chains of reducible words; the other half are random strings.
+ */
+final class BenchmarkDictionary {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+    private static final List<String> ONE_CHAR_WORDS = List.of("a", "e", "i", "o");
+
+    private BenchmarkDictionary() {
+    }
+
+    /**
+     * Writes a dictionary to a temporary file which is deleted when the JVM exits.
+     *
+     * @param size      number of words (possibly including a few duplicates)
+     * @param maxLength maximum word length
+     * @param seed      seed of the random number generator
+     * @return URI of the dictionary
+     */
+    static String write(int size, int maxLength, long seed) throws IOException {
+
+        Path file = Files.createTempFile("benchmark-" + size + "-", ".txt");
+        file.toFile().deleteOnExit();
+
+        var random = new Random(seed);
+
+        // wordsByLength[length] holds the words generated so far with the specified length
+        List<List<String>> wordsByLength = new ArrayList<>();
+        for (int length = 0; length <= maxLength; length++) {
+            wordsByLength.add(new ArrayList<>());
+        }
+        wordsByLength.get(1).addAll(ONE_CHAR_WORDS);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+
+            for (String word : ONE_CHAR_WORDS) {
+                writer.write(word);
+                writer.newLine();
+            }
+
+            for (int i = ONE_CHAR_WORDS.size(); i < size; i++) {
+
+                int length = 2 + random.nextInt(maxLength - 1);
+                List<String> shorter = wordsByLength.get(length - 1);
+
+                String word;
+                if (random.nextBoolean() && !shorter.isEmpty()) {
+                    String parent = shorter.get(random.nextInt(shorter.size()));
+                    int position = random.nextInt(length);
+                    word = parent.substring(0, position) + ALPHABET.charAt(random.nextInt(ALPHABET.length()))
+                            + parent.substring(position);
+                } else {
+                    char[] chars = new char[length];
+                    for (int c = 0; c < length; c++) {
+                        chars[c] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                    }
+                    word = new String(chars);
+                }
+
+                wordsByLength.get(length).add(word);
+                writer.write(word);
+                writer.newLine();
+            }
+        }
+
+        return file.toUri().toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.geowealth.scrabble.benchmark;
+
+import com.beust.jcommander.JCommander;
+import com.geowealth.scrabble.cli.Args;
+
+/**
+ * Utility methods shared by the benchmarks.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Creates a new {@link Args} instance from an array of command-line arguments.
+     *
+     * @param argv command-line arguments
+     * @return {@link Args} instance
+     */
+    static Args args(String... argv) {
+
+        Args args = new Args();
+        JCommander.newBuilder().addObject(args).build().parse(argv);
+        return args;
+    }
+}
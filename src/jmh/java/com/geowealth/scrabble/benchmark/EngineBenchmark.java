@@ -0,0 +1,71 @@
+package com.geowealth.scrabble.benchmark;
+
+import com.geowealth.scrabble.impl.BottomUpScrabbler;
+import com.geowealth.scrabble.impl.FingerprintScrabbler;
+import com.geowealth.scrabble.impl.ParallelScrabbler;
+import com.geowealth.scrabble.impl.Scrabbler;
+import com.geowealth.scrabble.impl.SequentialScrabbler;
+import com.geowealth.scrabble.impl.TrieScrabbler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the word matching engines across dictionary sizes and word lengths. The dictionary
+ * is loaded once per trial, so only {@link Scrabbler#findMatchingWords()} is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Dlogback.configurationFile=benchmark-logback.xml"})
+public class EngineBenchmark {
+
+    public enum Engine {
+        SEQUENTIAL, PARALLEL, BOTTOM_UP, FINGERPRINT, TRIE_WALK
+    }
+
+    @Param({"100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"7", "9", "12"})
+    public int wordLength;
+
+    @Param({"SEQUENTIAL", "PARALLEL", "BOTTOM_UP", "FINGERPRINT", "TRIE_WALK"})
+    public Engine engine;
+
+    private Scrabbler scrabbler;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        String url = BenchmarkDictionary.write(size, 15, 42);
+        var args = Benchmarks.args("-du", url, "-seq", "-wl", String.valueOf(wordLength));
+
+        scrabbler = switch (engine) {
+            case SEQUENTIAL -> new SequentialScrabbler(args);
+            case PARALLEL -> new ParallelScrabbler(args);
+            case BOTTOM_UP -> new BottomUpScrabbler(args);
+            case FINGERPRINT -> new FingerprintScrabbler(args);
+            case TRIE_WALK -> new TrieScrabbler(args);
+        };
+    }
+
+    @Benchmark
+    public Set<String> findMatchingWords() throws Exception {
+
+        return scrabbler.findMatchingWords();
+    }
+}
@@ -0,0 +1,58 @@
+package com.geowealth.scrabble.benchmark;
+
+import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.impl.Scrabbler;
+import com.geowealth.scrabble.impl.SequentialScrabbler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a dictionary from the local file system, i.e. everything the constructor
+ * of {@link com.geowealth.scrabble.impl.AbstractScrabbler} does: detecting the encoding,
+ * decoding and sanitizing the lines, and inserting the words into the dictionary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dlogback.configurationFile=benchmark-logback.xml"})
+public class LoadBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"HEAP", "OFF_HEAP", "COMPACT", "DAWG"})
+    public String backend;
+
+    @Param({"false", "true"})
+    public boolean discardLongerWords;
+
+    private Args args;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        String url = BenchmarkDictionary.write(size, 15, 42);
+        args = discardLongerWords
+                ? Benchmarks.args("-du", url, "-seq", "-wl", "9", "-db", backend, "-dlw")
+                : Benchmarks.args("-du", url, "-seq", "-wl", "9", "-db", backend);
+    }
+
+    @Benchmark
+    public Scrabbler load() throws Exception {
+
+        return new SequentialScrabbler(args);
+    }
+}
@@ -0,0 +1,74 @@
+package com.geowealth.scrabble.benchmark;
+
+import com.geowealth.scrabble.impl.ExecutionBackend;
+import com.geowealth.scrabble.impl.ParallelScrabbler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the throughput of the parallel engine scales with the number of threads on each
+ * dedicated execution backend, and how it depends on the chunk size (0 picks the default size).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Dlogback.configurationFile=benchmark-logback.xml"})
+public class ParallelismBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"FORK_JOIN", "PLATFORM", "VIRTUAL"})
+    public ExecutionBackend backend;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"0", "1024"})
+    public int chunkSize;
+
+    private ParallelScrabbler scrabbler;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        String url = BenchmarkDictionary.write(size, 15, 42);
+
+        List<String> argv = new ArrayList<>(List.of("-du", url, "-par", "-eb", backend.name(),
+                "-pl", String.valueOf(parallelism)));
+        if (chunkSize > 0) {
+            argv.addAll(List.of("-cs", String.valueOf(chunkSize)));
+        }
+
+        scrabbler = new ParallelScrabbler(Benchmarks.args(argv.toArray(String[]::new)));
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        scrabbler.close();
+    }
+
+    @Benchmark
+    public Set<String> findMatchingWords() {
+
+        return scrabbler.findMatchingWords();
+    }
+}
@@ -0,0 +1,106 @@
+package com.geowealth.scrabble.benchmark;
+
+import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.exceptions.ScrabbleLoadException;
+import com.geowealth.scrabble.impl.SequentialScrabbler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the recursive word matching algorithm on candidates which match (hit) and on
+ * candidates which do not (miss). A miss usually backtracks through more shorter words
+ * than a hit, which stops at the first complete match. Misses are where a Bloom filter in front
+ * of the dictionary pays off, as most of their lookups do not find a word.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dlogback.configurationFile=benchmark-logback.xml"})
+public class WordMatchBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"7", "9", "12"})
+    public int wordLength;
+
+    // bits per word of the Bloom filter; 0 disables the filter
+    @Param({"0", "10"})
+    public int bloomFilter;
+
+    private MatchingScrabbler scrabbler;
+    private String[] hits;
+    private String[] misses;
+    private int nextHit;
+    private int nextMiss;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        String url = BenchmarkDictionary.write(size, 15, 42);
+        scrabbler = new MatchingScrabbler(bloomFilter == 0
+                ? Benchmarks.args("-du", url, "-seq", "-wl", String.valueOf(wordLength))
+                : Benchmarks.args("-du", url, "-seq", "-wl", String.valueOf(wordLength), "-bf",
+                String.valueOf(bloomFilter)));
+
+        Set<String> matchingWords = scrabbler.findMatchingWords();
+        List<String> candidates = List.copyOf(scrabbler.getCandidateWords());
+
+        hits = matchingWords.toArray(String[]::new);
+        misses = candidates.stream().filter(word -> !matchingWords.contains(word)).toArray(String[]::new);
+
+        if (hits.length == 0 || misses.length == 0) {
+            throw new IllegalStateException("no hits or no misses: " + hits.length + "/" + misses.length);
+        }
+    }
+
+    /**
+     * Checks the next matching candidate, cycling through all of them.
+     */
+    @Benchmark
+    public boolean hit() {
+
+        nextHit = nextHit + 1 == hits.length ? 0 : nextHit + 1;
+        return scrabbler.isWordMatch(hits[nextHit]);
+    }
+
+    /**
+     * Checks the next candidate which does not match, cycling through all of them.
+     */
+    @Benchmark
+    public boolean miss() {
+
+        nextMiss = nextMiss + 1 == misses.length ? 0 : nextMiss + 1;
+        return scrabbler.isWordMatch(misses[nextMiss]);
+    }
+
+    /**
+     * Exposes the word matching algorithm of {@link SequentialScrabbler} to the benchmark.
+     */
+    private static class MatchingScrabbler extends SequentialScrabbler {
+
+        MatchingScrabbler(Args args) throws ScrabbleLoadException {
+            super(args);
+        }
+
+        @Override
+        public boolean isWordMatch(String word) {
+            return super.isWordMatch(word);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IParametersValidator;
+import com.beust.jcommander.ParameterException;
+
+import java.util.List;
+import java.util.Map;
+
+public class AlgorithmValidator implements IParametersValidator {
+
+    // long names of the mutually exclusive options used to select a word matching algorithm
+    private static final List<String> ALGORITHMS = List.of("--sequential", "--parallel", "--bottom-up",
+            "--fingerprint", "--trie-walk");
+
+    @Override
+    public void validate(Map<String, Object> params) throws ParameterException {
+
+        long specified = ALGORITHMS.stream().filter(name -> Boolean.TRUE.equals(params.get(name))).count();
+
+        if (specified != 1) {
+            throw new ParameterException("-seq, -par, -bu, -fp and -tw are mutually exclusive and exactly one of them must be specified");
+        }
+    }
+}
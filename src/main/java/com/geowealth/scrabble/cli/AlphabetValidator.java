@@ -0,0 +1,18 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IValueValidator;
+import com.beust.jcommander.ParameterException;
+
+public class AlphabetValidator implements IValueValidator<String> {
+
+    @Override
+    public void validate(String name, String value) throws ParameterException {
+
+        if (value.chars().distinct().count() != value.length() || value.length() < 3) {
+            throw new ParameterException(name + ": alphabet must consist of at least 3 distinct characters");
+        }
+        if (value.chars().anyMatch(c -> c <= ' ' || Character.isSurrogate((char) c))) {
+            throw new ParameterException(name + ": alphabet must not contain whitespace, control or surrogate characters");
+        }
+    }
+}
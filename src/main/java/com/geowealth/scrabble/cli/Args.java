@@ -2,12 +2,17 @@ package com.geowealth.scrabble.cli;
 
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
+import com.geowealth.scrabble.dictionary.DictionaryBackend;
+import com.geowealth.scrabble.impl.ExecutionBackend;
 import com.geowealth.scrabble.impl.Scrabbler;
 
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * Represents configuration options parsed from the command line using
@@ -18,8 +23,10 @@ import java.util.Set;
  * if incorrect ones are specified, the parser will display a usage message to guide
  * the user in specifying correct options.
  */
-@Parameters(parametersValidators = SequentialOrParallelValidator.class)
-public class Args {
+@Parameters(parametersValidators = {AlgorithmValidator.class, WordLengthOrLengthsValidator.class,
+        ExecutionBackendValidator.class, LogChainsValidator.class, CountPathsValidator.class,
+        ShardsValidator.class, SnapshotDirectoryValidator.class})
+public class Args implements Cloneable {
 
     @Parameter(names = {"-du", "--dictionary-url"}, required = true,
             description = "URL of a dictionary with one word per line. Dictionary contents are considered case-sensitive.",
@@ -31,11 +38,35 @@ public class Args {
             validateValueWith = CharsetValidator.class)
     private String dictionaryCharset;
 
+    @Parameter(names = {"-db", "--dictionary-backend"},
+            description = "Data structure which holds the dictionary words")
+    private DictionaryBackend dictionaryBackend;
+
+    @Parameter(names = {"-sd", "--snapshot-directory"},
+            description = "Directory holding binary snapshots of sanitized dictionaries, used instead of "
+                    + "loading a dictionary again as long as it does not change (HEAP dictionary backend only)")
+    private String snapshotDirectory;
+
+    @Parameter(names = {"-cd", "--cache-directory"},
+            description = "Directory holding local copies of dictionaries fetched over HTTP(S), revalidated with "
+                    + "the server instead of downloading a dictionary again as long as it does not change")
+    private String cacheDirectory;
+
+    @Parameter(names = {"-dlw", "--discard-longer-words"},
+            description = "Discard dictionary words longer than the length of words to find while loading")
+    private Boolean discardLongerWords;
+
     @Parameter(names = {"-wl", "--word-length"},
             description = "Length of words to find (>=2 and <=50)",
             validateValueWith = WordLengthValidator.class)
     private Integer wordLength;
 
+    @Parameter(names = {"-wls", "--word-lengths"},
+            description = "Comma-separated lengths or ranges of lengths of words to find in a single run, "
+                    + "e.g. 2-50 or 5,7,9-12 (each >=2 and <=50)",
+            validateValueWith = WordLengthsValidator.class)
+    private String wordLengths;
+
     @Parameter(names = {"-ocw", "--one-char-words"},
             description = "List of case-sensitive 1-character words to add to the dictionary",
             validateValueWith = OneCharWordsValidator.class)
@@ -49,17 +80,137 @@ public class Args {
             description = "Use a parallel algorithm to find matching words in the dictionary")
     private Boolean parallel;
 
+    @Parameter(names = {"-bu", "--bottom-up"},
+            description = "Use a bottom-up algorithm which finds reducible words one word length at a time")
+    private Boolean bottomUp;
+
+    @Parameter(names = {"-fp", "--fingerprint"},
+            description = "Use a sequential algorithm which looks up the words obtained by removing one character "
+                    + "by a fingerprint computed in constant time")
+    private Boolean fingerprint;
+
+    @Parameter(names = {"-tw", "--trie-walk"},
+            description = "Use a sequential algorithm which looks up the words obtained by removing one character "
+                    + "by walking an automaton of the dictionary, sharing the walk along their common prefix")
+    private Boolean trieWalk;
+
+    @Parameter(names = {"-eb", "--execution-backend"},
+            description = "Threads which the parallel algorithm checks words on")
+    private ExecutionBackend executionBackend;
+
+    @Parameter(names = {"-pl", "--parallelism"},
+            description = "Number of words checked at the same time by the parallel algorithm (defaults to the "
+                    + "number of available processors; not applicable to the COMMON_POOL execution backend)",
+            validateValueWith = PositiveNumberValidator.class)
+    private Integer parallelism;
+
+    @Parameter(names = {"-cs", "--chunk-size"},
+            description = "Number of words in each chunk checked by a thread of the parallel algorithm "
+                    + "(defaults to about four chunks per thread)",
+            validateValueWith = PositiveNumberValidator.class)
+    private Integer chunkSize;
+
+    @Parameter(names = {"-bf", "--bloom-filter"},
+            description = "Check the dictionary lookups of the recursive algorithm against a Bloom filter with the "
+                    + "specified number of bits per word first, which rejects most words not in the dictionary",
+            validateValueWith = PositiveNumberValidator.class)
+    private Integer bloomFilter;
+
     @Parameter(names = {"-lm", "--log-matching"},
             description = "Log matching words")
     private Boolean logMatching;
 
+    @Parameter(names = {"-lc", "--log-chains"},
+            description = "Log a reduction chain along with each matching word (requires -lm)")
+    private Boolean logChains;
+
+    @Parameter(names = {"-cp", "--count-paths"},
+            description = "Log the number of distinct reduction paths along with each matching word, in descending "
+                    + "order of number of paths (requires -lm)")
+    private Boolean countPaths;
+
+    @Parameter(names = {"-ep", "--enumerate-paths"},
+            description = "Also log up to the specified number of reduction paths of each matching word (requires -cp)",
+            validateValueWith = PositiveNumberValidator.class)
+    private Integer enumeratePaths;
+
+    @Parameter(names = {"-wd", "--watch-dictionary"},
+            description = "Keep running after finding matching words and apply any edits made to the dictionary "
+                    + "file (local dictionaries only), logging the change to the matching words")
+    private Boolean watchDictionary;
+
+    @Parameter(names = {"-sp", "--server-port"},
+            description = "Keep the dictionaries loaded and serve match queries over HTTP on the specified "
+                    + "local port (0 picks a free port)",
+            validateValueWith = ServerPortValidator.class)
+    private Integer serverPort;
+
+    @Parameter(names = {"-adu", "--additional-dictionary-urls"},
+            description = "List of URLs of additional dictionaries to serve along with the dictionary "
+                    + "specified with -du (server mode only)",
+            validateValueWith = DictionaryURLsValidator.class)
+    private Set<String> additionalDictionaryUrls;
+
+    @Parameter(names = {"-sh", "--shards"},
+            description = "Split the candidate words into the specified number of shards by hash and match each "
+                    + "shard in a worker process of its own, started on this machine",
+            validateValueWith = PositiveNumberValidator.class)
+    private Integer shards;
+
+    @Parameter(names = {"-sa", "--shard-attempts"},
+            description = "Number of times a shard is matched in a new worker process before giving up, if its "
+                    + "worker fails (requires -sh)",
+            validateValueWith = PositiveNumberValidator.class)
+    private Integer shardAttempts;
+
+    // set by a coordinator (see -sh) on the command line of its worker processes
+    @Parameter(names = "--shard", hidden = true,
+            description = "Index of the shard to match and number of shards, as index/count")
+    private String shard;
+
+    @Parameter(names = "--coordinator-port", hidden = true,
+            description = "Local port of the coordinator which the matching words are sent to")
+    private Integer coordinatorPort;
+
+    @Parameter(names = {"-mf", "--metrics-file"},
+            description = "Write the load and match metrics as JSON to the specified file when the program exits")
+    private String metricsFile;
+
     public Args() {
         dictionaryCharset = StandardCharsets.UTF_8.toString();
+        dictionaryBackend = DictionaryBackend.HEAP;
+        discardLongerWords = Boolean.FALSE;
         wordLength = 9;
         oneCharWords = new HashSet<>();
         sequential = Boolean.FALSE;
         parallel = Boolean.FALSE;
+        bottomUp = Boolean.FALSE;
+        fingerprint = Boolean.FALSE;
+        trieWalk = Boolean.FALSE;
+        executionBackend = ExecutionBackend.COMMON_POOL;
         logMatching = Boolean.FALSE;
+        logChains = Boolean.FALSE;
+        countPaths = Boolean.FALSE;
+        watchDictionary = Boolean.FALSE;
+        additionalDictionaryUrls = new LinkedHashSet<>();
+        shardAttempts = 3;
+    }
+
+    /**
+     * Returns a copy of these options which loads the dictionary at the specified URL.
+     *
+     * @param url URL of a dictionary with one word per line
+     * @return copy of these options with a different dictionary URL
+     */
+    public Args withDictionaryUrl(String url) {
+
+        try {
+            Args args = (Args) clone();
+            args.dictionaryUrl = url;
+            return args;
+        } catch (CloneNotSupportedException ex) {
+            throw new AssertionError(ex);
+        }
     }
 
     @Override
@@ -79,11 +230,34 @@ public class Args {
 
         return Objects.equals(dictionaryUrl, ((Args) other).dictionaryUrl) &&
                 Objects.equals(dictionaryCharset, ((Args) other).dictionaryCharset) &&
+                Objects.equals(dictionaryBackend, ((Args) other).dictionaryBackend) &&
+                Objects.equals(snapshotDirectory, ((Args) other).snapshotDirectory) &&
+                Objects.equals(cacheDirectory, ((Args) other).cacheDirectory) &&
+                Objects.equals(discardLongerWords, ((Args) other).discardLongerWords) &&
                 Objects.equals(wordLength, ((Args) other).wordLength) &&
+                Objects.equals(wordLengths, ((Args) other).wordLengths) &&
                 Objects.equals(oneCharWords, ((Args) other).oneCharWords) &&
                 Objects.equals(sequential, ((Args) other).sequential) &&
                 Objects.equals(parallel, ((Args) other).parallel) &&
-                Objects.equals(logMatching, ((Args) other).logMatching);
+                Objects.equals(bottomUp, ((Args) other).bottomUp) &&
+                Objects.equals(fingerprint, ((Args) other).fingerprint) &&
+                Objects.equals(trieWalk, ((Args) other).trieWalk) &&
+                Objects.equals(executionBackend, ((Args) other).executionBackend) &&
+                Objects.equals(parallelism, ((Args) other).parallelism) &&
+                Objects.equals(chunkSize, ((Args) other).chunkSize) &&
+                Objects.equals(logMatching, ((Args) other).logMatching) &&
+                Objects.equals(bloomFilter, ((Args) other).bloomFilter) &&
+                Objects.equals(logChains, ((Args) other).logChains) &&
+                Objects.equals(countPaths, ((Args) other).countPaths) &&
+                Objects.equals(enumeratePaths, ((Args) other).enumeratePaths) &&
+                Objects.equals(watchDictionary, ((Args) other).watchDictionary) &&
+                Objects.equals(serverPort, ((Args) other).serverPort) &&
+                Objects.equals(additionalDictionaryUrls, ((Args) other).additionalDictionaryUrls) &&
+                Objects.equals(metricsFile, ((Args) other).metricsFile) &&
+                Objects.equals(shards, ((Args) other).shards) &&
+                Objects.equals(shardAttempts, ((Args) other).shardAttempts) &&
+                Objects.equals(shard, ((Args) other).shard) &&
+                Objects.equals(coordinatorPort, ((Args) other).coordinatorPort);
     }
 
     public String getDictionaryUrl() {
@@ -94,10 +268,36 @@ public class Args {
         return dictionaryCharset;
     }
 
+    public DictionaryBackend getDictionaryBackend() {
+        return dictionaryBackend;
+    }
+
+    public String getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public Boolean getDiscardLongerWords() {
+        return discardLongerWords;
+    }
+
     public Integer getWordLength() {
         return wordLength;
     }
 
+    /**
+     * Returns the lengths of words to find: the lengths specified with {@code -wls}
+     * if present, otherwise the single length specified with {@code -wl}.
+     *
+     * @return ordered set of word lengths
+     */
+    public SortedSet<Integer> getWordLengths() {
+        return wordLengths == null ? new TreeSet<>(Set.of(wordLength)) : WordLengthsValidator.parse(wordLengths);
+    }
+
     public Set<String> getOneCharWords() {
         return oneCharWords;
     }
@@ -110,7 +310,93 @@ public class Args {
         return parallel;
     }
 
+    public Boolean getBottomUp() {
+        return bottomUp;
+    }
+
+    public Boolean getFingerprint() {
+        return fingerprint;
+    }
+
+    public Boolean getTrieWalk() {
+        return trieWalk;
+    }
+
+    public ExecutionBackend getExecutionBackend() {
+        return executionBackend;
+    }
+
+    public Integer getParallelism() {
+        return parallelism == null ? Runtime.getRuntime().availableProcessors() : parallelism;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public Integer getBloomFilter() {
+        return bloomFilter;
+    }
+
     public Boolean getLogMatching() {
         return logMatching;
     }
+
+    public Boolean getLogChains() {
+        return logChains;
+    }
+
+    public Boolean getCountPaths() {
+        return countPaths;
+    }
+
+    public Integer getEnumeratePaths() {
+        return enumeratePaths;
+    }
+
+    public Boolean getWatchDictionary() {
+        return watchDictionary;
+    }
+
+    public Integer getServerPort() {
+        return serverPort;
+    }
+
+    public Set<String> getAdditionalDictionaryUrls() {
+        return additionalDictionaryUrls;
+    }
+
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public Integer getShards() {
+        return shards;
+    }
+
+    public Integer getShardAttempts() {
+        return shardAttempts;
+    }
+
+    /**
+     * Returns the index of the shard of candidate words to match, if this is a worker process.
+     *
+     * @return index of the shard, or {@code null} if all candidate words are matched
+     */
+    public Integer getShardIndex() {
+        return shard == null ? null : Integer.valueOf(shard.substring(0, shard.indexOf('/')));
+    }
+
+    /**
+     * Returns the number of shards the candidate words are split into, if this is a worker process.
+     *
+     * @return number of shards, or {@code null} if all candidate words are matched
+     */
+    public Integer getShardCount() {
+        return shard == null ? null : Integer.valueOf(shard.substring(shard.indexOf('/') + 1));
+    }
+
+    public Integer getCoordinatorPort() {
+        return coordinatorPort;
+    }
 }
@@ -0,0 +1,29 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IParametersValidator;
+import com.beust.jcommander.ParameterException;
+
+import java.util.Map;
+
+public class CountPathsValidator implements IParametersValidator {
+
+    @Override
+    public void validate(Map<String, Object> params) throws ParameterException {
+
+        if (params.get("--enumerate-paths") != null && !Boolean.TRUE.equals(params.get("--count-paths"))) {
+            throw new ParameterException("-ep can only be used with -cp");
+        }
+        if (!Boolean.TRUE.equals(params.get("--count-paths"))) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(params.get("--log-matching"))) {
+            throw new ParameterException("-cp can only be used with -lm");
+        }
+        if (params.get("--word-lengths") != null) {
+            throw new ParameterException("-cp cannot be used with -wls");
+        }
+        if (Boolean.TRUE.equals(params.get("--log-chains"))) {
+            throw new ParameterException("-cp cannot be used with -lc");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IValueValidator;
+import com.beust.jcommander.ParameterException;
+
+import java.util.Collection;
+
+public class DictionaryURLsValidator implements IValueValidator<Collection<String>> {
+
+    @Override
+    public void validate(String name, Collection<String> values) throws ParameterException {
+
+        var validator = new DictionaryURLValidator();
+        values.forEach(val -> validator.validate(name, val));
+    }
+}
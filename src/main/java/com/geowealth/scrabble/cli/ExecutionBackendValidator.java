@@ -0,0 +1,28 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IParametersValidator;
+import com.beust.jcommander.ParameterException;
+import com.geowealth.scrabble.impl.ExecutionBackend;
+
+import java.util.List;
+import java.util.Map;
+
+public class ExecutionBackendValidator implements IParametersValidator {
+
+    // long names of the options which only apply to the parallel algorithm
+    private static final List<String> PARALLEL_OPTIONS = List.of("--execution-backend", "--parallelism", "--chunk-size");
+
+    @Override
+    public void validate(Map<String, Object> params) throws ParameterException {
+
+        if (!Boolean.TRUE.equals(params.get("--parallel"))
+                && PARALLEL_OPTIONS.stream().anyMatch(name -> params.get(name) != null)) {
+            throw new ParameterException("-eb, -pl and -cs can only be used with -par");
+        }
+
+        Object backend = params.get("--execution-backend");
+        if (params.get("--parallelism") != null && (backend == null || backend == ExecutionBackend.COMMON_POOL)) {
+            throw new ParameterException("-pl cannot be used with the COMMON_POOL execution backend");
+        }
+    }
+}
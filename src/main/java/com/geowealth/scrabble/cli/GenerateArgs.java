@@ -0,0 +1,166 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Represents configuration options of the {@code generate} command, which writes a synthetic
+ * dictionary, parsed from the command line using {@link com.beust.jcommander.JCommander JCommander}.
+ * Used to create {@link com.geowealth.scrabble.generator.DictionaryGenerator DictionaryGenerator}
+ * instances.
+ */
+@Parameters(commandDescription = "Write a deterministic synthetic dictionary")
+public class GenerateArgs {
+
+    @Parameter(names = {"-o", "--output"}, required = true,
+            description = "Path of the dictionary file to write")
+    private String output;
+
+    @Parameter(names = {"-oc", "--output-charset"},
+            description = "Charset of the dictionary file",
+            validateValueWith = CharsetValidator.class)
+    private String outputCharset;
+
+    @Parameter(names = {"-n", "--size"},
+            description = "Number of lines in the dictionary",
+            validateValueWith = PositiveNumberValidator.class)
+    private Long size;
+
+    @Parameter(names = {"-s", "--seed"},
+            description = "Seed of the random number generator; the same options and seed always produce the same file")
+    private Long seed;
+
+    @Parameter(names = {"-a", "--alphabet"},
+            description = "Characters which make up the words; the last character is reserved for near-miss words",
+            validateValueWith = AlphabetValidator.class)
+    private String alphabet;
+
+    @Parameter(names = {"-ocw", "--one-char-words"},
+            description = "List of case-sensitive 1-character words to write (defaults to the first character of the alphabet)",
+            validateValueWith = OneCharWordsValidator.class)
+    private Set<String> oneCharWords;
+
+    @Parameter(names = {"-wl", "--word-length"},
+            description = "Length of the candidate words (>=2 and <=50)",
+            validateValueWith = WordLengthValidator.class)
+    private Integer wordLength;
+
+    @Parameter(names = {"-c", "--candidates"},
+            description = "Number of candidate words (defaults to 1% of the lines)",
+            validateValueWith = PositiveNumberValidator.class)
+    private Long candidates;
+
+    @Parameter(names = {"-rs", "--reducible-share"},
+            description = "Share of the candidate words which are reducible (>=0 and <=1)",
+            validateValueWith = ShareValidator.class)
+    private Double reducibleShare;
+
+    @Parameter(names = {"-nmd", "--near-miss-depth"},
+            description = "Number of characters which can be removed from a candidate word which is not reducible "
+                    + "before the word matching algorithm has to backtrack",
+            validateValueWith = PositiveNumberValidator.class)
+    private Integer nearMissDepth;
+
+    @Parameter(names = {"-ld", "--length-distribution"},
+            description = "Lengths of the remaining words, as comma-separated lengths or ranges of lengths, each "
+                    + "optionally followed by a relative weight, e.g. 2-15 or 3:1,4-8:4,9:2",
+            validateValueWith = LengthDistributionValidator.class)
+    private String lengthDistribution;
+
+    public GenerateArgs() {
+        outputCharset = StandardCharsets.UTF_8.toString();
+        size = 1_000_000L;
+        seed = 0L;
+        alphabet = "abcdefghijklmnopqrstuvwxyz";
+        oneCharWords = new LinkedHashSet<>();
+        wordLength = 9;
+        reducibleShare = 0.5;
+        nearMissDepth = 3;
+        lengthDistribution = "2-15";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+
+        if (this == other) {
+            return true;
+        }
+
+        if (other == null) {
+            return false;
+        }
+
+        if (getClass() != other.getClass()) {
+            return false;
+        }
+
+        return Objects.equals(output, ((GenerateArgs) other).output) &&
+                Objects.equals(outputCharset, ((GenerateArgs) other).outputCharset) &&
+                Objects.equals(size, ((GenerateArgs) other).size) &&
+                Objects.equals(seed, ((GenerateArgs) other).seed) &&
+                Objects.equals(alphabet, ((GenerateArgs) other).alphabet) &&
+                Objects.equals(oneCharWords, ((GenerateArgs) other).oneCharWords) &&
+                Objects.equals(wordLength, ((GenerateArgs) other).wordLength) &&
+                Objects.equals(candidates, ((GenerateArgs) other).candidates) &&
+                Objects.equals(reducibleShare, ((GenerateArgs) other).reducibleShare) &&
+                Objects.equals(nearMissDepth, ((GenerateArgs) other).nearMissDepth) &&
+                Objects.equals(lengthDistribution, ((GenerateArgs) other).lengthDistribution);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(output, outputCharset, size, seed, alphabet, oneCharWords, wordLength, candidates,
+                reducibleShare, nearMissDepth, lengthDistribution);
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public String getOutputCharset() {
+        return outputCharset;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public String getAlphabet() {
+        return alphabet;
+    }
+
+    public Set<String> getOneCharWords() {
+        return oneCharWords.isEmpty() ? Set.of(alphabet.substring(0, 1)) : oneCharWords;
+    }
+
+    public Integer getWordLength() {
+        return wordLength;
+    }
+
+    public Long getCandidates() {
+        return candidates == null ? Math.max(1, size / 100) : candidates;
+    }
+
+    public Double getReducibleShare() {
+        return reducibleShare;
+    }
+
+    public Integer getNearMissDepth() {
+        return nearMissDepth;
+    }
+
+    public SortedMap<Integer, Double> getLengthDistribution() {
+        return LengthDistributionValidator.parse(lengthDistribution);
+    }
+}
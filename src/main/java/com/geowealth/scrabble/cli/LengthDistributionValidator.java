@@ -0,0 +1,58 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IValueValidator;
+import com.beust.jcommander.ParameterException;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class LengthDistributionValidator implements IValueValidator<String> {
+
+    @Override
+    public void validate(String name, String value) throws ParameterException {
+
+        try {
+            parse(value);
+        } catch (IllegalArgumentException ex) {
+            throw new ParameterException(name + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of word lengths and ranges of word lengths, each optionally
+     * followed by a relative weight, e.g. {@code 2-15} or {@code 3:1,4-8:4,9:2}. Lengths without
+     * a weight have a weight of 1.
+     *
+     * @param value length distribution
+     * @return relative weights keyed by word length
+     * @throws IllegalArgumentException if the distribution is malformed
+     */
+    static SortedMap<Integer, Double> parse(String value) {
+
+        SortedMap<Integer, Double> weights = new TreeMap<>();
+
+        for (String item : value.split(",", -1)) {
+
+            String[] lengthAndWeight = item.split(":", -1);
+            if (lengthAndWeight.length > 2) {
+                throw new IllegalArgumentException("invalid length weight: " + item);
+            }
+
+            double weight;
+            try {
+                weight = lengthAndWeight.length == 1 ? 1 : Double.parseDouble(lengthAndWeight[1].trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("invalid weight: " + item);
+            }
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("weight must be >0: " + item);
+            }
+
+            for (int length : WordLengthsValidator.parse(lengthAndWeight[0])) {
+                weights.merge(length, weight, Double::sum);
+            }
+        }
+
+        return weights;
+    }
+}
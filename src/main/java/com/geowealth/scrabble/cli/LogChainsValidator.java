@@ -0,0 +1,23 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IParametersValidator;
+import com.beust.jcommander.ParameterException;
+
+import java.util.Map;
+
+public class LogChainsValidator implements IParametersValidator {
+
+    @Override
+    public void validate(Map<String, Object> params) throws ParameterException {
+
+        if (!Boolean.TRUE.equals(params.get("--log-chains"))) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(params.get("--log-matching"))) {
+            throw new ParameterException("-lc can only be used with -lm");
+        }
+        if (params.get("--word-lengths") != null) {
+            throw new ParameterException("-lc cannot be used with -wls");
+        }
+    }
+}
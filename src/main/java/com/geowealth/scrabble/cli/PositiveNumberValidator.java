@@ -0,0 +1,15 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IValueValidator;
+import com.beust.jcommander.ParameterException;
+
+public class PositiveNumberValidator implements IValueValidator<Number> {
+
+    @Override
+    public void validate(String name, Number value) throws ParameterException {
+
+        if (value.longValue() <= 0) {
+            throw new ParameterException(name + ": value must be >0");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IValueValidator;
+import com.beust.jcommander.ParameterException;
+
+public class ServerPortValidator implements IValueValidator<Integer> {
+
+    @Override
+    public void validate(String name, Integer value) throws ParameterException {
+
+        if (value < 0 || value > 65535) {
+            throw new ParameterException(name + ": value must be >=0 and <=65535");
+        }
+    }
+}
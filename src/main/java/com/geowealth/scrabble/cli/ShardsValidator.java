@@ -0,0 +1,51 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IParametersValidator;
+import com.beust.jcommander.ParameterException;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ShardsValidator implements IParametersValidator {
+
+    private static final Pattern SHARD = Pattern.compile("(\\d{1,9})/(\\d{1,9})");
+
+    @Override
+    public void validate(Map<String, Object> params) throws ParameterException {
+
+        if (params.get("--shard-attempts") != null && params.get("--shards") == null) {
+            throw new ParameterException("-sa can only be used with -sh");
+        }
+
+        Object shard = params.get("--shard");
+        if ((shard == null) != (params.get("--coordinator-port") == null)) {
+            throw new ParameterException("--shard and --coordinator-port must be used together");
+        }
+        if (shard != null) {
+            Matcher matcher = SHARD.matcher(shard.toString());
+            if (!matcher.matches() || Integer.parseInt(matcher.group(1)) >= Integer.parseInt(matcher.group(2))) {
+                throw new ParameterException("--shard: value must be index/count with 0 <= index < count");
+            }
+        }
+
+        if (params.get("--shards") == null) {
+            return;
+        }
+        if (params.get("--server-port") != null) {
+            throw new ParameterException("-sh cannot be used with -sp");
+        }
+        if (params.get("--word-lengths") != null) {
+            throw new ParameterException("-sh cannot be used with -wls");
+        }
+        if (Boolean.TRUE.equals(params.get("--log-chains"))) {
+            throw new ParameterException("-sh cannot be used with -lc");
+        }
+        if (Boolean.TRUE.equals(params.get("--count-paths"))) {
+            throw new ParameterException("-sh cannot be used with -cp");
+        }
+        if (Boolean.TRUE.equals(params.get("--watch-dictionary"))) {
+            throw new ParameterException("-sh cannot be used with -wd");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IValueValidator;
+import com.beust.jcommander.ParameterException;
+
+public class ShareValidator implements IValueValidator<Double> {
+
+    @Override
+    public void validate(String name, Double value) throws ParameterException {
+
+        if (!(value >= 0 && value <= 1)) {
+            throw new ParameterException(name + ": value must be >=0 and <=1");
+        }
+    }
+}
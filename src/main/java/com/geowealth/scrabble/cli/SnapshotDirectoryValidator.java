@@ -0,0 +1,24 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IParametersValidator;
+import com.beust.jcommander.ParameterException;
+import com.geowealth.scrabble.dictionary.DictionaryBackend;
+
+import java.util.Map;
+
+public class SnapshotDirectoryValidator implements IParametersValidator {
+
+    @Override
+    public void validate(Map<String, Object> params) throws ParameterException {
+
+        if (params.get("--snapshot-directory") == null) {
+            return;
+        }
+
+        // the buckets of a snapshot are used as they are, whatever the dictionary backend
+        Object backend = params.get("--dictionary-backend");
+        if (backend != null && backend != DictionaryBackend.HEAP) {
+            throw new ParameterException("-sd can only be used with the HEAP dictionary backend");
+        }
+    }
+}
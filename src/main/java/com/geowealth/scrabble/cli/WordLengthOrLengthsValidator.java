@@ -0,0 +1,17 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IParametersValidator;
+import com.beust.jcommander.ParameterException;
+
+import java.util.Map;
+
+public class WordLengthOrLengthsValidator implements IParametersValidator {
+
+    @Override
+    public void validate(Map<String, Object> params) throws ParameterException {
+
+        if (params.get("--word-length") != null && params.get("--word-lengths") != null) {
+            throw new ParameterException("-wl and -wls are mutually exclusive");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.geowealth.scrabble.cli;
+
+import com.beust.jcommander.IValueValidator;
+import com.beust.jcommander.ParameterException;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+public class WordLengthsValidator implements IValueValidator<String> {
+
+    @Override
+    public void validate(String name, String value) throws ParameterException {
+
+        try {
+            parse(value);
+        } catch (IllegalArgumentException ex) {
+            throw new ParameterException(name + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of word lengths and ranges of word lengths,
+     * e.g. {@code 2-50} or {@code 5,7,9-12}.
+     *
+     * @param value list of word lengths
+     * @return ordered set of word lengths
+     * @throws IllegalArgumentException if the list is malformed or contains a length outside [2, 50]
+     */
+    static SortedSet<Integer> parse(String value) {
+
+        SortedSet<Integer> lengths = new TreeSet<>();
+
+        for (String item : value.split(",", -1)) {
+
+            String[] bounds = item.trim().split("-", -1);
+            if (bounds.length > 2) {
+                throw new IllegalArgumentException("invalid word length range: " + item);
+            }
+
+            int from = parseLength(bounds[0]);
+            int to = bounds.length == 1 ? from : parseLength(bounds[1]);
+            if (from > to) {
+                throw new IllegalArgumentException("invalid word length range: " + item);
+            }
+
+            for (int length = from; length <= to; length++) {
+                lengths.add(length);
+            }
+        }
+
+        return lengths;
+    }
+
+    private static int parseLength(String value) {
+
+        int length;
+        try {
+            length = Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("invalid word length: " + value);
+        }
+
+        if (length < 2 || length > 50) {
+            throw new IllegalArgumentException("value must be >=2 and <=50 characters");
+        }
+        return length;
+    }
+}
@@ -0,0 +1,179 @@
+package com.geowealth.scrabble.dictionary;
+
+/**
+ * A blocked Bloom filter of words, used to reject most lookups of words which are not in a
+ * dictionary before the dictionary itself is probed.
+ * <p>
+ * The filter is split into blocks of 512 bits, the size of a typical cache line. All bits of a
+ * word are set in the same block, chosen by its hash, so checking a word touches a single cache
+ * line instead of one per bit. The filter is much smaller than the dictionary (about one byte
+ * per word at 8 bits per word), so it is far more likely to stay in a processor cache.
+ * <p>
+ * A word which was added is always reported as possibly contained; a word which was not added
+ * is reported as possibly contained with a small probability (a false positive), which falls
+ * as the number of bits per word grows. Words cannot be removed.
+ * <p>
+ * The filter is not thread-safe. It can be read concurrently once it is no longer modified.
+ */
+public class BloomFilter {
+
+    // number of bits in a block, and of longs holding them
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_LONGS = BLOCK_BITS / Long.SIZE;
+
+    private static final int MAX_HASH_FUNCTIONS = 16;
+
+    private final long[] bits;
+    private final int blocks;
+    private final int hashFunctions;
+
+    /**
+     * Creates a new empty filter sized for the specified number of words.
+     *
+     * @param expectedWords number of words which will be added
+     * @param bitsPerWord   number of bits per word
+     * @throws IllegalArgumentException if the number of bits per word is not positive or the
+     *                                  filter would be too large
+     */
+    public BloomFilter(long expectedWords, int bitsPerWord) {
+
+        if (bitsPerWord <= 0) {
+            throw new IllegalArgumentException("bits per word must be > 0");
+        }
+
+        long longs = Math.max(1, (Math.max(1, expectedWords) * bitsPerWord + BLOCK_BITS - 1) / BLOCK_BITS)
+                * BLOCK_LONGS;
+        if (longs > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("filter too large: " + expectedWords + " words");
+        }
+
+        bits = new long[(int) longs];
+        blocks = (int) (longs / BLOCK_LONGS);
+
+        // the number of hash functions which minimizes the false positive rate is ln(2) bits per word
+        hashFunctions = (int) Math.max(1, Math.min(MAX_HASH_FUNCTIONS, Math.round(bitsPerWord * Math.log(2))));
+    }
+
+    /**
+     * Returns a 64-bit hash of the word formed by the specified range of characters. The hash is
+     * unrelated to {@link String#hashCode()}, so that words which collide in a hash table do not
+     * also collide in the filter.
+     */
+    private static long hash(CharSequence chars) {
+
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int c = 0; c < chars.length(); c++) {
+            hash = (hash ^ chars.charAt(c)) * 0xBF58476D1CE4E5B9L;
+        }
+        return mix(hash ^ chars.length());
+    }
+
+    private static long hash(char[] chars, int offset, int length) {
+
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int c = offset; c < offset + length; c++) {
+            hash = (hash ^ chars[c]) * 0xBF58476D1CE4E5B9L;
+        }
+        return mix(hash ^ length);
+    }
+
+    /**
+     * Spreads every bit of the specified hash over all bits of the result (the finalizer of
+     * MurmurHash3).
+     */
+    private static long mix(long hash) {
+
+        hash = (hash ^ hash >>> 33) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ hash >>> 33) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ hash >>> 33;
+    }
+
+    /**
+     * Adds the specified word to the filter.
+     *
+     * @param word word to add
+     */
+    public void add(String word) {
+
+        long hash = hash(word);
+        int block = block(hash);
+
+        // the bits are picked by double hashing with the lower and upper halves of the hash
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = h1 + i * h2 & BLOCK_BITS - 1;
+            bits[block + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks whether the word formed by the specified range of characters may have been added
+     * to the filter.
+     *
+     * @param chars  array holding the characters of the word
+     * @param offset index of the first character of the word
+     * @param length number of characters in the word
+     * @return {@code false} if the word was definitely not added; {@code true} otherwise
+     */
+    public boolean mightContain(char[] chars, int offset, int length) {
+
+        long hash = hash(chars, offset, length);
+        int block = block(hash);
+
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = h1 + i * h2 & BLOCK_BITS - 1;
+            if ((bits[block + (bit >>> 6)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first long of the block of the specified hash.
+     */
+    private int block(long hash) {
+
+        return (int) Math.unsignedMultiplyHigh(hash, blocks) * BLOCK_LONGS;
+    }
+
+    /**
+     * Returns the size of the filter.
+     *
+     * @return size (in bytes)
+     */
+    public long sizeInBytes() {
+
+        return (long) bits.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the share of the bits which are set, from which the false positive rate of the
+     * filter can be estimated as this share raised to the power of the number of hash functions.
+     *
+     * @return share of the bits which are set, between 0 and 1
+     */
+    public double fillRatio() {
+
+        long set = 0;
+        for (long word : bits) {
+            set += Long.bitCount(word);
+        }
+        return (double) set / ((long) bits.length * Long.SIZE);
+    }
+
+    /**
+     * Returns an estimate of the false positive rate of the filter, based on the share of the
+     * bits which are set.
+     *
+     * @return estimated probability that a word which was not added is reported as possibly
+     * contained
+     */
+    public double expectedFalsePositiveRate() {
+
+        return Math.pow(fillRatio(), hashFunctions);
+    }
+}
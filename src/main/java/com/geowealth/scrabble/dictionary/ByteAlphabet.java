@@ -0,0 +1,68 @@
+package com.geowealth.scrabble.dictionary;
+
+/**
+ * Maps up to 255 distinct characters to single-byte codes, in the order the characters are first
+ * seen. Code 0 means that a character has no code. Dictionaries in single-byte charsets, and most
+ * dictionaries of a single language, never use more than 255 distinct characters.
+ * <p>
+ * Codes are assigned under a lock and never change, so codes can be read without locking while
+ * words are added to several {@link ByteWordSet}s sharing the alphabet in parallel.
+ */
+final class ByteAlphabet {
+
+    private static final int MAX_CODE = 255;
+
+    // codes[c] holds the code of character c, or 0 if it has none
+    private final byte[] codes = new byte[Character.MAX_VALUE + 1];
+
+    // chars[code] holds the character with the specified code
+    private final char[] chars = new char[MAX_CODE + 1];
+
+    private int size;
+
+    /**
+     * Returns the code of the specified character.
+     *
+     * @param c character
+     * @return code (between 1 and 255), or 0 if the character has no code
+     */
+    int code(char c) {
+
+        return codes[c] & 0xFF;
+    }
+
+    /**
+     * Returns the code of the specified character, assigning the next free code to it if it has
+     * none.
+     *
+     * @param c character
+     * @return code (between 1 and 255), or 0 if the character has no code and all codes are taken
+     */
+    int codeOrAssign(char c) {
+
+        int code = codes[c] & 0xFF;
+        return code != 0 ? code : assign(c);
+    }
+
+    private synchronized int assign(char c) {
+
+        int code = codes[c] & 0xFF;
+        if (code == 0 && size < MAX_CODE) {
+            code = ++size;
+            chars[code] = c;
+            codes[c] = (byte) code;
+        }
+        return code;
+    }
+
+    /**
+     * Returns the character with the specified code.
+     *
+     * @param code code (between 1 and 255)
+     * @return character
+     */
+    char charOf(int code) {
+
+        return chars[code];
+    }
+}
@@ -0,0 +1,397 @@
+package com.geowealth.scrabble.dictionary;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A {@link WordSet} which stores each character of a word in a single byte.
+ * <p>
+ * Characters are mapped to byte codes by a {@link ByteAlphabet}, which may be shared by several
+ * sets (e.g. the buckets of a {@link LengthPartitionedWordSet}). Words are appended to a byte
+ * array as records holding their length and the codes of their characters, and are located
+ * through an open-addressing hash table with linear probing whose slots hold the offsets of the
+ * records and the hash codes of the words (the same as {@link String#hashCode()}). Compared to a
+ * {@link WordHashSet}, this saves the {@link String} and array headers of every word, and half
+ * the size of words which do not fit in Latin-1 (e.g. Cyrillic words), so more of the dictionary
+ * fits in a processor cache.
+ * <p>
+ * Words looked up are compared with the records code by code, so no words are decoded except
+ * when iterating over the set. Words with a character which has no code once all 255 codes are
+ * taken are held in a {@link WordHashSet} instead. Null elements are not permitted. Removing a
+ * word frees its table slot but not its record; the byte array never shrinks.
+ * <p>
+ * The set is not thread-safe. It can be read concurrently once it is no longer modified.
+ */
+public class ByteWordSet extends AbstractSet<String> implements WordSet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // records of words with at least this many characters hold their length in 4 more bytes
+    private static final int LONG_LENGTH = 0xFF;
+
+    private final ByteAlphabet alphabet;
+
+    private byte[] records;
+    private int recordsSize;
+
+    // slots[slot] holds 1 + the offset of a record, or 0 if the slot is empty;
+    // hashes[slot] holds the hash code of the word in the record
+    private int[] slots;
+    private int[] hashes;
+    private int size;
+
+    // words with characters which have no code; null if there are none
+    private WordHashSet wide;
+
+    /**
+     * Creates a new empty set with an alphabet of its own.
+     */
+    public ByteWordSet() {
+        this(new ByteAlphabet());
+    }
+
+    /**
+     * Creates a new empty set which shares the specified alphabet.
+     *
+     * @param alphabet maps characters to byte codes
+     */
+    ByteWordSet(ByteAlphabet alphabet) {
+
+        this.alphabet = Objects.requireNonNull(alphabet);
+        records = new byte[DEFAULT_CAPACITY * 8];
+        slots = new int[DEFAULT_CAPACITY];
+        hashes = new int[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Maps a hash code to a slot using Fibonacci hashing.
+     */
+    private static int slot(int hash, int tableSize) {
+
+        return (hash * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(tableSize) + 1;
+    }
+
+    /**
+     * Checks whether every character of the specified word has a code.
+     */
+    private boolean isEncodable(String word) {
+
+        for (int c = 0; c < word.length(); c++) {
+            if (alphabet.code(word.charAt(c)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean add(String word) {
+
+        Objects.requireNonNull(word);
+
+        for (int c = 0; c < word.length(); c++) {
+            if (alphabet.codeOrAssign(word.charAt(c)) == 0) {
+                if (wide == null) {
+                    wide = new WordHashSet();
+                }
+                return wide.add(word);
+            }
+        }
+
+        if (find(word) >= 0) {
+            return false;
+        }
+
+        if (2 * (size + 1) > slots.length) {
+            rehash(slots.length << 1);
+        }
+
+        int hash = word.hashCode();
+        int mask = slots.length - 1;
+        int slot = slot(hash, slots.length);
+        while (slots[slot] != 0) {
+            slot = slot + 1 & mask;
+        }
+        slots[slot] = 1 + append(word);
+        hashes[slot] = hash;
+        size++;
+        return true;
+    }
+
+    /**
+     * Appends a record holding the specified word, whose characters all have codes.
+     *
+     * @return offset of the record
+     */
+    private int append(String word) {
+
+        int length = word.length();
+        int recordSize = (length < LONG_LENGTH ? 1 : 5) + length;
+        if (recordsSize + recordSize > records.length) {
+            long capacity = Math.max(2L * records.length, (long) recordsSize + recordSize);
+            if (capacity > Integer.MAX_VALUE - 8) {
+                if ((long) recordsSize + recordSize > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("too many characters in words of a single set");
+                }
+                capacity = Integer.MAX_VALUE - 8;
+            }
+            records = Arrays.copyOf(records, (int) capacity);
+        }
+
+        int offset = recordsSize;
+        int p = offset;
+        if (length < LONG_LENGTH) {
+            records[p++] = (byte) length;
+        } else {
+            records[p++] = (byte) LONG_LENGTH;
+            records[p++] = (byte) (length >>> 24);
+            records[p++] = (byte) (length >>> 16);
+            records[p++] = (byte) (length >>> 8);
+            records[p++] = (byte) length;
+        }
+        for (int c = 0; c < length; c++) {
+            records[p++] = (byte) alphabet.code(word.charAt(c));
+        }
+        recordsSize = p;
+        return offset;
+    }
+
+    /**
+     * Returns the length of the word in the record at the specified offset.
+     */
+    private int length(int offset) {
+
+        int length = records[offset] & 0xFF;
+        if (length < LONG_LENGTH) {
+            return length;
+        }
+        return (records[offset + 1] & 0xFF) << 24 | (records[offset + 2] & 0xFF) << 16
+                | (records[offset + 3] & 0xFF) << 8 | records[offset + 4] & 0xFF;
+    }
+
+    /**
+     * Returns the offset of the first character code in the record at the specified offset.
+     */
+    private int codesOffset(int offset) {
+
+        return offset + ((records[offset] & 0xFF) < LONG_LENGTH ? 1 : 5);
+    }
+
+    /**
+     * Returns the slot of the specified word, whose characters all have codes.
+     *
+     * @return slot, or -1 if the set does not hold the word
+     */
+    private int find(String word) {
+
+        int hash = word.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = slot(hash, slots.length); slots[slot] != 0; slot = slot + 1 & mask) {
+            if (hashes[slot] == hash && recordEquals(slots[slot] - 1, word)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean recordEquals(int offset, String word) {
+
+        if (length(offset) != word.length()) {
+            return false;
+        }
+        int p = codesOffset(offset);
+        for (int c = 0; c < word.length(); c++) {
+            if ((records[p + c] & 0xFF) != alphabet.code(word.charAt(c))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+
+        if (!(obj instanceof String word)) {
+            return false;
+        }
+        if (!isEncodable(word)) {
+            return wide != null && wide.remove(word);
+        }
+
+        int slot = find(word);
+        if (slot < 0) {
+            return false;
+        }
+        removeSlot(slot);
+        size--;
+        return true;
+    }
+
+    /**
+     * Empties the specified slot, moving back any following word of the same cluster which
+     * could no longer be found otherwise (backward shift deletion).
+     */
+    private void removeSlot(int empty) {
+
+        int mask = slots.length - 1;
+        for (int slot = empty + 1 & mask; slots[slot] != 0; slot = slot + 1 & mask) {
+            // a word may move to the empty slot unless its home slot lies cyclically in (empty, slot]
+            int home = slot(hashes[slot], slots.length);
+            if ((slot - home & mask) >= (slot - empty & mask)) {
+                slots[empty] = slots[slot];
+                hashes[empty] = hashes[slot];
+                empty = slot;
+            }
+        }
+        slots[empty] = 0;
+        hashes[empty] = 0;
+    }
+
+    private void rehash(int newTableSize) {
+
+        if (newTableSize <= 0) {
+            throw new IllegalStateException("too many words: " + size);
+        }
+
+        int[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        slots = new int[newTableSize];
+        hashes = new int[newTableSize];
+        int mask = newTableSize - 1;
+
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                int slot = slot(oldHashes[i], newTableSize);
+                while (slots[slot] != 0) {
+                    slot = slot + 1 & mask;
+                }
+                slots[slot] = oldSlots[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+
+        if (!(obj instanceof String word)) {
+            return false;
+        }
+        if (!isEncodable(word)) {
+            return wide != null && wide.contains(word);
+        }
+        return find(word) >= 0;
+    }
+
+    @Override
+    public boolean contains(char[] chars, int offset, int length) {
+
+        int hash = 0;
+        boolean encodable = true;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+            encodable &= alphabet.code(chars[i]) != 0;
+        }
+        if (!encodable) {
+            return wide != null && wide.contains(chars, offset, length);
+        }
+
+        int[] s = slots;
+        int mask = s.length - 1;
+        for (int slot = slot(hash, s.length); s[slot] != 0; slot = slot + 1 & mask) {
+            if (hashes[slot] == hash && recordEquals(s[slot] - 1, chars, offset, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean recordEquals(int record, char[] chars, int offset, int length) {
+
+        if (length(record) != length) {
+            return false;
+        }
+        int p = codesOffset(record);
+        for (int c = 0; c < length; c++) {
+            if ((records[p + c] & 0xFF) != alphabet.code(chars[offset + c])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the word in the record at the specified offset.
+     */
+    private String decode(int offset) {
+
+        int length = length(offset);
+        int p = codesOffset(offset);
+        char[] chars = new char[length];
+        for (int c = 0; c < length; c++) {
+            chars[c] = alphabet.charOf(records[p + c] & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns an iterator which decodes the words into new {@link String} objects.
+     */
+    @Override
+    public Iterator<String> iterator() {
+
+        Iterator<String> wideWords = wide == null ? Collections.emptyIterator() : wide.iterator();
+
+        return new Iterator<>() {
+
+            private int slot = advance(0);
+
+            private int advance(int from) {
+                while (from < slots.length && slots[from] == 0) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < slots.length || wideWords.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (slot < slots.length) {
+                    String word = decode(slots[slot] - 1);
+                    slot = advance(slot + 1);
+                    return word;
+                }
+                if (!wideWords.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return wideWords.next();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+
+        return size + (wide == null ? 0 : wide.size());
+    }
+
+    @Override
+    public long sizeInBytes() {
+
+        long bytes = records.length + (long) slots.length * Integer.BYTES + (long) hashes.length * Integer.BYTES;
+        if (wide != null) {
+            for (String word : wide) {
+                bytes += WordHashSet.sizeInBytes(word);
+            }
+        }
+        return bytes;
+    }
+}
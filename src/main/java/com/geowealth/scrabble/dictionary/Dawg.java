@@ -0,0 +1,493 @@
+package com.geowealth.scrabble.dictionary;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A minimal deterministic acyclic automaton (DAWG) which accepts a set of words. Words which share
+ * a prefix share the states along it, and words which share a suffix share the states along it
+ * too, so a dictionary of a natural language takes a small fraction of the memory of its words.
+ * <p>
+ * The automaton is held in primitive arrays. The transitions of each state are stored next to each
+ * other, in order of their labels, so following a transition is a binary search within a short
+ * run of characters. The automaton is built by a {@link Builder} from words in sorted order and
+ * is immutable.
+ * <p>
+ * States are identified by {@code int} values, so that a matching algorithm can walk the
+ * automaton one character at a time and resume from any state it has reached before.
+ */
+public final class Dawg {
+
+    // the transitions of state s are those from first[s] (inclusive) to first[s + 1] (exclusive)
+    private final int[] first;
+    private final char[] labels;
+    private final int[] targets;
+
+    // bit s is set if state s is final, i.e. the path to it spells a word
+    private final long[] finals;
+
+    private final int root;
+    private final int size;
+
+    private Dawg(int[] first, char[] labels, int[] targets, long[] finals, int root, int size) {
+
+        this.first = first;
+        this.labels = labels;
+        this.targets = targets;
+        this.finals = finals;
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Builds a minimal automaton which accepts the specified words.
+     *
+     * @param words words to accept
+     * @return minimal automaton
+     */
+    public static Dawg of(Collection<String> words) {
+
+        String[] sorted = words.toArray(String[]::new);
+        Arrays.sort(sorted);
+
+        Builder builder = new Builder();
+        for (String word : sorted) {
+            if (builder.compareToLast(word) > 0) {
+                builder.add(word);
+            }
+        }
+        return builder.finish();
+    }
+
+    /**
+     * Returns the number of words accepted by the automaton.
+     */
+    int size() {
+
+        return size;
+    }
+
+    /**
+     * Returns the number of states.
+     */
+    int states() {
+
+        return first.length - 1;
+    }
+
+    /**
+     * Returns the number of transitions.
+     */
+    int transitions() {
+
+        return labels.length;
+    }
+
+    /**
+     * Returns the size of the arrays holding the automaton.
+     *
+     * @return size (in bytes)
+     */
+    long sizeInBytes() {
+
+        return (long) first.length * Integer.BYTES + (long) labels.length * Character.BYTES
+                + (long) targets.length * Integer.BYTES + (long) finals.length * Long.BYTES;
+    }
+
+    /**
+     * Returns the initial state, reached by the empty word.
+     *
+     * @return initial state
+     */
+    public int root() {
+
+        return root;
+    }
+
+    /**
+     * Checks whether the path to the specified state spells an accepted word.
+     *
+     * @param state state
+     * @return {@code true} if the state is final; {@code false} otherwise
+     */
+    public boolean isFinal(int state) {
+
+        return (finals[state >>> 6] & 1L << state) != 0;
+    }
+
+    /**
+     * Returns the state reached from the specified state by the transition with the specified
+     * label.
+     *
+     * @param state state
+     * @param label character
+     * @return next state, or -1 if there is no such transition
+     */
+    public int next(int state, char label) {
+
+        int index = Arrays.binarySearch(labels, first[state], first[state + 1], label);
+        return index >= 0 ? targets[index] : -1;
+    }
+
+    boolean contains(CharSequence word) {
+
+        int state = root;
+        for (int c = 0; c < word.length() && state >= 0; c++) {
+            state = next(state, word.charAt(c));
+        }
+        return state >= 0 && isFinal(state);
+    }
+
+    boolean contains(char[] chars, int offset, int length) {
+
+        int state = root;
+        for (int c = offset; c < offset + length && state >= 0; c++) {
+            state = next(state, chars[c]);
+        }
+        return state >= 0 && isFinal(state);
+    }
+
+    /**
+     * Returns an iterator over the accepted words, in sorted order.
+     */
+    Iterator<String> iterator() {
+
+        return new Iterator<>() {
+
+            // the path to the current state: the state at each depth and the transition taken from it
+            private int[] states = new int[16];
+            private int[] transitions = new int[16];
+            private char[] word = new char[16];
+            private int depth;
+            private String next;
+
+            {
+                states[0] = root;
+                transitions[0] = first[root];
+                next = isFinal(root) ? "" : advance();
+            }
+
+            /**
+             * Walks the automaton depth first, in order of the labels, up to the next final state.
+             */
+            private String advance() {
+
+                while (depth >= 0) {
+                    int state = states[depth];
+                    int transition = transitions[depth];
+                    if (transition == first[state + 1]) {
+                        depth--;
+                        continue;
+                    }
+
+                    transitions[depth]++;
+                    if (depth + 1 == states.length) {
+                        states = Arrays.copyOf(states, 2 * states.length);
+                        transitions = Arrays.copyOf(transitions, 2 * transitions.length);
+                        word = Arrays.copyOf(word, 2 * word.length);
+                    }
+                    word[depth] = labels[transition];
+                    int target = targets[transition];
+                    states[++depth] = target;
+                    transitions[depth] = first[target];
+
+                    if (isFinal(target)) {
+                        return new String(word, 0, depth);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String word = next;
+                next = advance();
+                return word;
+            }
+        };
+    }
+
+    /**
+     * Builds a minimal automaton from words added in strictly increasing order (as defined by
+     * {@link String#compareTo(String)}), using the incremental algorithm of Daciuk et al.
+     * <p>
+     * Only the states along the last word added are mutable. When a word is added, the states of
+     * the previous word which are not on the shared prefix can no longer change: each of them is
+     * either replaced by an equivalent state built earlier, found in a register of states, or
+     * frozen into the arrays of the automaton and added to the register. Memory is thus
+     * proportional to the size of the minimal automaton, not to the number of words.
+     */
+    static final class Builder {
+
+        private int[] first = new int[1024];
+        private char[] labels = new char[1024];
+        private int[] targets = new int[1024];
+        private long[] finals = new long[16];
+        private int states;
+        private int transitions;
+
+        // open-addressing table of 1 + the frozen states, keyed by their finality and transitions
+        private int[] register = new int[1024];
+        private int registered;
+
+        // the mutable states along the last word: the transitions of the state at each depth,
+        // whose last target (if any) is the state at the next depth, and its finality
+        private char[][] pathLabels = new char[16][4];
+        private int[][] pathTargets = new int[16][4];
+        private int[] pathCounts = new int[16];
+        private boolean[] pathFinals = new boolean[16];
+
+        private String last;
+        private int size;
+
+        /**
+         * Compares the specified word with the last word added.
+         *
+         * @param word word
+         * @return a negative number, zero or a positive number as the word is less than, equal to
+         * or greater than the last word added; positive if no word was added yet
+         */
+        int compareToLast(String word) {
+
+            return last == null ? 1 : word.compareTo(last);
+        }
+
+        /**
+         * Adds a word greater than the last word added.
+         *
+         * @param word word to add
+         * @throws IllegalArgumentException if the word is not greater than the last word added
+         */
+        void add(String word) {
+
+            if (compareToLast(word) <= 0) {
+                throw new IllegalArgumentException("words must be added in increasing order: " + word);
+            }
+
+            int prefix = 0;
+            if (last != null) {
+                int max = Math.min(last.length(), word.length());
+                while (prefix < max && last.charAt(prefix) == word.charAt(prefix)) {
+                    prefix++;
+                }
+                minimize(last.length(), prefix);
+            }
+
+            ensureDepth(word.length());
+            for (int d = prefix; d < word.length(); d++) {
+                addTransition(d, word.charAt(d));
+                pathCounts[d + 1] = 0;
+                pathFinals[d + 1] = false;
+            }
+            pathFinals[word.length()] = true;
+
+            last = word;
+            size++;
+        }
+
+        /**
+         * Checks whether the specified word has been added, e.g. before adding it out of order.
+         *
+         * @param word word
+         * @return {@code true} if the word has been added; {@code false} otherwise
+         */
+        boolean contains(String word) {
+
+            // follows the mutable states along the last word, then the frozen states off it
+            int depth = 0;
+            int state = -1;
+            for (int c = 0; c < word.length(); c++) {
+                char label = word.charAt(c);
+                if (state < 0) {
+                    int count = pathCounts[depth];
+                    int index = Arrays.binarySearch(pathLabels[depth], 0, count, label);
+                    if (index < 0) {
+                        return false;
+                    } else if (index == count - 1) {
+                        depth++;
+                        continue;
+                    }
+                    state = pathTargets[depth][index];
+                } else {
+                    int index = Arrays.binarySearch(labels, first[state], first[state + 1], label);
+                    if (index < 0) {
+                        return false;
+                    }
+                    state = targets[index];
+                }
+            }
+            return state < 0 ? pathFinals[depth] : isFinal(state);
+        }
+
+        private void ensureDepth(int depth) {
+
+            if (depth >= pathCounts.length) {
+                int length = Math.max(depth + 1, 2 * pathCounts.length);
+                int old = pathCounts.length;
+                pathLabels = Arrays.copyOf(pathLabels, length);
+                pathTargets = Arrays.copyOf(pathTargets, length);
+                pathCounts = Arrays.copyOf(pathCounts, length);
+                pathFinals = Arrays.copyOf(pathFinals, length);
+                for (int d = old; d < length; d++) {
+                    pathLabels[d] = new char[4];
+                    pathTargets[d] = new int[4];
+                }
+            }
+        }
+
+        private void addTransition(int depth, char label) {
+
+            int count = pathCounts[depth];
+            if (count == pathLabels[depth].length) {
+                pathLabels[depth] = Arrays.copyOf(pathLabels[depth], 2 * count);
+                pathTargets[depth] = Arrays.copyOf(pathTargets[depth], 2 * count);
+            }
+            pathLabels[depth][count] = label;
+            pathTargets[depth][count] = -1;
+            pathCounts[depth] = count + 1;
+        }
+
+        /**
+         * Replaces the mutable states deeper than the specified depth, up to the specified depth
+         * of the last word, with frozen states.
+         */
+        private void minimize(int from, int to) {
+
+            for (int d = from; d > to; d--) {
+                pathTargets[d - 1][pathCounts[d - 1] - 1] = freeze(d);
+            }
+        }
+
+        /**
+         * Returns a frozen state equivalent to the mutable state at the specified depth.
+         */
+        private int freeze(int depth) {
+
+            char[] l = pathLabels[depth];
+            int[] t = pathTargets[depth];
+            int count = pathCounts[depth];
+            boolean isFinal = pathFinals[depth];
+
+            int hash = isFinal ? 1 : 0;
+            for (int i = 0; i < count; i++) {
+                hash = (hash * 31 + l[i]) * 31 + t[i];
+            }
+
+            int mask = register.length - 1;
+            int slot = slot(hash, register.length);
+            for (; register[slot] != 0; slot = slot + 1 & mask) {
+                int state = register[slot] - 1;
+                if (equals(state, l, t, count, isFinal)) {
+                    return state;
+                }
+            }
+
+            int state = append(l, t, count, isFinal);
+            register[slot] = state + 1;
+            if (2 * ++registered > register.length) {
+                rehash();
+            }
+            return state;
+        }
+
+        private static int slot(int hash, int tableSize) {
+
+            return (hash * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(tableSize) + 1;
+        }
+
+        private int hash(int state) {
+
+            int hash = isFinal(state) ? 1 : 0;
+            for (int i = first[state]; i < first[state + 1]; i++) {
+                hash = (hash * 31 + labels[i]) * 31 + targets[i];
+            }
+            return hash;
+        }
+
+        private boolean isFinal(int state) {
+
+            return (finals[state >>> 6] & 1L << state) != 0;
+        }
+
+        private boolean equals(int state, char[] l, int[] t, int count, boolean isFinal) {
+
+            if (isFinal(state) != isFinal || first[state + 1] - first[state] != count) {
+                return false;
+            }
+            for (int i = 0, j = first[state]; i < count; i++, j++) {
+                if (labels[j] != l[i] || targets[j] != t[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int append(char[] l, int[] t, int count, boolean isFinal) {
+
+            if (states + 2 > first.length) {
+                first = Arrays.copyOf(first, 2 * first.length);
+            }
+            if (transitions + count > labels.length) {
+                int length = Math.max(transitions + count, 2 * labels.length);
+                labels = Arrays.copyOf(labels, length);
+                targets = Arrays.copyOf(targets, length);
+            }
+            if (states >>> 6 >= finals.length) {
+                finals = Arrays.copyOf(finals, 2 * finals.length);
+            }
+
+            int state = states++;
+            first[state] = transitions;
+            System.arraycopy(l, 0, labels, transitions, count);
+            System.arraycopy(t, 0, targets, transitions, count);
+            transitions += count;
+            first[state + 1] = transitions;
+            if (isFinal) {
+                finals[state >>> 6] |= 1L << state;
+            }
+            return state;
+        }
+
+        private void rehash() {
+
+            int[] old = register;
+            register = new int[2 * old.length];
+            int mask = register.length - 1;
+            for (int entry : old) {
+                if (entry != 0) {
+                    int slot = slot(hash(entry - 1), register.length);
+                    while (register[slot] != 0) {
+                        slot = slot + 1 & mask;
+                    }
+                    register[slot] = entry;
+                }
+            }
+        }
+
+        /**
+         * Freezes the remaining states and returns the automaton. The builder must not be used
+         * afterwards.
+         *
+         * @return minimal automaton accepting the words added
+         */
+        Dawg finish() {
+
+            minimize(last == null ? 0 : last.length(), 0);
+            int root = freeze(0);
+            register = null;
+
+            return new Dawg(Arrays.copyOf(first, states + 1), Arrays.copyOf(labels, transitions),
+                    Arrays.copyOf(targets, transitions), Arrays.copyOf(finals, (states + 63) >>> 6), root, size);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.geowealth.scrabble.dictionary;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A {@link WordSet} which holds its words in a minimal automaton ({@link Dawg}), sharing both the
+ * prefixes and the suffixes of the words. A dictionary of a natural language takes a few bytes
+ * per word, against several dozen as {@link String} objects in a {@link WordHashSet}.
+ * <p>
+ * The set is built while the words are added, provided they come in sorted order (as defined by
+ * {@link String#compareTo(String)}), as in most dictionary files. Words which come out of order
+ * are kept aside in a {@link WordHashSet} and merged into the automaton in a single pass when the
+ * set is first queried (by anything but {@link #size()}). Words added or removed later on are
+ * kept aside as well, so the automaton is never rebuilt after it is queried.
+ * <p>
+ * Null elements are not permitted. The set is not thread-safe, except that the first queries may
+ * be made concurrently; it can be read concurrently once it is no longer modified.
+ */
+public class DawgWordSet extends AbstractSet<String> implements WordSet {
+
+    private static final Logger logger = LoggerFactory.getLogger(DawgWordSet.class);
+
+    // builds the automaton while words are loaded; null once the set has been queried
+    private volatile Dawg.Builder builder = new Dawg.Builder();
+    private Dawg dawg;
+
+    // words not in the automaton, and words of the automaton which have been removed
+    private WordHashSet added = new WordHashSet();
+    private final WordHashSet removed = new WordHashSet();
+
+    private int size;
+
+    /**
+     * Finishes the automaton, merging in the words added out of order, unless it is finished
+     * already.
+     */
+    private void finish() {
+
+        if (builder != null) {
+            synchronized (this) {
+                if (builder != null) {
+                    Dawg.Builder b = builder;
+                    if (!added.isEmpty()) {
+                        b = merge(b.finish(), added);
+                        added = new WordHashSet();
+                    }
+                    dawg = b.finish();
+                    size = dawg.size();
+                    builder = null;
+
+                    if (logger.isDebugEnabled() && size > 0) {
+                        logger.debug("built automaton of {} words: {} states, {} transitions, {} bytes per word",
+                                size, dawg.states(), dawg.transitions(),
+                                String.format("%.1f", (double) dawg.sizeInBytes() / size));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a builder holding the words of the automaton and the specified words, none of
+     * which the automaton holds.
+     */
+    private static Dawg.Builder merge(Dawg dawg, WordHashSet words) {
+
+        String[] sorted = words.toArray(String[]::new);
+        Arrays.sort(sorted);
+
+        Dawg.Builder merged = new Dawg.Builder();
+        Iterator<String> it = dawg.iterator();
+        String next = it.hasNext() ? it.next() : null;
+        int i = 0;
+        while (next != null || i < sorted.length) {
+            if (next == null || i < sorted.length && sorted[i].compareTo(next) < 0) {
+                merged.add(sorted[i++]);
+            } else {
+                merged.add(next);
+                next = it.hasNext() ? it.next() : null;
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public boolean add(String word) {
+
+        Objects.requireNonNull(word);
+
+        Dawg.Builder b = builder;
+        if (b != null) {
+            int comparison = b.compareToLast(word);
+            if (comparison > 0) {
+                b.add(word);
+            } else if (comparison == 0 || b.contains(word) || !added.add(word)) {
+                return false;
+            }
+            size++;
+            return true;
+        }
+
+        if (dawg.contains(word) ? !removed.remove(word) : !added.add(word)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+
+        if (!(obj instanceof String word)) {
+            return false;
+        }
+        finish();
+        if (added.remove(word) || dawg.contains(word) && removed.add(word)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+
+        if (!(obj instanceof String word)) {
+            return false;
+        }
+        finish();
+        return dawg.contains(word)
+                ? removed.isEmpty() || !removed.contains(word)
+                : !added.isEmpty() && added.contains(word);
+    }
+
+    @Override
+    public boolean contains(char[] chars, int offset, int length) {
+
+        finish();
+        return dawg.contains(chars, offset, length)
+                ? removed.isEmpty() || !removed.contains(chars, offset, length)
+                : !added.isEmpty() && added.contains(chars, offset, length);
+    }
+
+    /**
+     * Returns an iterator which returns the words of the automaton in sorted order, followed by
+     * any words added since it was built.
+     */
+    @Override
+    public Iterator<String> iterator() {
+
+        finish();
+        Iterator<String> words = dawg.iterator();
+        Iterator<String> addedWords = added.iterator();
+
+        return new Iterator<>() {
+
+            private String next = advance();
+
+            private String advance() {
+                while (words.hasNext()) {
+                    String word = words.next();
+                    if (removed.isEmpty() || !removed.contains(word)) {
+                        return word;
+                    }
+                }
+                return addedWords.hasNext() ? addedWords.next() : null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String word = next;
+                next = advance();
+                return word;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Returns the size of the arrays holding the automaton and the approximate size of the
+     * words kept aside.
+     */
+    @Override
+    public long sizeInBytes() {
+
+        finish();
+        long bytes = dawg.sizeInBytes();
+        for (String word : added) {
+            bytes += WordHashSet.sizeInBytes(word);
+        }
+        for (String word : removed) {
+            bytes += WordHashSet.sizeInBytes(word);
+        }
+        return bytes;
+    }
+}
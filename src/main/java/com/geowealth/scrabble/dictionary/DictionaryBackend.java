@@ -0,0 +1,76 @@
+package com.geowealth.scrabble.dictionary;
+
+import java.util.function.Supplier;
+
+/**
+ * Data structures which can hold the words of a dictionary.
+ */
+public enum DictionaryBackend {
+
+    /**
+     * Words are held as {@link String} objects in a {@link WordHashSet}.
+     */
+    HEAP {
+        @Override
+        public WordSet newWordSet() {
+            return new WordHashSet();
+        }
+    },
+
+    /**
+     * Words are held outside the Java heap in an {@link OffHeapWordSet}.
+     */
+    OFF_HEAP {
+        @Override
+        public WordSet newWordSet() {
+            return new OffHeapWordSet();
+        }
+    },
+
+    /**
+     * Words are held as one byte per character in a {@link ByteWordSet}. The sets created by the
+     * same {@link #newWordSetFactory() factory} share an alphabet. The backend is only used when
+     * selected explicitly, never in place of {@link #HEAP}.
+     */
+    COMPACT {
+        @Override
+        public WordSet newWordSet() {
+            return new ByteWordSet();
+        }
+
+        @Override
+        public Supplier<WordSet> newWordSetFactory() {
+            ByteAlphabet alphabet = new ByteAlphabet();
+            return () -> new ByteWordSet(alphabet);
+        }
+    },
+
+    /**
+     * Words are held in a minimal automaton in a {@link DawgWordSet}, which is built while
+     * loading words in sorted order.
+     */
+    DAWG {
+        @Override
+        public WordSet newWordSet() {
+            return new DawgWordSet();
+        }
+    };
+
+    /**
+     * Creates a new empty set of words.
+     *
+     * @return empty set of words
+     */
+    public abstract WordSet newWordSet();
+
+    /**
+     * Returns a factory of empty sets of words which hold parts of the same dictionary, e.g. the
+     * buckets of a {@link LengthPartitionedWordSet}.
+     *
+     * @return factory of empty sets of words
+     */
+    public Supplier<WordSet> newWordSetFactory() {
+
+        return this::newWordSet;
+    }
+}
@@ -0,0 +1,352 @@
+package com.geowealth.scrabble.dictionary;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes binary snapshots of sanitized dictionaries, so that a dictionary which has
+ * not changed since it was last loaded can be used without decoding, sanitizing and hashing
+ * its words again.
+ * <p>
+ * A snapshot holds the words of a {@link LengthPartitionedWordSet} bucket by bucket, along with
+ * a prebuilt hash table for each bucket. Reading a snapshot only maps the buckets to memory;
+ * they are used directly as (read-only) {@link SnapshotWordSet} buckets.
+ * <p>
+ * Snapshots are stored in a directory, with a file name derived from the URL of the dictionary,
+ * the suggested dictionary charset and the maximum word length. A snapshot is only used if the
+ * size and last modification time of the dictionary are the same as when the snapshot was
+ * written. Dictionaries whose size or last modification time cannot be determined (e.g. web
+ * resources without a {@code Last-Modified} header) are never snapshotted.
+ * <p>
+ * Failing to read or write a snapshot is not an error; the dictionary is loaded from its URL.
+ */
+public final class DictionarySnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionarySnapshot.class);
+
+    private static final byte[] MAGIC = "SCRBSNAP".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+
+    // size (in bytes) of the buffer used to write the words and hash tables
+    private static final int WRITE_BUFFER_SIZE_B = 1024 * 1024;
+
+    private record SourceVersion(long size, long lastModified) {
+    }
+
+    private record Bucket(int length, int size, int slots, long wordsOffset, long indexOffset) {
+
+        long wordsBytes() {
+            return (long) size * length * Character.BYTES;
+        }
+
+        long indexBytes() {
+            return (long) slots * Integer.BYTES;
+        }
+    }
+
+    private final Path path;
+    private final URI uri;
+    private final String charset;
+    private final int maxLength;
+
+    // version of the dictionary when the snapshot was opened
+    private final Optional<SourceVersion> version;
+
+    private DictionarySnapshot(Path directory, URI uri, String charset, int maxLength) {
+
+        this.path = path(directory, uri, charset, maxLength);
+        this.uri = uri;
+        this.charset = charset;
+        this.maxLength = maxLength;
+
+        Optional<SourceVersion> sourceVersion;
+        try {
+            sourceVersion = version(uri);
+        } catch (IOException ex) {
+            logger.warn("unable to determine the size and modification time of {}", uri, ex);
+            sourceVersion = Optional.empty();
+        }
+        this.version = sourceVersion;
+    }
+
+    /**
+     * Opens the snapshot of a dictionary. The size and last modification time of the dictionary
+     * are determined at this point, so the snapshot should be opened before the dictionary is
+     * loaded.
+     *
+     * @param directory directory holding snapshots
+     * @param uri       location of the dictionary
+     * @param charset   suggested dictionary charset
+     * @param maxLength maximum length of the words in the snapshot
+     * @return snapshot of the dictionary, which may or may not exist
+     */
+    public static DictionarySnapshot open(Path directory, URI uri, String charset, int maxLength) {
+
+        return new DictionarySnapshot(directory, uri, charset, maxLength);
+    }
+
+    /**
+     * Returns the path of the snapshot.
+     *
+     * @return path of the snapshot
+     */
+    public Path getPath() {
+
+        return path;
+    }
+
+    /**
+     * Returns the path of the snapshot of a dictionary.
+     *
+     * @param directory directory holding snapshots
+     * @param uri       location of the dictionary
+     * @param charset   suggested dictionary charset
+     * @param maxLength maximum length of the words in the snapshot
+     * @return path of the snapshot
+     */
+    private static Path path(Path directory, URI uri, String charset, int maxLength) {
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((uri + "\n" + charset + "\n" + maxLength).getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest, 0, 16) + ".snapshot");
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform implementation is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Optional<SourceVersion> version(URI uri) throws IOException {
+
+        if ("file".equalsIgnoreCase(uri.getScheme()) && uri.getAuthority() == null) {
+            Path path = Path.of(uri);
+            return Optional.of(new SourceVersion(Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+        }
+
+        URLConnection connection = uri.toURL().openConnection();
+        if (connection instanceof HttpURLConnection http) {
+            http.setRequestMethod("HEAD");
+        }
+
+        try {
+            long size = connection.getContentLengthLong();
+            long lastModified = connection.getLastModified();
+            return size < 0 || lastModified == 0
+                    ? Optional.empty()
+                    : Optional.of(new SourceVersion(size, lastModified));
+        } finally {
+            if (connection instanceof HttpURLConnection http) {
+                http.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Reads the snapshot, if it is up-to-date, by mapping its buckets into the specified set.
+     *
+     * @param words empty set which receives the buckets of the snapshot; its maximum word
+     *              length must be the one the snapshot was opened with
+     * @return the detected dictionary charset stored in the snapshot; empty if there is no
+     * up-to-date snapshot
+     */
+    public Optional<Charset> read(LengthPartitionedWordSet words) {
+
+        if (version.isEmpty() || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+            if (!Arrays.equals(MAGIC, in.readNBytes(MAGIC.length)) || in.readInt() != VERSION
+                    || !in.readUTF().equals(uri.toString()) || !in.readUTF().equals(charset)
+                    || in.readInt() != maxLength) {
+                logger.warn("ignoring snapshot {} written for another dictionary", path);
+                return Optional.empty();
+            }
+
+            var written = new SourceVersion(in.readLong(), in.readLong());
+            if (!written.equals(version.get())) {
+                logger.debug("snapshot {} is out of date", path);
+                return Optional.empty();
+            }
+
+            Charset detected = Charset.forName(in.readUTF());
+
+            List<Bucket> buckets = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                buckets.add(new Bucket(in.readInt(), in.readInt(), in.readInt(), in.readLong(), in.readLong()));
+            }
+
+            for (Bucket bucket : buckets) {
+                ByteBuffer wordsBuffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        bucket.wordsOffset(), bucket.wordsBytes()).order(ByteOrder.LITTLE_ENDIAN);
+                ByteBuffer indexBuffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        bucket.indexOffset(), bucket.indexBytes()).order(ByteOrder.LITTLE_ENDIAN);
+                words.setBucket(bucket.length(),
+                        new SnapshotWordSet(bucket.length(), bucket.size(), wordsBuffer, indexBuffer));
+            }
+
+            logger.debug("read snapshot {}", path);
+            return Optional.of(detected);
+
+        } catch (Exception ex) {
+            logger.warn("unable to read snapshot {}", path, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the snapshot, replacing any existing one. Nothing is written if the size or last
+     * modification time of the dictionary is unknown.
+     *
+     * @param detected detected dictionary charset
+     * @param words    sanitized words of the dictionary
+     */
+    public void write(Charset detected, LengthPartitionedWordSet words) {
+
+        if (version.isEmpty()) {
+            logger.debug("size or modification time of {} unknown, not writing a snapshot", uri);
+            return;
+        }
+
+        try {
+            var header = new ByteArrayOutputStream();
+            var out = new DataOutputStream(header);
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(uri.toString());
+            out.writeUTF(charset);
+            out.writeInt(maxLength);
+            out.writeLong(version.get().size());
+            out.writeLong(version.get().lastModified());
+            out.writeUTF(detected.name());
+
+            List<WordSet> sets = words.buckets();
+
+            // the buckets follow the header; each region starts at a multiple of 8 bytes
+            long offset = header.size() + Integer.BYTES + sets.size() * (3L * Integer.BYTES + 2L * Long.BYTES);
+            List<Bucket> buckets = new ArrayList<>();
+            for (WordSet set : sets) {
+                int length = set.iterator().next().length();
+                int slots = Integer.highestOneBit(Math.max(2, set.size()) * 2 - 1) << 1;
+                long wordsOffset = align(offset);
+                long indexOffset = align(wordsOffset + (long) set.size() * length * Character.BYTES);
+                Bucket bucket = new Bucket(length, set.size(), slots, wordsOffset, indexOffset);
+                if (bucket.wordsBytes() > Integer.MAX_VALUE || bucket.indexBytes() > Integer.MAX_VALUE) {
+                    throw new IOException("too many words with length " + length);
+                }
+                buckets.add(bucket);
+                offset = indexOffset + bucket.indexBytes();
+            }
+
+            out.writeInt(buckets.size());
+            for (Bucket bucket : buckets) {
+                out.writeInt(bucket.length());
+                out.writeInt(bucket.size());
+                out.writeInt(bucket.slots());
+                out.writeLong(bucket.wordsOffset());
+                out.writeLong(bucket.indexOffset());
+            }
+            out.flush();
+
+            Files.createDirectories(path.getParent());
+            Path tmp = Files.createTempFile(path.getParent(), "snapshot", ".tmp");
+
+            try {
+                try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    channel.write(ByteBuffer.wrap(header.toByteArray()));
+                    for (int i = 0; i < buckets.size(); i++) {
+                        writeBucket(channel, buckets.get(i), sets.get(i));
+                    }
+                }
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+
+            logger.debug("wrote snapshot {}", path);
+
+        } catch (Exception ex) {
+            logger.warn("unable to write snapshot {}", path, ex);
+        }
+    }
+
+    private static long align(long offset) {
+
+        return offset + Long.BYTES - 1 & -Long.BYTES;
+    }
+
+    /**
+     * Writes the words of a bucket and builds and writes its hash table.
+     */
+    private static void writeBucket(FileChannel channel, Bucket bucket, WordSet words) throws IOException {
+
+        int[] index = new int[bucket.slots()];
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE_B).order(ByteOrder.LITTLE_ENDIAN);
+
+        channel.position(bucket.wordsOffset());
+        int entry = 0;
+        for (String word : words) {
+
+            if (buffer.remaining() < word.length() * Character.BYTES) {
+                flush(channel, buffer);
+            }
+            for (int i = 0; i < word.length(); i++) {
+                buffer.putChar(word.charAt(i));
+            }
+
+            int slot = SnapshotWordSet.slot(word.hashCode(), index.length);
+            while (index[slot] != 0) {
+                slot = slot + 1 & index.length - 1;
+            }
+            index[slot] = ++entry;
+        }
+        flush(channel, buffer);
+
+        channel.position(bucket.indexOffset());
+        for (int slot : index) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush(channel, buffer);
+            }
+            buffer.putInt(slot);
+        }
+        flush(channel, buffer);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
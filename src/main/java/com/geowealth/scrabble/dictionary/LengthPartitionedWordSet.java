@@ -0,0 +1,268 @@
+package com.geowealth.scrabble.dictionary;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link WordSet} which partitions words by length, holding the words of each length in a
+ * separate bucket. Each lookup only probes the bucket for the length of the word, which is
+ * smaller (and more likely to fit in a processor cache) than a table holding all words.
+ * <p>
+ * Buckets which are not modifiable (e.g. buckets mapped from a {@link DictionarySnapshot}) are
+ * copied to a new bucket the first time a word is added to or removed from them.
+ * <p>
+ * A maximum word length can be specified, in which case longer words are silently ignored
+ * when added to the set. This is useful when the set holds a dictionary used to match words
+ * of a known length, as longer words can never take part in a match.
+ * <p>
+ * The set is not thread-safe. It can be read concurrently once it is no longer modified.
+ */
+public class LengthPartitionedWordSet extends AbstractSet<String> implements WordSet {
+
+    // returned for lengths which the set holds no bucket for
+    private static final WordSet EMPTY = new EmptyWordSet();
+
+    private final Supplier<WordSet> bucketFactory;
+    private final int maxLength;
+
+    // buckets[length] holds the words with the specified length (or is null if there are none)
+    private WordSet[] buckets;
+
+    /**
+     * Creates a new empty set.
+     *
+     * @param bucketFactory creates the buckets which hold the words of each length
+     * @param maxLength     maximum length of the words held by the set; longer words are ignored
+     */
+    public LengthPartitionedWordSet(Supplier<WordSet> bucketFactory, int maxLength) {
+
+        this.bucketFactory = Objects.requireNonNull(bucketFactory);
+        this.maxLength = maxLength;
+        buckets = new WordSet[0];
+    }
+
+    /**
+     * Returns the bucket holding the words with the specified length, creating it if necessary.
+     */
+    private WordSet bucket(int length) {
+
+        if (length >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, length + 1);
+        }
+        if (buckets[length] == null) {
+            buckets[length] = bucketFactory.get();
+        }
+        return buckets[length];
+    }
+
+    /**
+     * Returns the bucket holding the words with the specified length, creating it if necessary,
+     * and replacing it with a modifiable copy if it is not modifiable.
+     */
+    private WordSet modifiableBucket(int length) {
+
+        WordSet bucket = bucket(length);
+        if (!bucket.isModifiable()) {
+            WordSet copy = bucketFactory.get();
+            copy.addAll(bucket);
+            buckets[length] = bucket = copy;
+        }
+        return bucket;
+    }
+
+    /**
+     * Sets the bucket holding the words with the specified length.
+     */
+    void setBucket(int length, WordSet bucket) {
+
+        bucket(length);
+        buckets[length] = bucket;
+    }
+
+    /**
+     * Returns the non-empty buckets, in order of increasing word length.
+     */
+    List<WordSet> buckets() {
+
+        return Arrays.stream(buckets).filter(bucket -> bucket != null && !bucket.isEmpty()).toList();
+    }
+
+    /**
+     * Returns a view of the words with the specified length. The view reflects later changes
+     * to the set, unless the bucket holding the words is not modifiable and is replaced by a copy.
+     * If the set holds no bucket for the length, an empty set which does not reflect later changes
+     * is returned, so that reading the set never modifies it.
+     *
+     * @param length word length
+     * @return words with the specified length
+     */
+    public WordSet wordsOfLength(int length) {
+
+        WordSet[] b = buckets;
+        if (length < 0 || length > maxLength || length >= b.length || b[length] == null) {
+            return EMPTY;
+        }
+        return b[length];
+    }
+
+    /**
+     * Returns the maximum length of the words held by the set.
+     *
+     * @return maximum word length; {@link Integer#MAX_VALUE} if there is no limit
+     */
+    public int getMaxLength() {
+
+        return maxLength;
+    }
+
+    @Override
+    public boolean add(String word) {
+
+        if (word.length() > maxLength) {
+            return false;
+        }
+        WordSet bucket = bucket(word.length());
+        if (!bucket.isModifiable() && bucket.contains(word)) {
+            return false;
+        }
+        return modifiableBucket(word.length()).add(word);
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+
+        if (!contains(obj)) {
+            return false;
+        }
+        return modifiableBucket(((String) obj).length()).remove(obj);
+    }
+
+    /**
+     * Splits the words in the specified batches by length and adds the words of each length
+     * to their bucket. Both steps are performed in parallel.
+     *
+     * @param batches batches of words to add
+     */
+    @Override
+    public void addBatches(Collection<? extends Collection<String>> batches) {
+
+        // byLength[batch][length] holds the words of a batch with the specified length
+        List<List<List<String>>> byLength = batches.parallelStream().map(batch -> {
+            List<List<String>> split = new ArrayList<>();
+            for (String word : batch) {
+                if (word.length() <= maxLength) {
+                    while (split.size() <= word.length()) {
+                        split.add(new ArrayList<>());
+                    }
+                    split.get(word.length()).add(word);
+                }
+            }
+            return split;
+        }).toList();
+
+        // batchesByLength[length] holds the non-empty lists of words with the specified length
+        int lengths = byLength.stream().mapToInt(List::size).max().orElse(0);
+        List<List<List<String>>> batchesByLength = IntStream.range(0, lengths)
+                .mapToObj(length -> byLength.stream()
+                        .filter(split -> length < split.size() && !split.get(length).isEmpty())
+                        .map(split -> split.get(length))
+                        .toList())
+                .toList();
+
+        // buckets are created up front, as creating them is not thread-safe
+        for (int length = 0; length < lengths; length++) {
+            if (!batchesByLength.get(length).isEmpty()) {
+                modifiableBucket(length);
+            }
+        }
+
+        IntStream.range(0, lengths).parallel()
+                .filter(length -> !batchesByLength.get(length).isEmpty())
+                .forEach(length -> buckets[length].addBatches(batchesByLength.get(length)));
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+
+        return obj instanceof String word && word.length() < buckets.length && buckets[word.length()] != null
+                && buckets[word.length()].contains(word);
+    }
+
+    @Override
+    public boolean contains(char[] chars, int offset, int length) {
+
+        WordSet[] b = buckets;
+        return length < b.length && b[length] != null && b[length].contains(chars, offset, length);
+    }
+
+    /**
+     * Returns an iterator which returns the words in order of increasing length.
+     */
+    @Override
+    public Iterator<String> iterator() {
+
+        return Arrays.stream(buckets)
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .iterator();
+    }
+
+    @Override
+    public int size() {
+
+        int size = 0;
+        for (WordSet bucket : buckets) {
+            if (bucket != null) {
+                size += bucket.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the sum of the sizes of the buckets.
+     *
+     * @return size (in bytes), or -1 if the size of any bucket is unknown
+     */
+    @Override
+    public long sizeInBytes() {
+
+        long bytes = 0;
+        for (WordSet bucket : buckets) {
+            if (bucket != null) {
+                long bucketBytes = bucket.sizeInBytes();
+                if (bucketBytes < 0) {
+                    return -1;
+                }
+                bytes += bucketBytes;
+            }
+        }
+        return bytes;
+    }
+
+    private static class EmptyWordSet extends AbstractSet<String> implements WordSet {
+
+        @Override
+        public boolean contains(char[] chars, int offset, int length) {
+            return false;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return Collections.emptyIterator();
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.geowealth.scrabble.dictionary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A {@link WordSet} which stores words outside the Java heap.
+ * <p>
+ * Words are appended to an arena made of direct {@link ByteBuffer} pages. Each word is stored
+ * as a record holding its hash code (the same as {@link String#hashCode()}), its length and
+ * its UTF-16 characters. Words are located through an open-addressing hash table with linear
+ * probing whose slots hold the arena addresses of the records; the table is kept off-heap too.
+ * As a result, the heap usage of the set does not depend on the number of words in it.
+ * Words are decoded into {@link String} objects only when iterating over the set.
+ * <p>
+ * Off-heap memory is released when the set becomes unreachable. Null elements are not
+ * permitted. Removing a word frees its index slot but not its record, which is only marked
+ * as removed; the arena never shrinks.
+ * <p>
+ * The set is not thread-safe. It can be read concurrently once it is no longer modified.
+ */
+public class OffHeapWordSet extends AbstractSet<String> implements WordSet {
+
+    // sizes (in bytes) of arena pages, which double from the first size up to the maximum size;
+    // a word which does not fit in a page of the maximum size gets a page of its own
+    private static final int FIRST_PAGE_SIZE_B = 64 * 1024;
+    private static final int MAX_PAGE_SIZE_B = 16 * 1024 * 1024;
+
+    // number of hash table slots in a single index page
+    private static final int INDEX_PAGE_SLOTS = 1 << 24;
+
+    private static final int INITIAL_INDEX_SLOTS = 1024;
+
+    // record layout: hash code (int), length (int), characters (char[length])
+    private static final int HASH_OFFSET = 0;
+    private static final int LENGTH_OFFSET = 4;
+    private static final int CHARS_OFFSET = 8;
+
+    private ByteBuffer[] pages;
+    private int pageCount;
+
+    private ByteBuffer[] index;
+    private long indexSlots;
+    private int size;
+
+    public OffHeapWordSet() {
+        pages = new ByteBuffer[16];
+        index = allocateIndex(INITIAL_INDEX_SLOTS);
+        indexSlots = INITIAL_INDEX_SLOTS;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer[] allocateIndex(long slots) {
+
+        int pageSlots = (int) Math.min(slots, INDEX_PAGE_SLOTS);
+        ByteBuffer[] index = new ByteBuffer[(int) (slots / pageSlots)];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = allocate(pageSlots * Long.BYTES);
+        }
+        return index;
+    }
+
+    // an arena address is the page number in the upper 32 bits and the offset in the page
+    // in the lower 32 bits; index slots hold the address + 1 so that 0 denotes an empty slot
+
+    private static long getSlot(ByteBuffer[] index, long slot) {
+
+        return index[(int) (slot / INDEX_PAGE_SLOTS)].getLong((int) (slot % INDEX_PAGE_SLOTS) * Long.BYTES);
+    }
+
+    private static void setSlot(ByteBuffer[] index, long slot, long value) {
+
+        index[(int) (slot / INDEX_PAGE_SLOTS)].putLong((int) (slot % INDEX_PAGE_SLOTS) * Long.BYTES, value);
+    }
+
+    private ByteBuffer page(long address) {
+
+        return pages[(int) (address >>> 32)];
+    }
+
+    private static int offset(long address) {
+
+        return (int) address;
+    }
+
+    /**
+     * Maps a hash code to a slot using Fibonacci hashing, so that words with similar hash codes
+     * (e.g. words which differ only in their last character) do not end up in adjacent slots.
+     */
+    private static long firstSlot(int hash, long slots) {
+
+        return ((hash * 0x9E3779B97F4A7C15L) >>> Long.numberOfLeadingZeros(slots) + 1);
+    }
+
+    @Override
+    public boolean add(String word) {
+
+        Objects.requireNonNull(word);
+
+        if (2 * (size + 1L) > indexSlots) {
+            rehash(indexSlots << 1);
+        }
+
+        int hash = word.hashCode();
+        long mask = indexSlots - 1;
+        for (long slot = firstSlot(hash, indexSlots); ; slot = slot + 1 & mask) {
+            long value = getSlot(index, slot);
+            if (value == 0) {
+                setSlot(index, slot, append(word, hash) + 1);
+                size++;
+                return true;
+            } else if (equals(value - 1, hash, word)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Appends a record holding the specified word to the arena.
+     *
+     * @return arena address of the record
+     */
+    private long append(String word, int hash) {
+
+        int recordSize = CHARS_OFFSET + word.length() * Character.BYTES;
+
+        if (pageCount == 0 || pages[pageCount - 1].remaining() < recordSize) {
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            int pageSize = pageCount == 0 ? FIRST_PAGE_SIZE_B
+                    : (int) Math.min(MAX_PAGE_SIZE_B, pages[pageCount - 1].capacity() * 2L);
+            pages[pageCount++] = allocate(Math.max(pageSize, recordSize));
+        }
+
+        ByteBuffer page = pages[pageCount - 1];
+        int offset = page.position();
+        page.putInt(hash).putInt(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            page.putChar(word.charAt(i));
+        }
+
+        return (long) (pageCount - 1) << 32 | offset;
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+
+        if (!(obj instanceof String word)) {
+            return false;
+        }
+
+        int hash = word.hashCode();
+        long mask = indexSlots - 1;
+        for (long slot = firstSlot(hash, indexSlots); ; slot = slot + 1 & mask) {
+            long value = getSlot(index, slot);
+            if (value == 0) {
+                return false;
+            } else if (equals(value - 1, hash, word)) {
+                // a removed record keeps the complement of its length, so that iteration can skip it
+                long address = value - 1;
+                page(address).putInt(offset(address) + LENGTH_OFFSET, ~word.length());
+                removeSlot(slot);
+                size--;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Empties the specified index slot, moving back any following record address of the same
+     * cluster which could no longer be found otherwise (backward shift deletion).
+     */
+    private void removeSlot(long empty) {
+
+        long mask = indexSlots - 1;
+        for (long slot = empty + 1 & mask; ; slot = slot + 1 & mask) {
+            long value = getSlot(index, slot);
+            if (value == 0) {
+                break;
+            }
+            // an address may move to the empty slot unless its home slot lies cyclically in (empty, slot]
+            long address = value - 1;
+            long home = firstSlot(page(address).getInt(offset(address) + HASH_OFFSET), indexSlots);
+            if ((slot - home & mask) >= (slot - empty & mask)) {
+                setSlot(index, empty, value);
+                empty = slot;
+            }
+        }
+        setSlot(index, empty, 0);
+    }
+
+    private void rehash(long newSlots) {
+
+        ByteBuffer[] newIndex = allocateIndex(newSlots);
+        long mask = newSlots - 1;
+
+        for (long slot = 0; slot < indexSlots; slot++) {
+            long value = getSlot(index, slot);
+            if (value != 0) {
+                long address = value - 1;
+                long newSlot = firstSlot(page(address).getInt(offset(address) + HASH_OFFSET), newSlots);
+                while (getSlot(newIndex, newSlot) != 0) {
+                    newSlot = newSlot + 1 & mask;
+                }
+                setSlot(newIndex, newSlot, value);
+            }
+        }
+
+        index = newIndex;
+        indexSlots = newSlots;
+    }
+
+    private boolean equals(long address, int hash, String word) {
+
+        ByteBuffer page = page(address);
+        int offset = offset(address);
+
+        if (page.getInt(offset + HASH_OFFSET) != hash || page.getInt(offset + LENGTH_OFFSET) != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (page.getChar(offset + CHARS_OFFSET + i * Character.BYTES) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equals(long address, int hash, char[] chars, int from, int length) {
+
+        ByteBuffer page = page(address);
+        int offset = offset(address);
+
+        if (page.getInt(offset + HASH_OFFSET) != hash || page.getInt(offset + LENGTH_OFFSET) != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (page.getChar(offset + CHARS_OFFSET + i * Character.BYTES) != chars[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+
+        if (!(obj instanceof String word)) {
+            return false;
+        }
+
+        int hash = word.hashCode();
+        long mask = indexSlots - 1;
+        for (long slot = firstSlot(hash, indexSlots); ; slot = slot + 1 & mask) {
+            long value = getSlot(index, slot);
+            if (value == 0) {
+                return false;
+            } else if (equals(value - 1, hash, word)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(char[] chars, int offset, int length) {
+
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        long mask = indexSlots - 1;
+        for (long slot = firstSlot(hash, indexSlots); ; slot = slot + 1 & mask) {
+            long value = getSlot(index, slot);
+            if (value == 0) {
+                return false;
+            } else if (equals(value - 1, hash, chars, offset, length)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator which decodes the words in the order in which they were added,
+     * skipping the records of removed words.
+     */
+    @Override
+    public Iterator<String> iterator() {
+
+        return new Iterator<>() {
+
+            private int page;
+            private int offset;
+            private int remaining = size;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int length;
+                while (true) {
+                    if (offset == pages[page].position()) {
+                        page++;
+                        offset = 0;
+                    }
+                    length = pages[page].getInt(offset + LENGTH_OFFSET);
+                    if (length >= 0) {
+                        break;
+                    }
+                    offset += CHARS_OFFSET + ~length * Character.BYTES;
+                }
+
+                ByteBuffer buffer = pages[page];
+                char[] chars = new char[length];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = buffer.getChar(offset + CHARS_OFFSET + i * Character.BYTES);
+                }
+
+                offset += CHARS_OFFSET + chars.length * Character.BYTES;
+                remaining--;
+
+                return new String(chars);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes of off-heap memory held by the set.
+     *
+     * @return off-heap memory in bytes
+     */
+    public long offHeapBytes() {
+
+        long bytes = indexSlots * Long.BYTES;
+        for (int i = 0; i < pageCount; i++) {
+            bytes += pages[i].capacity();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,144 @@
+package com.geowealth.scrabble.dictionary;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only {@link WordSet} holding words with the same length, backed by buffers mapped
+ * from a {@link DictionarySnapshot}.
+ * <p>
+ * The words are stored one after another as UTF-16 characters; as all words have the same
+ * length, no separators or offsets are needed. They are located through a prebuilt
+ * open-addressing hash table with linear probing, whose slots hold the (1-based) index
+ * of a word, or 0 for an empty slot. Words are hashed with the same function as
+ * {@link String#hashCode()}.
+ * <p>
+ * The set is thread-safe.
+ */
+class SnapshotWordSet extends AbstractSet<String> implements WordSet {
+
+    private final int length;
+    private final int size;
+    private final ByteBuffer words;
+    private final ByteBuffer index;
+    private final int slots;
+
+    /**
+     * Creates a new set.
+     *
+     * @param length length of the words in the set
+     * @param size   number of words in the set
+     * @param words  characters of the words
+     * @param index  hash table slots (a power of two, more than {@code size})
+     */
+    SnapshotWordSet(int length, int size, ByteBuffer words, ByteBuffer index) {
+
+        this.length = length;
+        this.size = size;
+        this.words = words;
+        this.index = index;
+        this.slots = index.capacity() / Integer.BYTES;
+    }
+
+    /**
+     * Maps a hash code to a slot using Fibonacci hashing, so that words with similar hash codes
+     * (e.g. words which differ only in their last character) do not end up in adjacent slots.
+     */
+    static int slot(int hash, int slots) {
+
+        return (hash * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(slots) + 1;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+
+        if (!(obj instanceof String word) || word.length() != length) {
+            return false;
+        }
+
+        int hash = word.hashCode();
+        for (int slot = slot(hash, slots); ; slot = slot + 1 & slots - 1) {
+            int entry = index.getInt(slot * Integer.BYTES);
+            if (entry == 0) {
+                return false;
+            }
+            int offset = (entry - 1) * length * Character.BYTES;
+            boolean equal = true;
+            for (int i = 0; i < length && equal; i++) {
+                equal = words.getChar(offset + i * Character.BYTES) == word.charAt(i);
+            }
+            if (equal) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(char[] chars, int from, int length) {
+
+        if (length != this.length) {
+            return false;
+        }
+
+        int hash = 0;
+        for (int i = from; i < from + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        for (int slot = slot(hash, slots); ; slot = slot + 1 & slots - 1) {
+            int entry = index.getInt(slot * Integer.BYTES);
+            if (entry == 0) {
+                return false;
+            }
+            int offset = (entry - 1) * length * Character.BYTES;
+            boolean equal = true;
+            for (int i = 0; i < length && equal; i++) {
+                equal = words.getChar(offset + i * Character.BYTES) == chars[from + i];
+            }
+            if (equal) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+
+        return new Iterator<>() {
+
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                char[] chars = new char[length];
+                int offset = next++ * length * Character.BYTES;
+                for (int i = 0; i < length; i++) {
+                    chars[i] = words.getChar(offset + i * Character.BYTES);
+                }
+                return new String(chars);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+
+        return size;
+    }
+
+    @Override
+    public boolean isModifiable() {
+
+        return false;
+    }
+}
@@ -0,0 +1,310 @@
+package com.geowealth.scrabble.dictionary;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A {@link WordSet} backed by an open-addressing hash table with linear probing.
+ * <p>
+ * Words are hashed with the same function as {@link String#hashCode()}, so that looking up a
+ * {@link String} reuses its cached hash code and looking up a range of a {@code char} array
+ * does not require creating a {@link String}. Null elements are not permitted. Removal shifts
+ * the following words of the probe sequence back, so the table never holds tombstones.
+ * <p>
+ * The set is not thread-safe, with the exception of {@link #addBatches(Collection)}, which adds
+ * large batches in parallel. The set can be read concurrently once it is no longer modified.
+ */
+public class WordHashSet extends AbstractSet<String> implements WordSet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // minimum number of words added by addBatches() in parallel
+    private static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(String[].class);
+
+    private String[] table;
+    private int size;
+
+    public WordHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty set which can hold the specified number of words without rehashing.
+     *
+     * @param expectedSize expected number of words
+     */
+    public WordHashSet(int expectedSize) {
+        table = new String[tableSize(expectedSize)];
+    }
+
+    /**
+     * Returns the size of a table which keeps the load factor at or below 0.5 when holding
+     * the specified number of words.
+     */
+    private static int tableSize(int expectedSize) {
+
+        int tableSize = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize) * 2 - 1) << 1;
+        if (tableSize <= 0) {
+            throw new IllegalArgumentException("too many words: " + expectedSize);
+        }
+        return tableSize;
+    }
+
+    /**
+     * Maps a hash code to a slot using Fibonacci hashing, so that words with similar hash codes
+     * (e.g. words which differ only in their last character) do not end up in adjacent slots.
+     */
+    private static int slot(int hash, int tableSize) {
+
+        return (hash * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(tableSize) + 1;
+    }
+
+    /**
+     * Returns the approximate amount of heap memory taken by the specified word in a set: the
+     * {@link String} (24 bytes), its array (16 bytes and one byte per character, or two if any
+     * character is not in Latin-1, padded to a multiple of 8) and the two table slots (of 4 bytes
+     * each, with compressed references) which a load factor of 0.5 allows for each word.
+     *
+     * @param word word
+     * @return size (in bytes)
+     */
+    public static long sizeInBytes(String word) {
+
+        boolean latin1 = word.chars().allMatch(c -> c < 256);
+        long array = 16 + (long) word.length() * (latin1 ? 1 : 2);
+        return 24 + (array + 7 & ~7) + 2 * 4;
+    }
+
+    @Override
+    public boolean add(String word) {
+
+        Objects.requireNonNull(word);
+
+        if (2 * (size + 1) > table.length) {
+            rehash(table.length << 1);
+        }
+
+        String[] tab = table;
+        int mask = tab.length - 1;
+        int hash = word.hashCode();
+        for (int slot = slot(hash, tab.length); ; slot = slot + 1 & mask) {
+            String existing = tab[slot];
+            if (existing == null) {
+                tab[slot] = word;
+                size++;
+                return true;
+            } else if (existing.hashCode() == hash && existing.equals(word)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Adds the words in the specified batches in parallel if there are enough of them. The table
+     * is first resized to hold all words, so that the batches can be inserted concurrently by
+     * claiming empty slots with a compare-and-set operation, without locking.
+     *
+     * @param batches batches of words to add
+     */
+    @Override
+    public void addBatches(Collection<? extends Collection<String>> batches) {
+
+        long words = batches.stream().mapToLong(Collection::size).sum();
+
+        if (words < PARALLEL_THRESHOLD || batches.size() < 2) {
+            batches.forEach(this::addAll);
+            return;
+        }
+
+        if (2 * (size + words) > table.length) {
+            rehash(tableSize((int) Math.min(size + words, Integer.MAX_VALUE)));
+        }
+
+        String[] tab = table;
+        size += batches.parallelStream().mapToInt(batch -> addConcurrently(tab, batch)).sum();
+    }
+
+    /**
+     * Adds a batch of words to a table which has room for all of them.
+     *
+     * @return number of words added
+     */
+    private static int addConcurrently(String[] tab, Collection<String> batch) {
+
+        int mask = tab.length - 1;
+        int added = 0;
+
+        for (String word : batch) {
+
+            int hash = Objects.requireNonNull(word).hashCode();
+            for (int slot = slot(hash, tab.length); ; ) {
+                String existing = (String) SLOTS.getAcquire(tab, slot);
+                if (existing == null) {
+                    if (SLOTS.compareAndSet(tab, slot, null, word)) {
+                        added++;
+                        break;
+                    }
+                    // another thread claimed the slot first, check it again
+                } else if (existing.hashCode() == hash && existing.equals(word)) {
+                    break;
+                } else {
+                    slot = slot + 1 & mask;
+                }
+            }
+        }
+
+        return added;
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+
+        if (!(obj instanceof String word)) {
+            return false;
+        }
+
+        String[] tab = table;
+        int mask = tab.length - 1;
+        int hash = word.hashCode();
+        for (int slot = slot(hash, tab.length); ; slot = slot + 1 & mask) {
+            String existing = tab[slot];
+            if (existing == null) {
+                return false;
+            } else if (existing.hashCode() == hash && existing.equals(word)) {
+                removeSlot(tab, slot);
+                size--;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Empties the specified slot, moving back any following word of the same cluster which
+     * could no longer be found otherwise (backward shift deletion).
+     */
+    private static void removeSlot(String[] tab, int empty) {
+
+        int mask = tab.length - 1;
+        for (int slot = empty + 1 & mask; tab[slot] != null; slot = slot + 1 & mask) {
+            // a word may move to the empty slot unless its home slot lies cyclically in (empty, slot]
+            int home = slot(tab[slot].hashCode(), tab.length);
+            if ((slot - home & mask) >= (slot - empty & mask)) {
+                tab[empty] = tab[slot];
+                empty = slot;
+            }
+        }
+        tab[empty] = null;
+    }
+
+    private void rehash(int newTableSize) {
+
+        String[] oldTable = table;
+        table = new String[newTableSize];
+        int mask = newTableSize - 1;
+
+        for (String word : oldTable) {
+            if (word != null) {
+                int slot = slot(word.hashCode(), newTableSize);
+                while (table[slot] != null) {
+                    slot = slot + 1 & mask;
+                }
+                table[slot] = word;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+
+        if (!(obj instanceof String word)) {
+            return false;
+        }
+
+        String[] tab = table;
+        int mask = tab.length - 1;
+        int hash = word.hashCode();
+        for (int slot = slot(hash, tab.length); ; slot = slot + 1 & mask) {
+            String existing = tab[slot];
+            if (existing == null) {
+                return false;
+            } else if (existing.hashCode() == hash && existing.equals(word)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(char[] chars, int offset, int length) {
+
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        String[] tab = table;
+        int mask = tab.length - 1;
+        for (int slot = slot(hash, tab.length); ; slot = slot + 1 & mask) {
+            String existing = tab[slot];
+            if (existing == null) {
+                return false;
+            } else if (existing.length() == length && existing.hashCode() == hash
+                    && regionEquals(existing, chars, offset)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean regionEquals(String word, char[] chars, int offset) {
+
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+
+        return new Iterator<>() {
+
+            private int slot = advance(0);
+
+            private int advance(int from) {
+                while (from < table.length && table[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < table.length;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String word = table[slot];
+                slot = advance(slot + 1);
+                return word;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+
+        return size;
+    }
+}
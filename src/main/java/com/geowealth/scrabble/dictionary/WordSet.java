@@ -0,0 +1,54 @@
+package com.geowealth.scrabble.dictionary;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * A {@link Set} of dictionary words which can also be queried with a view of a {@code char}
+ * array. This allows a word matching algorithm to look up words it builds in a reusable buffer
+ * without creating a {@link String} for every lookup.
+ */
+public interface WordSet extends Set<String> {
+
+    /**
+     * Checks whether the set contains the word formed by the specified range of characters.
+     *
+     * @param chars  array holding the characters of the word
+     * @param offset index of the first character of the word
+     * @param length number of characters in the word
+     * @return {@code true} if the set contains the word; {@code false} otherwise
+     */
+    boolean contains(char[] chars, int offset, int length);
+
+    /**
+     * Adds all words in the specified batches to the set. Implementations may add the batches
+     * in parallel; the default implementation adds them one after another.
+     *
+     * @param batches batches of words to add
+     */
+    default void addBatches(Collection<? extends Collection<String>> batches) {
+
+        batches.forEach(this::addAll);
+    }
+
+    /**
+     * Checks whether words can be added to the set. Sets which are not modifiable throw
+     * {@link UnsupportedOperationException} from all mutator methods.
+     *
+     * @return {@code true} if the set is modifiable; {@code false} otherwise
+     */
+    default boolean isModifiable() {
+
+        return true;
+    }
+
+    /**
+     * Returns the approximate amount of heap memory taken by the set.
+     *
+     * @return size (in bytes), or -1 if unknown
+     */
+    default long sizeInBytes() {
+
+        return -1;
+    }
+}
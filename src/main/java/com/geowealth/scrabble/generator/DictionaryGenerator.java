@@ -0,0 +1,256 @@
+package com.geowealth.scrabble.generator;
+
+import com.geowealth.scrabble.cli.GenerateArgs;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+
+/**
+ * Writes a synthetic dictionary with a known number of matching words. The dictionary is
+ * streamed to disk, so its size is not limited by the available memory, and the same options
+ * always produce the same file, byte for byte.
+ * <p>
+ * The dictionary consists of:
+ * <ul>
+ *     <li>the 1-char words;</li>
+ *     <li><b>reducible chains</b>: a 1-char word followed by words built by inserting one random
+ *     character at a time, up to a reducible candidate word;</li>
+ *     <li><b>near-miss chains</b>: an irreducible word which is {@code nearMissDepth} characters
+ *     shorter than a candidate word, followed by words built by inserting one random character at
+ *     a time, up to an irreducible candidate word. The word matching algorithm can remove
+ *     {@code nearMissDepth} characters from such a candidate before it has to backtrack;</li>
+ *     <li><b>filler words</b> with random characters and lengths drawn from the length distribution.
+ *     Filler words with the candidate length do not contain any 1-char word, so they are never
+ *     candidates.</li>
+ * </ul>
+ * The last character of the alphabet is reserved for near-miss chains, each word of which holds
+ * it twice. Any word with one character removed still holds it, and no such word is short enough
+ * to be reduced to anything, so near-miss candidates are irreducible by construction. Apart from
+ * duplicate words, the share of reducible candidates is therefore exactly as specified.
+ */
+public class DictionaryGenerator {
+
+    // size of the buffer (in chars) used to write the dictionary
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Numbers of lines and candidate words written to a dictionary.
+     *
+     * @param lines                 number of lines
+     * @param reducibleCandidates   number of reducible candidate words (including duplicates)
+     * @param irreducibleCandidates number of irreducible candidate words (including duplicates)
+     */
+    public record Summary(long lines, long reducibleCandidates, long irreducibleCandidates) {
+    }
+
+    private final Charset charset;
+    private final long size;
+    private final long seed;
+    private final int wordLength;
+    private final int nearMissDepth;
+    private final long reducibleChains;
+    private final long nearMissChains;
+    private final long fillerWords;
+
+    private final char[] oneCharWords;
+    private final char marker;
+
+    // characters of the alphabet other than the marker
+    private final char[] plain;
+
+    // characters of the alphabet other than the marker and the 1-char words
+    private final char[] nonCandidate;
+
+    // lengths and cumulative weights of the filler words
+    private final int[] fillerLengths;
+    private final double[] cumulativeWeights;
+
+    /**
+     * Creates a new instance from the options of the {@code generate} command.
+     *
+     * @param args {@link GenerateArgs} instance that contains configuration options
+     * @throws IllegalArgumentException if the options are inconsistent
+     */
+    public DictionaryGenerator(GenerateArgs args) {
+
+        charset = Charset.forName(args.getOutputCharset());
+        size = args.getSize();
+        seed = args.getSeed();
+        wordLength = args.getWordLength();
+        nearMissDepth = args.getNearMissDepth();
+
+        String alphabet = args.getAlphabet();
+        marker = alphabet.charAt(alphabet.length() - 1);
+        plain = alphabet.substring(0, alphabet.length() - 1).toCharArray();
+
+        oneCharWords = String.join("", args.getOneCharWords()).toCharArray();
+        if (String.valueOf(oneCharWords).indexOf(marker) >= 0) {
+            throw new IllegalArgumentException("the last character of the alphabet cannot be a 1-char word");
+        }
+        nonCandidate = alphabet.chars()
+                .filter(c -> c != marker && String.valueOf(oneCharWords).indexOf(c) < 0)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString().toCharArray();
+
+        long candidates = args.getCandidates();
+        reducibleChains = Math.round(candidates * args.getReducibleShare());
+        nearMissChains = candidates - reducibleChains;
+
+        if (nearMissChains > 0 && wordLength - nearMissDepth < 3) {
+            throw new IllegalArgumentException("near-miss depth must be <= word length - 3");
+        }
+
+        fillerWords = size - oneCharWords.length - reducibleChains * (wordLength - 1)
+                - nearMissChains * (nearMissDepth + 1);
+        if (fillerWords < 0) {
+            throw new IllegalArgumentException("too many candidate words for a dictionary of " + size + " lines");
+        }
+
+        SortedMap<Integer, Double> distribution = args.getLengthDistribution();
+        if (distribution.containsKey(wordLength) && nonCandidate.length == 0) {
+            throw new IllegalArgumentException("filler words with the candidate length need characters "
+                    + "other than the 1-char words and the last character of the alphabet");
+        }
+
+        fillerLengths = new int[distribution.size()];
+        cumulativeWeights = new double[distribution.size()];
+        int i = 0;
+        double total = 0;
+        for (Map.Entry<Integer, Double> entry : distribution.entrySet()) {
+            total += entry.getValue();
+            fillerLengths[i] = entry.getKey();
+            cumulativeWeights[i++] = total;
+        }
+    }
+
+    /**
+     * Writes the dictionary to the specified file, replacing it if it exists.
+     *
+     * @param path dictionary file
+     * @return numbers of lines and candidate words written
+     * @throws IOException if the file cannot be written
+     */
+    public Summary generate(Path path) throws IOException {
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), charset),
+                BUFFER_SIZE)) {
+            return generate(writer);
+        }
+    }
+
+    /**
+     * Writes the dictionary to the specified writer, one word per line, with lines terminated
+     * by {@code '\n'} regardless of the platform.
+     *
+     * @param writer receives the dictionary
+     * @return numbers of lines and candidate words written
+     * @throws IOException if the dictionary cannot be written
+     */
+    public Summary generate(Writer writer) throws IOException {
+
+        Random random = new Random(seed);
+        char[] chars = new char[Math.max(wordLength, fillerLengths[fillerLengths.length - 1])];
+        long lines = 0;
+
+        for (char c : oneCharWords) {
+            writer.write(c);
+            writer.write('\n');
+            lines++;
+        }
+
+        // chains and filler words are interleaved at random, in proportion to how many of each are left
+        long reducibleLeft = reducibleChains;
+        long nearMissLeft = nearMissChains;
+        long fillerLeft = fillerWords;
+
+        while (reducibleLeft + nearMissLeft + fillerLeft > 0) {
+
+            long pick = (long) (random.nextDouble() * (reducibleLeft + nearMissLeft + fillerLeft));
+
+            if (pick < reducibleLeft) {
+
+                chars[0] = oneCharWords[random.nextInt(oneCharWords.length)];
+                for (int length = 2; length <= wordLength; length++) {
+                    insert(chars, length, plain[random.nextInt(plain.length)], random);
+                    writeLine(writer, chars, length);
+                }
+                lines += wordLength - 1;
+                reducibleLeft--;
+
+            } else if (pick < reducibleLeft + nearMissLeft) {
+
+                // the shortest word holds a 1-char word and the marker twice
+                int length = wordLength - nearMissDepth;
+                for (int c = 0; c < length; c++) {
+                    chars[c] = plain[random.nextInt(plain.length)];
+                }
+                int oneCharWord = random.nextInt(length);
+                int first = (oneCharWord + 1 + random.nextInt(length - 1)) % length;
+                int second = (first + 1 + random.nextInt(length - 2)) % length;
+                if (second == oneCharWord) {
+                    second = (second + 1) % length;
+                }
+                chars[oneCharWord] = oneCharWords[random.nextInt(oneCharWords.length)];
+                chars[first] = marker;
+                chars[second] = marker;
+                writeLine(writer, chars, length);
+
+                while (length < wordLength) {
+                    insert(chars, ++length, plain[random.nextInt(plain.length)], random);
+                    writeLine(writer, chars, length);
+                }
+                lines += nearMissDepth + 1;
+                nearMissLeft--;
+
+            } else {
+
+                int length = fillerLength(random);
+                char[] alphabet = length == wordLength ? nonCandidate : plain;
+                for (int c = 0; c < length; c++) {
+                    chars[c] = alphabet[random.nextInt(alphabet.length)];
+                }
+                writeLine(writer, chars, length);
+                lines++;
+                fillerLeft--;
+            }
+        }
+
+        return new Summary(lines, reducibleChains, nearMissChains);
+    }
+
+    /**
+     * Inserts a character at a random position of the word held in the first {@code length - 1}
+     * characters of the specified array.
+     */
+    private static void insert(char[] chars, int length, char c, Random random) {
+
+        int position = random.nextInt(length);
+        System.arraycopy(chars, position, chars, position + 1, length - 1 - position);
+        chars[position] = c;
+    }
+
+    private int fillerLength(Random random) {
+
+        double weight = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (weight < cumulativeWeights[i]) {
+                return fillerLengths[i];
+            }
+        }
+        return fillerLengths[fillerLengths.length - 1];
+    }
+
+    private static void writeLine(Writer writer, char[] chars, int length) throws IOException {
+
+        writer.write(chars, 0, length);
+        writer.write('\n');
+    }
+}
@@ -1,21 +1,52 @@
 package com.geowealth.scrabble.impl;
 
 import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.dictionary.BloomFilter;
+import com.geowealth.scrabble.dictionary.DictionarySnapshot;
+import com.geowealth.scrabble.dictionary.LengthPartitionedWordSet;
+import com.geowealth.scrabble.dictionary.WordHashSet;
+import com.geowealth.scrabble.dictionary.WordSet;
 import com.geowealth.scrabble.exceptions.ScrabbleLoadException;
 import com.geowealth.scrabble.exceptions.ScrabbleMatchException;
-import org.apache.tika.parser.txt.CharsetDetector;
+import com.geowealth.scrabble.loader.DictionaryCache;
+import com.geowealth.scrabble.loader.DictionaryLoader;
+import com.geowealth.scrabble.loader.WordBatchConsumer;
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+import com.geowealth.scrabble.shard.ShardCoordinator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.profiler.Profiler;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedReader;
-import java.io.InputStream;
+import java.math.BigInteger;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.BACKTRACKS;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.CANDIDATE_WORDS;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.DISCARDED_WORDS;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.DUPLICATE_WORDS;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.FILTER_FALSE_POSITIVES;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.FILTER_PROBES;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.FILTER_REJECTIONS;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.MATCHING_WORDS;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.PRUNED_CANDIDATES;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.REDUCIBLE_HITS;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.REDUCIBLE_LOOKUPS;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.WORDS_LOADED;
 
 /**
  * An abstract {@link Scrabbler} class which loads a dictionary from a specified
@@ -29,17 +60,40 @@ import java.util.stream.Collectors;
  * is removed from words (but note that whitespace in the middle of a word is left untouched).
  * Duplicate words are treated as a single word. Lines containing any character outside the
  * basic multilingual plane are ignored.
+ * <p>
+ * Words are partitioned by length. Words longer than the candidate words can optionally
+ * be discarded while loading, as they can never take part in a match.
+ * <p>
+ * Dictionaries on the local file system are memory-mapped and loaded in parallel; any other
+ * dictionary is read as a stream (see {@link DictionaryLoader#forUri(URI)}). If a snapshot
+ * directory is specified, the sanitized dictionary is stored there as a {@link DictionarySnapshot},
+ * which is used instead of the dictionary as long as the dictionary does not change. If a cache
+ * directory is specified, dictionaries fetched over HTTP(S) are kept there (see
+ * {@link DictionaryCache}) and loaded from the local copy.
+ * <p>
+ * The work done while loading the dictionary and finding matching words is counted in the
+ * {@link ScrabbleMetrics}.
  */
 public abstract class AbstractScrabbler implements Scrabbler {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractScrabbler.class);
     private final Profiler profiler;
 
-    // size of the buffer (in bytes) used to read the dictionary and detect its character encoding
-    private static final int BUFFER_SIZE_B = 1024 * 1024;
-
-    private final Set<String> dictionaryWords;
+    private final LengthPartitionedWordSet dictionaryWords;
     private final Set<String> candidateWords;
+    private final int wordLength;
+
+    // checked before the dictionary by the recursive algorithm; null if not enabled
+    private final BloomFilter filter;
+
+    // per-thread scratch buffer used by the word matching algorithm to remove characters in place
+    private final ThreadLocal<char[]> scratch;
+
+    // reducible words kept up to date while the dictionary changes, created by the first change
+    private IncrementalMatches incrementalMatches;
+
+    // numbers of reduction paths of the dictionary words, counted on first use
+    private ReductionPaths reductionPaths;
 
     /**
      * Creates a new instance by loading a dictionary from the specified {@link java.net.URL URL}
@@ -54,60 +108,236 @@ public abstract class AbstractScrabbler implements Scrabbler {
         profiler.setLogger(logger);
 
         profiler.start("load");
+        long start = System.nanoTime();
 
-        dictionaryWords = new HashSet<>();
-        dictionaryWords.addAll(args.getOneCharWords());
-        candidateWords = new HashSet<>();
+        // with several word lengths, the candidates are the words with the longest length
+        wordLength = args.getWordLengths().last();
+        scratch = ThreadLocal.withInitial(() -> new char[scratchSize(wordLength)]);
 
-        // used to automatically detect character encoding
-        CharsetDetector detector = new CharsetDetector(BUFFER_SIZE_B);
+        // words longer than the candidates can never take part in a match
+        dictionaryWords = new LengthPartitionedWordSet(args.getDictionaryBackend().newWordSetFactory(),
+                args.getDiscardLongerWords() ? wordLength : Integer.MAX_VALUE);
 
-        // wrap the original stream in a buffered stream as the original may not support mark and reset
-        try (InputStream is = new URI(args.getDictionaryUrl()).toURL().openStream();
-             BufferedReader br = new BufferedReader(
-                     detector.getReader(new BufferedInputStream(is, BUFFER_SIZE_B), args.getDictionaryCharset()))) {
+        try {
+            URI uri = new URI(args.getDictionaryUrl());
 
-            for (String line = br.readLine(); line != null; line = br.readLine()) {
+            DictionarySnapshot snapshot = args.getSnapshotDirectory() == null ? null
+                    : DictionarySnapshot.open(Path.of(args.getSnapshotDirectory()), uri,
+                    args.getDictionaryCharset(), dictionaryWords.getMaxLength());
 
-                String trimmed = line.trim();
+            Optional<Charset> charset = snapshot == null ? Optional.empty() : snapshot.read(dictionaryWords);
 
-                if (allCharsInBMP(trimmed) && !trimmed.isEmpty()) {
-                    dictionaryWords.add(trimmed);
-                    if (trimmed.length() == args.getWordLength()) {
-                        candidateWords.add(trimmed);
-                    }
+            if (charset.isEmpty()) {
+                URI source = uri;
+                if (args.getCacheDirectory() != null && DictionaryCache.isCacheable(uri)) {
+                    long fetchStart = System.nanoTime();
+                    source = new DictionaryCache(Path.of(args.getCacheDirectory())).fetch(uri).toUri();
+                    recordPhase("fetch", fetchStart);
                 }
-            }
-
-            logger.trace("number of candidate words: {}", candidateWords.size());
 
-            // remove all candidate words that do not contain the 1-char words present
-            // in the full list and are thus not reducible to these 1-char words
-            var oneCharWords = dictionaryWords.stream().filter(w -> w.length() == 1).collect(Collectors.toSet());
-            candidateWords.removeIf(w -> oneCharWords.stream().noneMatch(w::contains));
+                charset = Optional.of(DictionaryLoader.forUri(source).load(source, args.getDictionaryCharset(),
+                        countingConsumer()));
+                if (snapshot != null) {
+                    snapshot.write(charset.get(), dictionaryWords);
+                }
+            }
 
-            logger.trace("number of candidate words (after trimming): {}", candidateWords.size());
+            logger.debug("dictionary charset: {}", charset.get());
 
         } catch (Exception ex) {
             throw new ScrabbleLoadException(ex);
         }
+
+        ScrabbleMetrics.get().add(WORDS_LOADED, dictionaryWords.size());
+
+        // added after loading, so that they are not part of a snapshot
+        dictionaryWords.addAll(args.getOneCharWords());
+
+        // a view rather than a copy of the dictionary words with the candidate length, counted once
+        // here rather than on every pass over the view
+        var candidates = new CandidateWords(dictionaryWords, wordLength, args.getShardIndex(), args.getShardCount());
+        candidates.count();
+        candidateWords = candidates;
+
+        // also finishes building sets which are built while loading (e.g. automata)
+        long bytes = dictionaryWords.sizeInBytes();
+        if (bytes >= 0 && !dictionaryWords.isEmpty()) {
+            logger.debug("dictionary size: {} bytes, {} bytes per word", bytes,
+                    String.format("%.1f", (double) bytes / dictionaryWords.size()));
+        }
+        if (logger.isTraceEnabled()) {
+            long baseline = dictionaryWords.stream().mapToLong(WordHashSet::sizeInBytes).sum();
+            logger.trace("dictionary size as strings in a hash set: about {} bytes", baseline);
+        }
+
+        logger.trace("number of candidate words: {}", dictionaryWords.wordsOfLength(wordLength).size());
+        logger.trace("number of candidate words (after trimming): {}", candidateWords.size());
+
+        recordPhase("load", start);
+
+        filter = args.getBloomFilter() == null ? null : buildFilter(args.getBloomFilter());
     }
 
     /**
-     * Checks whether all characters in the supplied string are in the Basic Multilingual Plane.
-     *
-     * @param str string to check
-     * @return {@code true} if all characters are in the Basic Multilingual Plane; {@code false}
-     * otherwise
+     * Builds a Bloom filter of the dictionary words up to the candidate length, which are the
+     * only words the recursive algorithm ever looks up.
      */
-    private static boolean allCharsInBMP(String str) {
+    private BloomFilter buildFilter(int bitsPerWord) {
 
-        for (int c = 0; c < str.length(); c++) {
-            if (Character.isSurrogate(str.charAt(c))) {
-                return false;
+        profiler.start("filter");
+        long start = System.nanoTime();
+
+        long words = 0;
+        for (int length = 1; length <= wordLength; length++) {
+            words += dictionaryWords.wordsOfLength(length).size();
+        }
+
+        BloomFilter bloomFilter = new BloomFilter(words, bitsPerWord);
+        for (int length = 1; length <= wordLength; length++) {
+            dictionaryWords.wordsOfLength(length).forEach(bloomFilter::add);
+        }
+
+        logger.debug("bloom filter: {} bytes, expected false positive rate: {}", bloomFilter.sizeInBytes(),
+                bloomFilter.expectedFalsePositiveRate());
+
+        recordPhase("filter", start);
+        return bloomFilter;
+    }
+
+    /**
+     * Returns a consumer which adds the loaded words to the dictionary and counts the words which
+     * are discarded as too long or are duplicates of words already loaded.
+     */
+    private WordBatchConsumer countingConsumer() {
+
+        return batches -> {
+
+            long words = 0;
+            long discarded = 0;
+            for (var batch : batches) {
+                words += batch.size();
+                for (String word : batch) {
+                    if (word.length() > dictionaryWords.getMaxLength()) {
+                        discarded++;
+                    }
+                }
+            }
+
+            int size = dictionaryWords.size();
+            dictionaryWords.addBatches(batches);
+
+            ScrabbleMetrics.get().add(DISCARDED_WORDS, discarded);
+            ScrabbleMetrics.get().add(DUPLICATE_WORDS, words - discarded - (dictionaryWords.size() - size));
+        };
+    }
+
+    /**
+     * A view of the dictionary words with the candidate length which contain at least one of the
+     * 1-char words in the dictionary. The remaining words are not reducible to these 1-char words.
+     */
+    private static class CandidateWords extends AbstractSet<String> {
+
+        // the buckets are looked up on every use, as they are replaced when the dictionary changes
+        private final LengthPartitionedWordSet dictionaryWords;
+        private final int wordLength;
+
+        // the shard of candidate words to match and the number of shards; null if all are matched
+        private final Integer shard;
+        private final Integer shards;
+
+        CandidateWords(LengthPartitionedWordSet dictionaryWords, int wordLength, Integer shard, Integer shards) {
+            this.dictionaryWords = dictionaryWords;
+            this.wordLength = wordLength;
+            this.shard = shard;
+            this.shards = shards;
+        }
+
+        private boolean isInShard(String word) {
+
+            return shard == null || ShardCoordinator.shardOf(word, shards) == shard;
+        }
+
+        private boolean containsOneCharWord(String word) {
+
+            // there are far fewer 1-char words than characters in all candidate words
+            for (String oneCharWord : dictionaryWords.wordsOfLength(1)) {
+                if (word.indexOf(oneCharWord.charAt(0)) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean contains(Object obj) {
+
+            return dictionaryWords.wordsOfLength(wordLength).contains(obj) && isInShard((String) obj)
+                    && containsOneCharWord((String) obj);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+
+            return stream().iterator();
+        }
+
+        @Override
+        public Stream<String> stream() {
+
+            return dictionaryWords.wordsOfLength(wordLength).stream().filter(this::isInShard)
+                    .filter(this::containsOneCharWord);
+        }
+
+        @Override
+        public int size() {
+
+            return (int) stream().count();
+        }
+
+        /**
+         * Counts the candidate words, and the words pruned as they contain none of the 1-char words,
+         * in the {@link ScrabbleMetrics}.
+         */
+        void count() {
+
+            long candidates = 0;
+            long pruned = 0;
+            for (String word : dictionaryWords.wordsOfLength(wordLength)) {
+                if (isInShard(word)) {
+                    if (containsOneCharWord(word)) {
+                        candidates++;
+                    } else {
+                        pruned++;
+                    }
+                }
             }
+
+            ScrabbleMetrics.get().add(CANDIDATE_WORDS, candidates);
+            ScrabbleMetrics.get().add(PRUNED_CANDIDATES, pruned);
+        }
+
+        // the inherited implementations call size() first, which filters the candidates twice
+
+        @Override
+        public Object[] toArray() {
+
+            return stream().toArray();
+        }
+
+        @Override
+        public <T> T[] toArray(T[] array) {
+
+            return stream().toList().toArray(array);
         }
-        return true;
+    }
+
+    /**
+     * Returns the size of a scratch buffer which can hold a word with the specified length
+     * along with all shorter words derived from it by the word matching algorithm.
+     */
+    private static int scratchSize(int length) {
+
+        return length * (length + 1) / 2;
     }
 
     /**
@@ -116,6 +346,9 @@ public abstract class AbstractScrabbler implements Scrabbler {
      * at a time, verifying after each removal that the resulting string remains a valid
      * word in the dictionary.
      * <p>
+     * The word is copied to a scratch buffer owned by the calling thread, so no objects
+     * are created while matching (unless TRACE logging is enabled).
+     * <p>
      * Word matching is <b>case-sensitive</b>.
      *
      * @param word word to check
@@ -123,35 +356,444 @@ public abstract class AbstractScrabbler implements Scrabbler {
      */
     protected boolean isWordMatch(String word) {
 
-        if (word.isEmpty()) {
+        char[] chars = scratch(scratchSize(word.length()));
+        word.getChars(0, word.length(), chars, 0);
+
+        return isWordMatch(chars, 0, word.length());
+    }
+
+    /**
+     * Returns the scratch buffer of the calling thread, replacing it with a larger one
+     * if it cannot hold the specified number of characters.
+     */
+    private char[] scratch(int size) {
+
+        char[] chars = scratch.get();
+        if (chars.length < size) {
+            chars = new char[size];
+            scratch.set(chars);
+        }
+        return chars;
+    }
+
+    /**
+     * Checks whether the word held in the specified range of a scratch buffer can be reduced
+     * to a single-character word. The words derived from it by removing one character are built
+     * in place right after the range, so the buffer must have room for {@code length * (length + 1) / 2}
+     * characters starting at {@code offset}.
+     * <p>
+     * Each word is built right after the word it is derived from, so after a successful match the
+     * buffer holds the whole reduction chain found: the word followed by the words on the path down
+     * to a single-character word, each one character shorter than the previous one.
+     * <p>
+     * Word matching is <b>case-sensitive</b>.
+     *
+     * @param chars  scratch buffer holding the word to check
+     * @param offset index of the first character of the word
+     * @param length number of characters in the word
+     * @return {@code true} if a successful match; {@code false} otherwise
+     */
+    protected boolean isWordMatch(char[] chars, int offset, int length) {
+
+        if (length == 0) {
             getLogger().trace("complete match!");
             return true;
-        } else if (dictionaryWords.contains(word)) {
+        } else if (lookup(chars, offset, length)) {
+
+            if (getLogger().isTraceEnabled()) {
+                getLogger().trace("match: {}, length={}", new String(chars, offset, length), length);
+            }
 
-            getLogger().trace("match: {}, length={}", word, word.length());
+            // start with the word with its first character removed; the word with the character
+            // at position c removed differs from the one with the character at c-1 removed only
+            // at position c-1, so every following candidate is built by changing one character
+            int child = offset + length;
+            System.arraycopy(chars, offset + 1, chars, child, length - 1);
 
-            boolean found = false;
-            for (int c = 0; c < word.length(); c++) {
+            for (int c = 0; c < length; c++) {
 
-                String candidate = word.substring(0, c) + word.substring(c + 1);
-                getLogger().trace("candidate: {}, length={}", candidate, candidate.length());
+                if (c > 0) {
+                    chars[child + c - 1] = chars[offset + c - 1];
 
-                found = isWordMatch(candidate);
-                if (found) {
-                    break;
+                    // removing any character in a run of equal characters yields the same candidate
+                    if (chars[offset + c] == chars[offset + c - 1]) {
+                        continue;
+                    }
+                }
+
+                if (getLogger().isTraceEnabled()) {
+                    getLogger().trace("candidate: {}, length={}", new String(chars, child, length - 1), length - 1);
+                }
+
+                if (isWordMatch(chars, child, length - 1)) {
+                    return true;
                 }
-            }
-            if (!found) {
-                getLogger().trace("backtracking...");
             }
 
-            return found;
+            getLogger().trace("backtracking...");
+            ScrabbleMetrics.get().increment(BACKTRACKS);
+            return false;
 
         } else {
             return false;
         }
     }
 
+    /**
+     * Finds the matching words along with the reduction chain of each found by the recursive
+     * algorithm, which is read from the scratch buffer after each successful match.
+     * <p>
+     * The method does not have any side effects and can be called repeatedly on the same instance.
+     *
+     * @return reduction chains keyed by matching word, in order of matching word
+     */
+    @Override
+    public SortedMap<String, List<String>> findMatchingWordChains() {
+
+        getProfiler().start("chain match");
+        long start = System.nanoTime();
+
+        SortedMap<String, List<String>> chains = new TreeMap<>();
+        for (String word : getCandidateWords()) {
+            List<String> chain = findReductionChain(word);
+            if (chain != null) {
+                chains.put(word, chain);
+            }
+        }
+
+        ScrabbleMetrics.get().add(MATCHING_WORDS, chains.size());
+        recordPhase("chain match", start);
+
+        getProfiler().stop().log();
+
+        return chains;
+    }
+
+    /**
+     * Checks whether the specified word is a match with the recursive algorithm and returns the
+     * reduction chain found.
+     *
+     * @param word word to check
+     * @return the word followed by the words obtained by removing one character at a time, down to
+     * a single-character word; {@code null} if the word is not a match
+     */
+    protected List<String> findReductionChain(String word) {
+
+        int length = word.length();
+        char[] chars = scratch(scratchSize(length));
+        word.getChars(0, length, chars, 0);
+
+        if (!isWordMatch(chars, 0, length)) {
+            return null;
+        }
+
+        List<String> chain = new ArrayList<>(length);
+        chain.add(word);
+        for (int offset = length, shorter = length - 1; shorter > 0; offset += shorter, shorter--) {
+            chain.add(new String(chars, offset, shorter));
+        }
+        return Collections.unmodifiableList(chain);
+    }
+
+    /**
+     * Counts the distinct reduction paths of each matching word. The paths of all dictionary words
+     * up to the candidate length are counted once, one length at a time, and reused until the
+     * dictionary changes.
+     *
+     * @return numbers of reduction paths keyed by matching word, in order of matching word
+     */
+    @Override
+    public SortedMap<String, BigInteger> countReductionPaths() {
+
+        getProfiler().start("count paths");
+        long start = System.nanoTime();
+
+        SortedMap<String, BigInteger> counts = new TreeMap<>(reductionPaths().counts(wordLength));
+
+        ScrabbleMetrics.get().add(MATCHING_WORDS, counts.size());
+        recordPhase("count paths", start);
+
+        getProfiler().stop().log();
+
+        return counts;
+    }
+
+    @Override
+    public List<List<String>> findReductionPaths(String word, int limit) {
+
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must be >= 0");
+        }
+        return reductionPaths().enumerate(word, limit);
+    }
+
+    private synchronized ReductionPaths reductionPaths() {
+
+        if (reductionPaths == null) {
+            reductionPaths = new ReductionPaths(this::getDictionaryWords, wordLength);
+        }
+        return reductionPaths;
+    }
+
+    /**
+     * Looks up the word held in the specified range of a scratch buffer in the dictionary,
+     * counting the lookup by depth. If a Bloom filter is enabled, the dictionary is only probed
+     * for words which pass the filter.
+     */
+    private boolean lookup(char[] chars, int offset, int length) {
+
+        if (filter != null) {
+            ScrabbleMetrics.get().increment(FILTER_PROBES);
+            if (!filter.mightContain(chars, offset, length)) {
+                ScrabbleMetrics.get().increment(FILTER_REJECTIONS);
+                ScrabbleMetrics.get().lookup(wordLength - length, false);
+                return false;
+            }
+        }
+
+        boolean found = dictionaryWords.contains(chars, offset, length);
+        if (filter != null && !found) {
+            ScrabbleMetrics.get().increment(FILTER_FALSE_POSITIVES);
+        }
+        ScrabbleMetrics.get().lookup(wordLength - length, found);
+        return found;
+    }
+
+    /**
+     * Finds matching words with each of the specified lengths in a single pass. Matching words
+     * are found one word length at a time, from 2 up to the longest specified length: a word is
+     * a match if removing one of its characters yields a matching word which is one character
+     * shorter (the matching words of length 1 being the 1-char words in the dictionary). Each
+     * length thus reuses the matches of the previous one, and the whole pass costs about as much
+     * as finding the matches with the longest length.
+     * <p>
+     * If the dictionary discards words longer than the candidate words, no matches are found
+     * for longer lengths.
+     * <p>
+     * Word matching is <b>case-sensitive</b>.
+     * <p>
+     * The method does not have any side effects and can be called repeatedly on the same instance.
+     *
+     * @param wordLengths lengths of matching words to find
+     * @return ordered sets of matching words keyed by word length
+     */
+    @Override
+    public SortedMap<Integer, Set<String>> findMatchingWordsByLength(SortedSet<Integer> wordLengths) {
+
+        return findMatchingWordsByLength(wordLengths, Set.of());
+    }
+
+    /**
+     * Finds matching words with each of the specified lengths in a single pass, treating the
+     * specified 1-char words as if they were in the dictionary. The dictionary is not modified.
+     *
+     * @param wordLengths  lengths of matching words to find
+     * @param oneCharWords additional case-sensitive 1-char words
+     * @return ordered sets of matching words keyed by word length
+     * @throws IllegalArgumentException if any of the additional words does not have length 1
+     * @see #findMatchingWordsByLength(SortedSet)
+     */
+    @Override
+    public SortedMap<Integer, Set<String>> findMatchingWordsByLength(SortedSet<Integer> wordLengths,
+                                                                    Set<String> oneCharWords) {
+
+        if (oneCharWords.stream().anyMatch(word -> word.length() != 1)) {
+            throw new IllegalArgumentException("each 1-char word must have length=1");
+        }
+
+        // a profiler of its own, as the server calls this method from several threads at once
+        Profiler profiler = new Profiler("Scrabbler");
+        profiler.setLogger(logger);
+        profiler.start("multi-length match");
+        long start = System.nanoTime();
+
+        SortedMap<Integer, Set<String>> matchingWords = new TreeMap<>();
+        for (int length : wordLengths) {
+            matchingWords.put(length, new TreeSet<>());
+        }
+
+        WordSet reducible = getDictionaryWords(1);
+        if (!reducible.containsAll(oneCharWords)) {
+            reducible = new WordHashSet();
+            reducible.addAll(getDictionaryWords(1));
+            reducible.addAll(oneCharWords);
+        }
+
+        for (int length = 2; !wordLengths.isEmpty() && length <= wordLengths.last() && !reducible.isEmpty(); length++) {
+
+            reducible = findReducibleWords(length, reducible);
+
+            getLogger().trace("number of reducible words with length {}: {}", length, reducible.size());
+
+            if (matchingWords.containsKey(length)) {
+                matchingWords.get(length).addAll(reducible);
+                ScrabbleMetrics.get().add(MATCHING_WORDS, reducible.size());
+            }
+        }
+
+        recordPhase("multi-length match", start);
+        profiler.stop().log();
+
+        return matchingWords;
+    }
+
+    /**
+     * Finds the dictionary words with the specified length which are reducible to one of the
+     * supplied reducible words by removing a single character.
+     *
+     * @param length    word length
+     * @param reducible reducible words with length {@code length - 1}
+     * @return reducible words with the specified length
+     */
+    protected WordSet findReducibleWords(int length, WordSet reducible) {
+
+        WordSet next = new WordHashSet();
+        for (String word : getDictionaryWords(length)) {
+            if (isReducibleTo(word, reducible)) {
+                next.add(word);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Checks whether removing one character from the specified word yields a word in the
+     * supplied set of reducible words. No objects are created while checking.
+     *
+     * @param word      word to check
+     * @param reducible reducible words with length one less than the length of the word
+     * @return {@code true} if the word is reducible; {@code false} otherwise
+     */
+    protected boolean isReducibleTo(String word, WordSet reducible) {
+
+        return isReducibleTo(word, reducible, scratch(2 * word.length()));
+    }
+
+    /**
+     * Checks whether removing one character from the specified word yields a word in the
+     * supplied set of reducible words, using the supplied scratch buffer.
+     *
+     * @param word      word to check
+     * @param reducible reducible words with length one less than the length of the word
+     * @param chars     scratch buffer with room for at least twice the length of the word
+     * @return {@code true} if the word is reducible; {@code false} otherwise
+     */
+    static boolean isReducibleTo(String word, WordSet reducible, char[] chars) {
+
+        // holds the word followed by the word with one character removed
+        int length = word.length();
+        word.getChars(0, length, chars, 0);
+        System.arraycopy(chars, 1, chars, length, length - 1);
+
+        for (int c = 0; c < length; c++) {
+
+            if (c > 0) {
+                chars[length + c - 1] = chars[c - 1];
+
+                // removing any character in a run of equal characters yields the same word
+                if (chars[c] == chars[c - 1]) {
+                    continue;
+                }
+            }
+
+            ScrabbleMetrics.get().increment(REDUCIBLE_LOOKUPS);
+            if (reducible.contains(chars, length, length - 1)) {
+                ScrabbleMetrics.get().increment(REDUCIBLE_HITS);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the specified words to the dictionary and returns the resulting change to the matching
+     * words. Only the words which can reach an added word through deletions are checked again.
+     * <p>
+     * The first change to the dictionary finds the reducible words of every length up to the
+     * candidate length, which are kept up to date from then on. Changes must not be made while
+     * matching words are being found.
+     *
+     * @param words case-sensitive words to add
+     * @return change to the matching words
+     * @throws IllegalArgumentException if any of the words is empty
+     */
+    @Override
+    public synchronized MatchingWordsChange addWords(Collection<String> words) {
+
+        requireNonEmpty(words);
+
+        Set<String> added = new TreeSet<>();
+        Set<String> removed = new TreeSet<>();
+        for (String word : words) {
+            // removed words are left in the filter, as they only cause false positives
+            if (filter != null && word.length() <= wordLength) {
+                filter.add(word);
+            }
+            incrementalMatches().add(word, added, removed);
+        }
+        reductionPaths = null;
+        return new MatchingWordsChange(added, removed);
+    }
+
+    /**
+     * Removes the specified words from the dictionary and returns the resulting change to the
+     * matching words. Only the words which can reach a removed word through deletions are
+     * checked again.
+     *
+     * @param words case-sensitive words to remove
+     * @return change to the matching words
+     * @throws IllegalArgumentException if any of the words is empty
+     * @see #addWords(Collection)
+     */
+    @Override
+    public synchronized MatchingWordsChange removeWords(Collection<String> words) {
+
+        requireNonEmpty(words);
+
+        Set<String> added = new TreeSet<>();
+        Set<String> removed = new TreeSet<>();
+        for (String word : words) {
+            incrementalMatches().remove(word, added, removed);
+        }
+        reductionPaths = null;
+        return new MatchingWordsChange(added, removed);
+    }
+
+    private static void requireNonEmpty(Collection<String> words) {
+
+        if (words.stream().anyMatch(String::isEmpty)) {
+            throw new IllegalArgumentException("words must not be empty");
+        }
+    }
+
+    private IncrementalMatches incrementalMatches() {
+
+        if (incrementalMatches == null) {
+
+            WordSet[] reducible = new WordSet[wordLength + 1];
+            reducible[1] = new WordHashSet();
+            reducible[1].addAll(getDictionaryWords(1));
+            for (int length = 2; length <= wordLength; length++) {
+                reducible[length] = findReducibleWords(length, reducible[length - 1]);
+            }
+
+            incrementalMatches = new IncrementalMatches(dictionaryWords, wordLength, reducible);
+        }
+        return incrementalMatches;
+    }
+
+    /**
+     * Records the time elapsed since the specified {@link System#nanoTime()} as a run of a phase
+     * in the {@link ScrabbleMetrics}.
+     *
+     * @param phase name of the phase
+     * @param start value of {@link System#nanoTime()} when the phase started
+     */
+    protected static void recordPhase(String phase, long start) {
+
+        ScrabbleMetrics.get().recordPhase(phase, System.nanoTime() - start);
+    }
+
     protected static Logger getLogger() {
 
         return logger;
@@ -162,12 +804,29 @@ public abstract class AbstractScrabbler implements Scrabbler {
         return profiler;
     }
 
+    protected final int getWordLength() {
+
+        return wordLength;
+    }
+
     @Override
     public Set<String> getDictionaryWords() {
 
         return Collections.unmodifiableSet(dictionaryWords);
     }
 
+    /**
+     * Returns the dictionary words with the specified length. The returned set is part of the
+     * dictionary and must not be modified.
+     *
+     * @param length word length
+     * @return dictionary words with the specified length
+     */
+    protected final WordSet getDictionaryWords(int length) {
+
+        return dictionaryWords.wordsOfLength(length);
+    }
+
     @Override
     public Set<String> getCandidateWords() {
 
@@ -176,4 +835,16 @@ public abstract class AbstractScrabbler implements Scrabbler {
 
     @Override
     public abstract Set<String> findMatchingWords() throws ScrabbleMatchException;
+
+    /**
+     * Returns the matching words as a lazy stream, checking each candidate word with the recursive
+     * algorithm on the thread which consumes the stream.
+     *
+     * @return stream of matching words, in no particular order
+     */
+    @Override
+    public Stream<String> streamMatchingWords() throws ScrabbleMatchException {
+
+        return getCandidateWords().stream().filter(this::isWordMatch);
+    }
 }
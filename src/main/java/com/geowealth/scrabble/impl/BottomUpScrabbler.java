@@ -0,0 +1,174 @@
+package com.geowealth.scrabble.impl;
+
+import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.dictionary.WordSet;
+import com.geowealth.scrabble.exceptions.ScrabbleLoadException;
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.MATCHING_WORDS;
+
+/**
+ * A concrete {@link AbstractScrabbler} class which finds matching words <b>bottom-up</b>,
+ * one word length at a time. The reducible words of length 1 are the 1-char words in the
+ * dictionary; a word of length k is reducible if removing one of its characters yields a
+ * reducible word of length k-1.
+ * <p>
+ * Unlike the recursive algorithm defined in the base class, which checks the shorter words
+ * reachable from a candidate again for every candidate, this algorithm checks each dictionary
+ * word at most once. Only the reducible words of the previous length are kept in memory.
+ * <p>
+ * This is also the algorithm used by {@link #findMatchingWordsByLength(java.util.SortedSet)},
+ * which collects the reducible words of several lengths in a single pass.
+ */
+public class BottomUpScrabbler extends AbstractScrabbler {
+
+    public BottomUpScrabbler(Args args) throws ScrabbleLoadException {
+        super(args);
+    }
+
+    /**
+     * Finds matching words using a <b>bottom-up algorithm</b>.
+     * <p>
+     * Word matching is <b>case-sensitive</b>.
+     * <p>
+     * The method does not have any side effects and can be called repeatedly on the same instance.
+     *
+     * @return ordered set of matching words
+     */
+    @Override
+    public Set<String> findMatchingWords() {
+
+        getProfiler().start("bottom-up match");
+        long start = System.nanoTime();
+
+        WordSet reducible = findShorterReducibleWords();
+
+        // sort matching words
+        Set<String> matchingWords = new TreeSet<>();
+
+        for (String word : getCandidateWords()) {
+
+            if (isReducibleTo(word, reducible)) {
+                matchingWords.add(word);
+                getLogger().trace("+{}", word);
+            } else {
+                getLogger().trace("-{}", word);
+            }
+        }
+
+        ScrabbleMetrics.get().add(MATCHING_WORDS, matchingWords.size());
+        recordPhase("bottom-up match", start);
+
+        getProfiler().stop();
+        getProfiler().log();
+
+        return matchingWords;
+    }
+
+    /**
+     * Finds the matching words along with one reduction chain of each. The reducible words of every
+     * length below the candidate length are kept, so the chain of a matching word is traced by
+     * removing, at each step, the first character whose removal yields a reducible word; no search
+     * is needed.
+     * <p>
+     * The method does not have any side effects and can be called repeatedly on the same instance.
+     *
+     * @return reduction chains keyed by matching word, in order of matching word
+     */
+    @Override
+    public SortedMap<String, List<String>> findMatchingWordChains() {
+
+        getProfiler().start("bottom-up chain match");
+        long start = System.nanoTime();
+
+        // reducible[length] holds the reducible words with the specified length
+        WordSet[] reducible = new WordSet[getWordLength()];
+        reducible[1] = getDictionaryWords(1);
+        for (int length = 2; length < getWordLength(); length++) {
+            reducible[length] = findReducibleWords(length, reducible[length - 1]);
+        }
+
+        SortedMap<String, List<String>> chains = new TreeMap<>();
+        char[] chars = new char[2 * getWordLength()];
+
+        for (String word : getCandidateWords()) {
+            if (isReducibleTo(word, reducible[getWordLength() - 1])) {
+                chains.put(word, traceChain(word, reducible, chars));
+            }
+        }
+
+        ScrabbleMetrics.get().add(MATCHING_WORDS, chains.size());
+        recordPhase("bottom-up chain match", start);
+
+        getProfiler().stop().log();
+
+        return chains;
+    }
+
+    /**
+     * Traces the reduction chain of a reducible word through the reducible words of each length.
+     */
+    private static List<String> traceChain(String word, WordSet[] reducible, char[] chars) {
+
+        List<String> chain = new ArrayList<>(word.length());
+        chain.add(word);
+
+        // holds the current word followed by the word with one character removed
+        for (int length = word.length(); length > 1; length--) {
+
+            chain.getLast().getChars(0, length, chars, 0);
+            System.arraycopy(chars, 1, chars, length, length - 1);
+
+            for (int c = 0; c < length; c++) {
+                if (c > 0) {
+                    chars[length + c - 1] = chars[c - 1];
+                }
+                if (reducible[length - 1].contains(chars, length, length - 1)) {
+                    chain.add(new String(chars, length, length - 1));
+                    break;
+                }
+            }
+        }
+        return Collections.unmodifiableList(chain);
+    }
+
+    /**
+     * Returns the matching words as a lazy stream. The reducible words one character shorter than
+     * the candidate words are found before the stream is returned; each candidate word is then
+     * checked against them on the thread which consumes the stream.
+     *
+     * @return stream of matching words, in no particular order
+     */
+    @Override
+    public Stream<String> streamMatchingWords() {
+
+        WordSet reducible = findShorterReducibleWords();
+        return getCandidateWords().stream().filter(word -> isReducibleTo(word, reducible));
+    }
+
+    /**
+     * Finds the reducible words one character shorter than the candidate words.
+     */
+    private WordSet findShorterReducibleWords() {
+
+        WordSet reducible = getDictionaryWords(1);
+
+        for (int length = 2; length < getWordLength() && !reducible.isEmpty(); length++) {
+
+            reducible = findReducibleWords(length, reducible);
+
+            getLogger().trace("number of reducible words with length {}: {}", length, reducible.size());
+        }
+        return reducible;
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.geowealth.scrabble.impl;
+
+import com.geowealth.scrabble.loader.DictionaryLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches a dictionary on the local file system and applies any edits made to it to the
+ * dictionary of a {@link Scrabbler}. Whenever the file changes, it is loaded again and only
+ * the difference between its words and the dictionary words is added or removed, so that
+ * only the affected part of the matching words is found again.
+ */
+public class DictionaryWatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryWatcher.class);
+
+    // time (in milliseconds) without further changes to wait for before loading a changed file,
+    // so that a file written in several steps is loaded once
+    private static final long QUIET_PERIOD_MS = 200;
+
+    private final Scrabbler scrabbler;
+    private final Path file;
+    private final String charset;
+    private final Set<String> retainedWords;
+    private final int maxWordLength;
+    private final Consumer<MatchingWordsChange> listener;
+    private final WatchService watchService;
+
+    /**
+     * Creates a new watcher. The file is not watched until {@link #run()} is called.
+     *
+     * @param scrabbler     scrabbler holding the dictionary loaded from the file
+     * @param file          dictionary file
+     * @param charset       suggested dictionary charset
+     * @param retainedWords words which are kept in the dictionary even if they are not in the
+     *                      file (e.g. 1-char words added on the command line)
+     * @param listener      receives the change to the matching words after each edit
+     * @throws IOException if the directory holding the file cannot be watched
+     */
+    public DictionaryWatcher(Scrabbler scrabbler, Path file, String charset, Set<String> retainedWords,
+                             Consumer<MatchingWordsChange> listener) throws IOException {
+        this(scrabbler, file, charset, retainedWords, Integer.MAX_VALUE, listener);
+    }
+
+    /**
+     * Creates a new watcher for a scrabbler which leaves longer words out of its dictionary. The
+     * file is not watched until {@link #run()} is called.
+     *
+     * @param scrabbler     scrabbler holding the dictionary loaded from the file
+     * @param file          dictionary file
+     * @param charset       suggested dictionary charset
+     * @param retainedWords words which are kept in the dictionary even if they are not in the
+     *                      file (e.g. 1-char words added on the command line)
+     * @param maxWordLength maximum length of the words held by the dictionary; longer words in the
+     *                      file are ignored
+     * @param listener      receives the change to the matching words after each edit
+     * @throws IOException if the directory holding the file cannot be watched
+     */
+    public DictionaryWatcher(Scrabbler scrabbler, Path file, String charset, Set<String> retainedWords,
+                             int maxWordLength, Consumer<MatchingWordsChange> listener) throws IOException {
+
+        this.scrabbler = scrabbler;
+        this.file = file.toAbsolutePath();
+        this.charset = charset;
+        this.retainedWords = Set.copyOf(retainedWords);
+        this.maxWordLength = maxWordLength;
+        this.listener = listener;
+
+        watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * Watches the file until the watcher is closed or the calling thread is interrupted.
+     *
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public void run() throws InterruptedException {
+
+        logger.info("watching {}", file);
+
+        try {
+            while (true) {
+
+                WatchKey key = watchService.take();
+                boolean changed = key.pollEvents().stream().anyMatch(event ->
+                        event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context()));
+                key.reset();
+
+                if (changed) {
+
+                    while ((key = watchService.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS)) != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+
+                    try {
+                        listener.accept(reload());
+                    } catch (Exception ex) {
+                        logger.warn("unable to load {}, waiting for further changes", file, ex);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException ex) {
+            logger.info("stopped watching {}", file);
+        }
+    }
+
+    /**
+     * Loads the file and applies the difference between its words and the dictionary words.
+     *
+     * @return change to the matching words
+     * @throws Exception if the file cannot be loaded
+     */
+    public MatchingWordsChange reload() throws Exception {
+
+        URI uri = file.toUri();
+        Set<String> words = new HashSet<>();
+        DictionaryLoader.forUri(uri).load(uri, charset, batches -> batches.forEach(words::addAll));
+
+        Set<String> dictionaryWords = scrabbler.getDictionaryWords();
+        List<String> removedWords = dictionaryWords.stream()
+                .filter(word -> !words.contains(word) && !retainedWords.contains(word))
+                .toList();
+        // longer words were never added to the dictionary, so they are not new either
+        List<String> addedWords = words.stream()
+                .filter(word -> word.length() <= maxWordLength && !dictionaryWords.contains(word))
+                .toList();
+
+        logger.info("dictionary changed: {} words added, {} words removed", addedWords.size(), removedWords.size());
+
+        return scrabbler.removeWords(removedWords).then(scrabbler.addWords(addedWords));
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        watchService.close();
+    }
+}
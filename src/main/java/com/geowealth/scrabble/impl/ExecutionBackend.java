@@ -0,0 +1,65 @@
+package com.geowealth.scrabble.impl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Thread pools which {@link ParallelScrabbler} can check chunks of words on.
+ */
+public enum ExecutionBackend {
+
+    /**
+     * Chunks are checked on the JVM-wide {@link ForkJoinPool#commonPool() common pool}, which is
+     * shared with any other parallel streams and asynchronous tasks in the JVM. Its parallelism is
+     * set with the {@code java.util.concurrent.ForkJoinPool.common.parallelism} system property.
+     */
+    COMMON_POOL {
+        @Override
+        public ExecutorService newExecutor(int parallelism) {
+            // closing the common pool has no effect
+            return ForkJoinPool.commonPool();
+        }
+    },
+
+    /**
+     * Chunks are checked on a dedicated {@link ForkJoinPool} with the specified parallelism.
+     */
+    FORK_JOIN {
+        @Override
+        public ExecutorService newExecutor(int parallelism) {
+            return new ForkJoinPool(parallelism);
+        }
+    },
+
+    /**
+     * Chunks are checked on a fixed number of dedicated platform threads.
+     */
+    PLATFORM {
+        @Override
+        public ExecutorService newExecutor(int parallelism) {
+            return Executors.newFixedThreadPool(parallelism,
+                    Thread.ofPlatform().name("scrabbler-", 0).daemon().factory());
+        }
+    },
+
+    /**
+     * Each chunk is checked on a virtual thread of its own, with at most the specified number of
+     * chunks being checked at the same time.
+     */
+    VIRTUAL {
+        @Override
+        public ExecutorService newExecutor(int parallelism) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+    };
+
+    /**
+     * Creates a new executor which runs tasks on this backend.
+     *
+     * @param parallelism number of tasks to run at the same time (ignored by {@link #COMMON_POOL}
+     *                    and {@link #VIRTUAL})
+     * @return executor
+     */
+    public abstract ExecutorService newExecutor(int parallelism);
+}
@@ -0,0 +1,180 @@
+package com.geowealth.scrabble.impl;
+
+import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.exceptions.ScrabbleLoadException;
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+
+import java.util.Collection;
+
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.BACKTRACKS;
+
+/**
+ * A {@link SequentialScrabbler} which looks up the words obtained by removing one character by
+ * their 64-bit fingerprint.
+ * <p>
+ * The recursive algorithm defined in the base class hashes each shorter word from its first
+ * character, so checking all words obtained by removing one character of a word of length L costs
+ * O(L<sup>2</sup>). This algorithm computes the fingerprints of all prefixes and all suffixes of
+ * the word once, in O(L), after which the fingerprint of the word with the character at position
+ * c removed is the fingerprint of the prefix before c, shifted by the length of the suffix, plus
+ * the fingerprint of the suffix after c: a single multiplication and addition. The fingerprints
+ * are looked up in a {@link FingerprintTable} for each word length, and the characters of a word
+ * are only compared when its fingerprint is found. The gain grows with the word length.
+ * <p>
+ * The tables hold the dictionary words up to the candidate length and are built when the instance
+ * is created. When the dictionary changes, only the tables of the lengths of the changed words are
+ * built again. Lookups are not checked against the Bloom
+ * filter, as they already compare primitive values only.
+ */
+public final class FingerprintScrabbler extends SequentialScrabbler {
+
+    // powers[k] holds BASE^k
+    private final long[] powers;
+
+    // per-thread prefix and suffix fingerprints, those of the words with length n starting at n*(n+1)
+    private final ThreadLocal<long[]> hashes;
+
+    // tables[length] holds the dictionary words with the specified length; replaced as a whole when
+    // the dictionary changes, so that a match never sees a half-updated array
+    private volatile FingerprintTable[] tables;
+
+    public FingerprintScrabbler(Args args) throws ScrabbleLoadException {
+
+        super(args, "fingerprint match");
+
+        int wordLength = getWordLength();
+        powers = new long[wordLength + 1];
+        powers[0] = 1;
+        for (int k = 1; k <= wordLength; k++) {
+            powers[k] = powers[k - 1] * FingerprintTable.BASE;
+        }
+        hashes = ThreadLocal.withInitial(() -> new long[(wordLength + 1) * (wordLength + 2)]);
+
+        long start = System.nanoTime();
+
+        FingerprintTable[] t = new FingerprintTable[wordLength + 1];
+        for (int length = 1; length <= wordLength; length++) {
+            t[length] = new FingerprintTable(getDictionaryWords(length));
+        }
+        tables = t;
+
+        recordPhase("fingerprint", start);
+    }
+
+    /**
+     * Rebuilds the tables of the lengths of the specified words, which have just been added to or
+     * removed from the dictionary. The tables of the other lengths are kept.
+     */
+    private void rebuildTables(Collection<String> words) {
+
+        long start = System.nanoTime();
+
+        FingerprintTable[] t = tables.clone();
+        words.stream()
+                .mapToInt(String::length)
+                .filter(length -> length < t.length)
+                .distinct()
+                .forEach(length -> t[length] = new FingerprintTable(getDictionaryWords(length)));
+        tables = t;
+
+        recordPhase("fingerprint", start);
+    }
+
+    /**
+     * Checks whether the word held in the specified range of a scratch buffer is a match, building
+     * the shorter words in the buffer in the same layout as the base class, so that the reduction
+     * chain of a match can be read from it.
+     *
+     * @param chars  scratch buffer holding the word to check
+     * @param offset index of the first character of the word
+     * @param length number of characters in the word
+     * @return {@code true} if a successful match; {@code false} otherwise
+     */
+    @Override
+    protected boolean isWordMatch(char[] chars, int offset, int length) {
+
+        if (length == 0) {
+            return true;
+        }
+
+        FingerprintTable[] t = tables;
+        if (length >= t.length) {
+            return false;
+        }
+
+        boolean found = t[length].contains(FingerprintTable.fingerprint(chars, offset, length), chars, offset, length);
+        ScrabbleMetrics.get().lookup(getWordLength() - length, found);
+
+        return found && isReducible(t, chars, offset, length, hashes.get());
+    }
+
+    /**
+     * Checks whether the word held in the specified range of a scratch buffer, which is known to
+     * be in the dictionary, can be reduced to a 1-char word.
+     */
+    private boolean isReducible(FingerprintTable[] t, char[] chars, int offset, int length, long[] h) {
+
+        if (length == 1) {
+            return true;
+        }
+
+        // h[prefix + i] holds the fingerprint of the first i characters, h[suffix + i] that of the
+        // characters from position i on, each multiplied by BASE once per character after it
+        int prefix = length * (length + 1);
+        int suffix = prefix + length + 1;
+
+        h[prefix] = 0;
+        for (int i = 0; i < length; i++) {
+            h[prefix + i + 1] = h[prefix + i] * FingerprintTable.BASE + chars[offset + i];
+        }
+        h[suffix + length] = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            h[suffix + i] = chars[offset + i] * powers[length - 1 - i] + h[suffix + i + 1];
+        }
+
+        // the shorter words are built in place as in the base class, so that a fingerprint which
+        // is found can be verified against the characters of the shorter word
+        int child = offset + length;
+        System.arraycopy(chars, offset + 1, chars, child, length - 1);
+
+        FingerprintTable shorter = t[length - 1];
+        for (int c = 0; c < length; c++) {
+
+            if (c > 0) {
+                chars[child + c - 1] = chars[offset + c - 1];
+
+                // removing any character in a run of equal characters yields the same word
+                if (chars[offset + c] == chars[offset + c - 1]) {
+                    continue;
+                }
+            }
+
+            long fingerprint = FingerprintTable.normalize(h[prefix + c] * powers[length - 1 - c] + h[suffix + c + 1]);
+            boolean found = shorter.contains(fingerprint, chars, child, length - 1);
+            ScrabbleMetrics.get().lookup(getWordLength() - length + 1, found);
+
+            if (found && isReducible(t, chars, child, length - 1, h)) {
+                return true;
+            }
+        }
+
+        ScrabbleMetrics.get().increment(BACKTRACKS);
+        return false;
+    }
+
+    @Override
+    public synchronized MatchingWordsChange addWords(Collection<String> words) {
+
+        MatchingWordsChange change = super.addWords(words);
+        rebuildTables(words);
+        return change;
+    }
+
+    @Override
+    public synchronized MatchingWordsChange removeWords(Collection<String> words) {
+
+        MatchingWordsChange change = super.removeWords(words);
+        rebuildTables(words);
+        return change;
+    }
+}
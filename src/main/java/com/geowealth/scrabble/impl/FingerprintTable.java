@@ -0,0 +1,140 @@
+package com.geowealth.scrabble.impl;
+
+import java.util.Collection;
+
+/**
+ * An open-addressing hash table with linear probing which locates words of a single length by
+ * their 64-bit polynomial fingerprint.
+ * <p>
+ * The fingerprint of a word {@code w} of length {@code n} is the sum of {@code w[i] * BASE^(n-1-i)}
+ * modulo 2<sup>64</sup>. As it is a polynomial, the fingerprint of a word with one character
+ * removed can be derived in constant time from the fingerprints of the prefix before and the
+ * suffix after the removed character (see {@link FingerprintScrabbler}).
+ * <p>
+ * The fingerprints are held in a {@code long} array, so a probe compares primitive values only.
+ * The characters of a word are compared only when its fingerprint matches, which guards against
+ * words whose fingerprints collide. The table is immutable.
+ */
+final class FingerprintTable {
+
+    // odd, so that multiplying by it loses no information
+    static final long BASE = 0x9E3779B97F4A7C15L;
+
+    // fingerprints[slot] holds the fingerprint of words[slot], or 0 if the slot is empty
+    private final long[] fingerprints;
+    private final String[] words;
+    private final int shift;
+
+    /**
+     * Creates a new table holding the specified words, all of which must have the same length.
+     *
+     * @param words words to hold
+     */
+    FingerprintTable(Collection<String> words) {
+
+        // keeps the load factor at or below 0.5
+        int tableSize = Integer.highestOneBit(Math.max(8, words.size()) * 2 - 1) << 1;
+        fingerprints = new long[tableSize];
+        this.words = new String[tableSize];
+        shift = Long.numberOfLeadingZeros(tableSize) + 1;
+
+        int mask = tableSize - 1;
+        for (String word : words) {
+            long fingerprint = fingerprint(word);
+            int slot = slot(fingerprint);
+            while (fingerprints[slot] != 0) {
+                slot = slot + 1 & mask;
+            }
+            fingerprints[slot] = fingerprint;
+            this.words[slot] = word;
+        }
+    }
+
+    /**
+     * Returns the fingerprint of the specified word.
+     *
+     * @param word word
+     * @return fingerprint, as passed to {@link #contains(long, char[], int, int)}
+     */
+    static long fingerprint(CharSequence word) {
+
+        long fingerprint = 0;
+        for (int c = 0; c < word.length(); c++) {
+            fingerprint = fingerprint * BASE + word.charAt(c);
+        }
+        return normalize(fingerprint);
+    }
+
+    /**
+     * Returns the fingerprint of the word formed by the specified range of characters.
+     *
+     * @param chars  array holding the characters of the word
+     * @param offset index of the first character of the word
+     * @param length number of characters in the word
+     * @return fingerprint, as passed to {@link #contains(long, char[], int, int)}
+     */
+    static long fingerprint(char[] chars, int offset, int length) {
+
+        long fingerprint = 0;
+        for (int c = offset; c < offset + length; c++) {
+            fingerprint = fingerprint * BASE + chars[c];
+        }
+        return normalize(fingerprint);
+    }
+
+    /**
+     * Maps a fingerprint of 0, which marks an empty slot, to another value.
+     *
+     * @param fingerprint fingerprint
+     * @return non-zero fingerprint
+     */
+    static long normalize(long fingerprint) {
+
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    /**
+     * Maps a fingerprint to a slot using multiplicative hashing (with a constant other than BASE), so that the fingerprints of words which
+     * differ only in their last character (and thus by a small amount) do not end up in adjacent slots.
+     */
+    private int slot(long fingerprint) {
+
+        return (int) (fingerprint * 0xBF58476D1CE4E5B9L >>> shift);
+    }
+
+    /**
+     * Checks whether the table holds the word formed by the specified range of characters.
+     *
+     * @param fingerprint normalized fingerprint of the word
+     * @param chars       array holding the characters of the word
+     * @param offset      index of the first character of the word
+     * @param length      number of characters in the word
+     * @return {@code true} if the table holds the word; {@code false} otherwise
+     */
+    boolean contains(long fingerprint, char[] chars, int offset, int length) {
+
+        long[] f = fingerprints;
+        int mask = f.length - 1;
+        for (int slot = slot(fingerprint); ; slot = slot + 1 & mask) {
+            long existing = f[slot];
+            if (existing == 0) {
+                return false;
+            } else if (existing == fingerprint && equals(words[slot], chars, offset, length)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean equals(String word, char[] chars, int offset, int length) {
+
+        if (word.length() != length) {
+            return false;
+        }
+        for (int c = 0; c < length; c++) {
+            if (word.charAt(c) != chars[offset + c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
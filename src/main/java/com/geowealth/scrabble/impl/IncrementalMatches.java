@@ -0,0 +1,188 @@
+package com.geowealth.scrabble.impl;
+
+import com.geowealth.scrabble.dictionary.LengthPartitionedWordSet;
+import com.geowealth.scrabble.dictionary.WordSet;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The reducible words of each length up to the candidate length, kept up to date while words
+ * are added to or removed from the dictionary.
+ * <p>
+ * Adding or removing a word can only change whether the longer words which reach it through
+ * deletions are reducible. These are found by inserting every character of the dictionary
+ * alphabet at every position of the changed words, one length at a time, and only they are
+ * checked again; the propagation stops at the first length where nothing changes.
+ * <p>
+ * The class is not thread-safe.
+ */
+class IncrementalMatches {
+
+    private final LengthPartitionedWordSet dictionary;
+    private final int wordLength;
+
+    // reducible[length] holds the reducible words with the specified length (1 <= length <= wordLength)
+    private final WordSet[] reducible;
+
+    // characters which occur in the dictionary words up to the candidate length (never cleared)
+    private final BitSet alphabet = new BitSet(Character.MAX_VALUE + 1);
+
+    // holds a word followed by the word with one character inserted or removed
+    private final char[] chars;
+
+    /**
+     * Creates a new instance from the reducible words of each length.
+     *
+     * @param dictionary dictionary words, which are modified through this instance from now on
+     * @param wordLength candidate word length
+     * @param reducible  reducible[length] holds the reducible words with the specified length, for
+     *                   each length from 1 up to the candidate length; the sets are modified
+     */
+    IncrementalMatches(LengthPartitionedWordSet dictionary, int wordLength, WordSet[] reducible) {
+
+        this.dictionary = dictionary;
+        this.wordLength = wordLength;
+        this.reducible = reducible;
+        this.chars = new char[2 * wordLength + 1];
+
+        for (int length = 1; length <= wordLength; length++) {
+            for (String word : dictionary.wordsOfLength(length)) {
+                word.chars().forEach(alphabet::set);
+            }
+        }
+    }
+
+    /**
+     * Adds a word to the dictionary and marks the longer words which become reducible.
+     *
+     * @param word    word to add
+     * @param added   receives the candidate words which have become matching words
+     * @param removed candidate words which are no longer matching words due to earlier changes; any
+     *                of them which become matching words again are removed from this set instead
+     */
+    void add(String word, Set<String> added, Set<String> removed) {
+
+        if (!dictionary.add(word) || word.length() > wordLength) {
+            return;
+        }
+
+        word.chars().forEach(alphabet::set);
+
+        int length = word.length();
+        if (length > 1 && !AbstractScrabbler.isReducibleTo(word, reducible[length - 1], chars)) {
+            return;
+        }
+
+        reducible[length].add(word);
+        List<String> changed = List.of(word);
+
+        while (length < wordLength && !changed.isEmpty()) {
+
+            length++;
+
+            List<String> next = new ArrayList<>();
+            for (String shorter : changed) {
+                forEachInsertion(shorter, longer -> {
+                    if (dictionary.contains(chars, 0, longer) && !reducible[longer].contains(chars, 0, longer)) {
+                        String inserted = new String(chars, 0, longer);
+                        reducible[longer].add(inserted);
+                        next.add(inserted);
+                    }
+                });
+            }
+            changed = next;
+        }
+
+        if (length == wordLength) {
+            for (String match : changed) {
+                if (!removed.remove(match)) {
+                    added.add(match);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a word from the dictionary and unmarks the longer words which are no longer reducible.
+     *
+     * @param word    word to remove
+     * @param added   candidate words which have become matching words due to earlier changes; any
+     *                of them which are no longer matching words are removed from this set instead
+     * @param removed receives the candidate words which are no longer matching words
+     */
+    void remove(String word, Set<String> added, Set<String> removed) {
+
+        if (!dictionary.remove(word) || word.length() > wordLength || !reducible[word.length()].remove(word)) {
+            return;
+        }
+
+        int length = word.length();
+        List<String> changed = List.of(word);
+
+        while (length < wordLength && !changed.isEmpty()) {
+
+            length++;
+
+            List<String> next = new ArrayList<>();
+            for (String shorter : changed) {
+                forEachInsertion(shorter, longer -> {
+                    if (reducible[longer].contains(chars, 0, longer)) {
+                        String inserted = new String(chars, 0, longer);
+                        if (!AbstractScrabbler.isReducibleTo(inserted, reducible[longer - 1], chars)) {
+                            reducible[longer].remove(inserted);
+                            next.add(inserted);
+                        }
+                    }
+                });
+            }
+            changed = next;
+        }
+
+        if (length == wordLength) {
+            for (String match : changed) {
+                if (!added.remove(match)) {
+                    removed.add(match);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface InsertionConsumer {
+
+        /**
+         * Called with the word held at the start of the scratch buffer.
+         *
+         * @param length length of the word
+         */
+        void accept(int length);
+    }
+
+    /**
+     * Builds every word which can be derived from the specified word by inserting one character
+     * of the alphabet, at the start of the scratch buffer, and passes each of them to the consumer.
+     * The consumer may overwrite the scratch buffer, as each word is built again from scratch.
+     */
+    private void forEachInsertion(String word, InsertionConsumer consumer) {
+
+        int length = word.length();
+        for (int position = 0; position <= length; position++) {
+            for (int c = alphabet.nextSetBit(0); c >= 0; c = alphabet.nextSetBit(c + 1)) {
+
+                // inserting a character before an equal character yields the same word as inserting it after
+                if (position > 0 && word.charAt(position - 1) == c) {
+                    continue;
+                }
+
+                word.getChars(0, position, chars, 0);
+                chars[position] = (char) c;
+                word.getChars(position, length, chars, position + 1);
+
+                consumer.accept(length + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.geowealth.scrabble.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A stream of the words which satisfy a predicate, checked in chunks on an executor and emitted
+ * as soon as they are confirmed.
+ * <p>
+ * The chunks are submitted when the first word is requested. Confirmed words are passed to the
+ * consumer of the stream through a bounded buffer; once it is full, the chunks wait until the
+ * consumer takes more words, so a slow consumer holds back the chunks instead of letting the
+ * words pile up in memory. Closing the stream cancels the chunks which are still running.
+ * <p>
+ * Shutting down the executor stops the chunks too: they give up instead of waiting for room in the
+ * buffer, and once none of them is running, the consumer is given the words already confirmed
+ * followed by a {@link CancellationException}.
+ */
+final class MatchStream {
+
+    // number of words which the chunks can confirm ahead of the consumer
+    static final int BUFFER_SIZE = 1024;
+
+    // how often (in milliseconds) a chunk waiting for room in the buffer checks whether the stream is closed
+    private static final long CANCELLATION_CHECK_MS = 100;
+
+    // marks the end of the words
+    private static final Object END = new Object();
+
+    private record Failure(Throwable cause) {
+    }
+
+    private final String[] words;
+    private final int chunkSize;
+    private final Predicate<String> predicate;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final List<Future<?>> chunks = new ArrayList<>();
+
+    /**
+     * @param words     words to check
+     * @param chunkSize number of words in each chunk
+     * @param predicate check applied to each word
+     * @param executor  executor which runs the chunks
+     * @param permits   limits the number of chunks running at the same time; {@code null} if not limited
+     */
+    private MatchStream(String[] words, int chunkSize, Predicate<String> predicate, ExecutorService executor,
+                        Semaphore permits) {
+
+        this.words = words;
+        this.chunkSize = chunkSize;
+        this.predicate = predicate;
+        this.executor = executor;
+        this.permits = permits;
+    }
+
+    /**
+     * Creates a new stream. The stream should be closed if it is not consumed to the end.
+     *
+     * @param words     words to check
+     * @param chunkSize number of words in each chunk
+     * @param predicate check applied to each word
+     * @param executor  executor which runs the chunks
+     * @param permits   limits the number of chunks running at the same time; {@code null} if not limited
+     * @return stream of the words which satisfy the predicate, in no particular order
+     */
+    static Stream<String> of(String[] words, int chunkSize, Predicate<String> predicate, ExecutorService executor,
+                             Semaphore permits) {
+
+        MatchStream stream = new MatchStream(words, chunkSize, predicate, executor, permits);
+
+        return StreamSupport.stream(stream.new BufferSpliterator(), false).onClose(stream::cancel);
+    }
+
+    private class BufferSpliterator extends Spliterators.AbstractSpliterator<String> {
+
+        private boolean started;
+        private boolean ended;
+
+        BufferSpliterator() {
+            super(Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.DISTINCT);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+
+            if (ended) {
+                return false;
+            }
+            if (!started) {
+                started = true;
+                start();
+            }
+
+            Object item;
+            try {
+                item = take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CancellationException("interrupted while waiting for words");
+            }
+
+            if (item == END) {
+                ended = true;
+                return false;
+            }
+            if (item instanceof Failure failure) {
+                ended = true;
+                cancel();
+                if (failure.cause() instanceof Error error) {
+                    throw error;
+                }
+                throw failure.cause() instanceof RuntimeException re ? re : new IllegalStateException(failure.cause());
+            }
+
+            action.accept((String) item);
+            return true;
+        }
+    }
+
+    private void start() {
+
+        if (words.length == 0) {
+            buffer.add(END);
+            return;
+        }
+
+        AtomicInteger running = new AtomicInteger(-Math.floorDiv(-words.length, chunkSize));
+
+        synchronized (chunks) {
+            for (int from = 0; from < words.length; from += chunkSize) {
+
+                int first = from;
+                int last = (int) Math.min((long) from + chunkSize, words.length);
+
+                chunks.add(executor.submit(() -> {
+                    try {
+                        check(first, last);
+                        if (running.decrementAndGet() == 0) {
+                            put(END);
+                        }
+                    } catch (InterruptedException ex) {
+                        // the executor is shutting down; if the buffer is full, the consumer notices
+                        // once no chunk is running
+                        buffer.offer(new Failure(new CancellationException("interrupted while checking words")));
+                    } catch (RuntimeException | Error ex) {
+                        if (isStopped()) {
+                            // the chunks which have not started yet must not wait for the consumer either
+                            buffer.offer(new Failure(ex));
+                        } else {
+                            put(new Failure(ex));
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+    }
+
+    private void check(int first, int last) throws InterruptedException {
+
+        if (permits != null) {
+            permits.acquire();
+        }
+        try {
+            for (int i = first; i < last; i++) {
+                if (isStopped()) {
+                    // the words left unchecked must not be taken for non-matches
+                    throw new CancellationException();
+                }
+                if (predicate.test(words[i])) {
+                    put(words[i]);
+                }
+            }
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Waits for the next item in the buffer. If no chunk is running and the buffer is empty, the
+     * words are no longer being checked (e.g. because the executor was shut down before all chunks
+     * could run), and a failure is returned instead of waiting forever.
+     */
+    private Object take() throws InterruptedException {
+
+        Object item = buffer.poll(CANCELLATION_CHECK_MS, TimeUnit.MILLISECONDS);
+        while (item == null) {
+            boolean done;
+            synchronized (chunks) {
+                done = chunks.stream().allMatch(Future::isDone);
+            }
+            if (done) {
+                // an item put by the last chunk before it completed is in the buffer by now
+                item = buffer.poll();
+                return item != null ? item : new Failure(new CancellationException("words no longer being checked"));
+            }
+            item = buffer.poll(CANCELLATION_CHECK_MS, TimeUnit.MILLISECONDS);
+        }
+        return item;
+    }
+
+    /**
+     * Waits for room in the buffer, giving up once the stream is closed or the executor is shut
+     * down. Not every executor interrupts a cancelled task (e.g. a
+     * {@link java.util.concurrent.ForkJoinPool} does not).
+     */
+    private void put(Object item) throws InterruptedException {
+
+        while (!buffer.offer(item, CANCELLATION_CHECK_MS, TimeUnit.MILLISECONDS)) {
+            if (isStopped()) {
+                throw new CancellationException();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the stream is closed or the executor is shut down.
+     */
+    private boolean isStopped() {
+
+        return cancelled.get() || executor.isShutdown();
+    }
+
+    private void cancel() {
+
+        if (cancelled.compareAndSet(false, true)) {
+            synchronized (chunks) {
+                chunks.forEach(chunk -> chunk.cancel(true));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.geowealth.scrabble.impl;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The change to the set of matching words caused by adding words to or removing words from
+ * the dictionary of a {@link Scrabbler}.
+ *
+ * @param added   ordered set of words which have become matching words
+ * @param removed ordered set of words which are no longer matching words
+ */
+public record MatchingWordsChange(Set<String> added, Set<String> removed) {
+
+    public MatchingWordsChange {
+        added = Collections.unmodifiableSet(new TreeSet<>(added));
+        removed = Collections.unmodifiableSet(new TreeSet<>(removed));
+    }
+
+    /**
+     * Combines this change with a change which follows it.
+     *
+     * @param next change which follows this change
+     * @return net change
+     */
+    public MatchingWordsChange then(MatchingWordsChange next) {
+
+        Set<String> netAdded = new TreeSet<>(added);
+        Set<String> netRemoved = new TreeSet<>(removed);
+
+        for (String word : next.removed()) {
+            if (!netAdded.remove(word)) {
+                netRemoved.add(word);
+            }
+        }
+        for (String word : next.added()) {
+            if (!netRemoved.remove(word)) {
+                netAdded.add(word);
+            }
+        }
+        return new MatchingWordsChange(netAdded, netRemoved);
+    }
+
+    public boolean isEmpty() {
+
+        return added.isEmpty() && removed.isEmpty();
+    }
+}
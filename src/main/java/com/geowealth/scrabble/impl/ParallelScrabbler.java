@@ -1,22 +1,69 @@
 package com.geowealth.scrabble.impl;
 
 import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.dictionary.WordHashSet;
+import com.geowealth.scrabble.dictionary.WordSet;
 import com.geowealth.scrabble.exceptions.ScrabbleLoadException;
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListSet;
-import java.util.stream.Collectors;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.MATCHING_WORDS;
 
 /**
  * A concrete {@link AbstractScrabbler} class which parallelizes the recursive
  * algorithm defined in the base class to find matching words. The list of candidate
- * words is divided into a number of partitions, with each partition then processed
- * by a separate thread.
+ * words is divided into chunks, with each chunk then processed by a separate thread
+ * of the configured {@link ExecutionBackend}.
+ * <p>
+ * Unless a chunk size is specified, the words are divided into about four chunks per thread,
+ * so that threads which finish early can take over some of the remaining work.
+ * <p>
+ * When finding matching words with several lengths, the dictionary words of each length
+ * are checked in parallel in the same way.
+ * <p>
+ * A dedicated thread pool is shut down when the instance is {@link #close() closed}; its
+ * threads are daemon threads, so an instance which is not closed does not keep the JVM running.
  */
-public class ParallelScrabbler extends AbstractScrabbler {
+public class ParallelScrabbler extends AbstractScrabbler implements AutoCloseable {
+
+    // number of chunks per thread when the chunk size is not specified
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final int parallelism;
+    private final Integer chunkSize;
+    private final ExecutorService executor;
+
+    // limits the number of chunks checked at the same time by virtual threads
+    private final Semaphore permits;
 
     public ParallelScrabbler(Args args) throws ScrabbleLoadException {
+
         super(args);
+
+        ExecutionBackend backend = args.getExecutionBackend();
+        parallelism = backend == ExecutionBackend.COMMON_POOL ? ForkJoinPool.getCommonPoolParallelism()
+                : args.getParallelism();
+        chunkSize = args.getChunkSize();
+        executor = backend.newExecutor(parallelism);
+        permits = backend == ExecutionBackend.VIRTUAL ? new Semaphore(parallelism) : null;
+
+        getLogger().debug("execution backend: {}, parallelism: {}", backend, parallelism);
     }
 
     /**
@@ -26,24 +73,164 @@ public class ParallelScrabbler extends AbstractScrabbler {
      * <p>
      * The method does not have any side effects and can be called repeatedly on the same instance.
      *
-     * @return set of matching words
+     * @return ordered set of matching words
+     * @throws CancellationException if the calling thread is interrupted while waiting for the chunks
      */
     @Override
     public Set<String> findMatchingWords() {
 
         getProfiler().start("parallel match");
+        long start = System.nanoTime();
+
+        Set<String> matchingWords = new TreeSet<>(filter(getCandidateWords().toArray(String[]::new),
+                this::isWordMatch));
 
-        // The underlying parallel streams implementation utilizes various heuristics such as data set size,
-        // the cost of processing each element, and the overhead of task creation to determine how and if to
-        // partition the original stream. As a result, it delivers good performance with both small and large
-        // data sets, all while requiring less code compared to manually partitioning the data set, using an
-        // executor service, and submitting tasks to it.
-        var matchingWords = getCandidateWords().parallelStream().filter(this::isWordMatch)
-                .collect(Collectors.toCollection(ConcurrentSkipListSet::new));
+        ScrabbleMetrics.get().add(MATCHING_WORDS, matchingWords.size());
+        recordPhase("parallel match", start);
 
         getProfiler().stop().log();
 
         return matchingWords;
     }
 
+    /**
+     * Finds the matching words along with the reduction chain of each found by the recursive
+     * algorithm, checking the candidate words in chunks in parallel.
+     *
+     * @return reduction chains keyed by matching word, in order of matching word
+     * @throws CancellationException if the calling thread is interrupted while waiting for the chunks
+     */
+    @Override
+    public SortedMap<String, List<String>> findMatchingWordChains() {
+
+        getProfiler().start("parallel chain match");
+        long start = System.nanoTime();
+
+        SortedMap<String, List<String>> chains = new TreeMap<>();
+        for (List<String> chain : map(getCandidateWords().toArray(String[]::new), this::findReductionChain)) {
+            chains.put(chain.getFirst(), chain);
+        }
+
+        ScrabbleMetrics.get().add(MATCHING_WORDS, chains.size());
+        recordPhase("parallel chain match", start);
+
+        getProfiler().stop().log();
+
+        return chains;
+    }
+
+    /**
+     * Returns the matching words as a lazy stream. The candidate words are checked in chunks in
+     * parallel, as in {@link #findMatchingWords()}, and each matching word is emitted as soon as it
+     * is confirmed. The chunks stop once {@value MatchStream#BUFFER_SIZE} matching words are waiting
+     * for the consumer, and carry on as the consumer takes them.
+     * <p>
+     * With the {@link ExecutionBackend#COMMON_POOL COMMON_POOL} backend, a slow consumer holds
+     * threads of the common pool while the chunks wait for it.
+     *
+     * @return stream of matching words, in no particular order
+     */
+    @Override
+    public Stream<String> streamMatchingWords() {
+
+        String[] words = getCandidateWords().toArray(String[]::new);
+        return MatchStream.of(words, chunkSize(words.length), this::isWordMatch, executor, permits);
+    }
+
+    /**
+     * Checks the dictionary words with the specified length in parallel.
+     */
+    @Override
+    protected WordSet findReducibleWords(int length, WordSet reducible) {
+
+        WordSet next = new WordHashSet();
+        next.addAll(filter(getDictionaryWords(length).toArray(String[]::new), word -> isReducibleTo(word, reducible)));
+        return next;
+    }
+
+    /**
+     * Divides the specified words into chunks, checks the chunks in parallel and returns the words
+     * which satisfy the predicate.
+     */
+    private List<String> filter(String[] words, Predicate<String> predicate) {
+
+        return map(words, word -> predicate.test(word) ? word : null);
+    }
+
+    /**
+     * Divides the specified words into chunks, maps the words of the chunks in parallel and returns
+     * the non-null results.
+     */
+    private <T> List<T> map(String[] words, Function<String, T> mapper) {
+
+        int size = chunkSize(words.length);
+
+        List<Callable<List<T>>> chunks = new ArrayList<>();
+        for (int from = 0; from < words.length; from += size) {
+
+            int first = from;
+            int last = (int) Math.min((long) from + size, words.length);
+
+            chunks.add(() -> {
+                if (permits != null) {
+                    permits.acquire();
+                }
+                try {
+                    List<T> results = new ArrayList<>();
+                    for (int i = first; i < last; i++) {
+                        T result = mapper.apply(words[i]);
+                        if (result != null) {
+                            results.add(result);
+                        }
+                    }
+                    return results;
+                } finally {
+                    if (permits != null) {
+                        permits.release();
+                    }
+                }
+            });
+        }
+
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<List<T>> chunk : executor.invokeAll(chunks)) {
+                results.addAll(chunk.get());
+            }
+            return results;
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while checking words");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Returns the number of words in each chunk when the specified number of words is checked.
+     */
+    private int chunkSize(int words) {
+
+        return chunkSize != null ? chunkSize : Math.max(1, -Math.floorDiv(-words, parallelism * CHUNKS_PER_THREAD));
+    }
+
+    /**
+     * Shuts down the dedicated thread pool, if any, after the words being checked are done.
+     * Matching words cannot be found after the instance is closed, and streams of matching words
+     * which are still open stop: their consumers are given the words already confirmed, followed by
+     * a {@link CancellationException}.
+     */
+    @Override
+    public void close() {
+
+        executor.close();
+    }
+
 }
@@ -0,0 +1,153 @@
+package com.geowealth.scrabble.impl;
+
+import com.geowealth.scrabble.dictionary.WordSet;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * The number of distinct reduction paths of every reducible dictionary word up to a given length.
+ * A reduction path is a sequence of dictionary words from a word down to a 1-char word, each
+ * obtained by removing one character of the previous one; removing either of two equal adjacent
+ * characters yields the same path.
+ * <p>
+ * The dictionary words and the deletions between them form a directed acyclic graph, whose paths
+ * are counted one word length at a time: the count of a word is the sum of the counts of its
+ * distinct deletions, and the count of a 1-char word is 1. Every word is thus visited once, no
+ * matter how many paths go through it. The number of paths grows factorially with the word
+ * length, so counts are held as {@link BigInteger} values, which cannot overflow.
+ * <p>
+ * Only words with at least one path are kept, so paths can be enumerated without ever running
+ * into a dead end. The class is immutable.
+ */
+final class ReductionPaths {
+
+    // counts.get(length) maps each reducible word with the specified length to its number of paths
+    private final List<Map<String, BigInteger>> counts = new ArrayList<>();
+
+    /**
+     * Counts the reduction paths of the dictionary words up to the specified length.
+     *
+     * @param dictionaryWords returns the dictionary words with a given length
+     * @param maxLength       longest word length to count paths for
+     */
+    ReductionPaths(IntFunction<WordSet> dictionaryWords, int maxLength) {
+
+        counts.add(Map.of());
+
+        Map<String, BigInteger> level = new HashMap<>();
+        for (String word : dictionaryWords.apply(1)) {
+            level.put(word, BigInteger.ONE);
+        }
+        counts.add(level);
+
+        for (int length = 2; length <= maxLength; length++) {
+
+            Map<String, BigInteger> shorter = level;
+            level = new HashMap<>();
+
+            if (!shorter.isEmpty()) {
+                for (String word : dictionaryWords.apply(length)) {
+
+                    BigInteger count = BigInteger.ZERO;
+                    for (String deletion : deletions(word, shorter)) {
+                        count = count.add(shorter.get(deletion));
+                    }
+                    if (count.signum() > 0) {
+                        level.put(word, count);
+                    }
+                }
+            }
+            counts.add(level);
+        }
+    }
+
+    /**
+     * Returns the distinct words obtained by removing one character of the specified word which
+     * are in the supplied map.
+     */
+    private static List<String> deletions(String word, Map<String, ?> words) {
+
+        List<String> deletions = new ArrayList<>(2);
+        for (int c = 0; c < word.length(); c++) {
+
+            // removing any character in a run of equal characters yields the same word
+            if (c > 0 && word.charAt(c) == word.charAt(c - 1)) {
+                continue;
+            }
+
+            String deletion = word.substring(0, c) + word.substring(c + 1);
+            if (words.containsKey(deletion)) {
+                deletions.add(deletion);
+            }
+        }
+        return deletions;
+    }
+
+    /**
+     * Returns the number of reduction paths of the specified word.
+     *
+     * @param word word to count paths for
+     * @return number of paths; zero if the word is not reducible or is longer than the longest
+     * length paths are counted for
+     */
+    BigInteger count(String word) {
+
+        return word.length() < counts.size() ? counts.get(word.length()).getOrDefault(word, BigInteger.ZERO)
+                : BigInteger.ZERO;
+    }
+
+    /**
+     * Returns the reducible words with the specified length along with their number of paths.
+     *
+     * @param length word length
+     * @return numbers of paths keyed by word; must not be modified
+     */
+    Map<String, BigInteger> counts(int length) {
+
+        return length < counts.size() ? Collections.unmodifiableMap(counts.get(length)) : Map.of();
+    }
+
+    /**
+     * Enumerates the reduction paths of the specified word, up to a maximum number of paths. As
+     * every word kept has at least one path, the cost is proportional to the number of paths
+     * returned rather than to the number of paths of the word.
+     *
+     * @param word  word to enumerate paths for
+     * @param limit maximum number of paths to return
+     * @return paths, each starting with the word and ending with a 1-char word
+     */
+    List<List<String>> enumerate(String word, int limit) {
+
+        List<List<String>> paths = new ArrayList<>();
+        if (limit > 0 && count(word).signum() > 0) {
+            List<String> path = new ArrayList<>(word.length());
+            path.add(word);
+            enumerate(path, limit, paths);
+        }
+        return paths;
+    }
+
+    private void enumerate(List<String> path, int limit, List<List<String>> paths) {
+
+        String word = path.getLast();
+        if (word.length() == 1) {
+            paths.add(List.copyOf(path));
+            return;
+        }
+
+        for (String deletion : deletions(word, counts.get(word.length() - 1))) {
+            if (paths.size() == limit) {
+                return;
+            }
+            path.add(deletion);
+            enumerate(path, limit, paths);
+            path.removeLast();
+        }
+    }
+}
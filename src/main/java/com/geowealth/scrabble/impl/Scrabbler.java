@@ -2,7 +2,13 @@ package com.geowealth.scrabble.impl;
 
 import com.geowealth.scrabble.exceptions.ScrabbleMatchException;
 
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.stream.Stream;
 
 /**
  * An object that loads a dictionary of words, identifies candidate words of a specified length,
@@ -17,4 +23,60 @@ public interface Scrabbler {
     Set<String> getCandidateWords();
 
     Set<String> findMatchingWords() throws ScrabbleMatchException;
+
+    /**
+     * Returns the matching words as a lazy stream, which emits each matching word as soon as it is
+     * confirmed rather than after all candidate words are checked. Candidate words are only checked
+     * as the stream is consumed (possibly some way ahead of the consumer), so a consumer which stops
+     * early, e.g. with {@link Stream#limit(long)}, does not pay for the remaining candidates.
+     * <p>
+     * The words are emitted in no particular order. The stream should be closed (e.g. with
+     * try-with-resources) if it is not consumed to the end, so that any work still in progress is
+     * cancelled.
+     *
+     * @return stream of matching words
+     * @throws ScrabbleMatchException if matching words cannot be found
+     */
+    Stream<String> streamMatchingWords() throws ScrabbleMatchException;
+
+    /**
+     * Finds the matching words along with one reduction chain of each: the matching word followed
+     * by the words obtained by removing one character at a time, down to a 1-char word. The chains
+     * are recorded while the words are matched, rather than by searching again.
+     *
+     * @return reduction chains keyed by matching word, in order of matching word
+     * @throws ScrabbleMatchException if matching words cannot be found
+     */
+    SortedMap<String, List<String>> findMatchingWordChains() throws ScrabbleMatchException;
+
+    /**
+     * Counts the distinct reduction paths of each matching word, i.e. the number of different
+     * sequences of words through which it can be reduced to a 1-char word. The counts grow
+     * factorially with the word length, so they are exact rather than bounded by {@code long}.
+     *
+     * @return numbers of reduction paths keyed by matching word, in order of matching word
+     * @throws ScrabbleMatchException if matching words cannot be found
+     */
+    SortedMap<String, BigInteger> countReductionPaths() throws ScrabbleMatchException;
+
+    /**
+     * Enumerates the distinct reduction paths of the specified word, up to a maximum number of
+     * paths.
+     *
+     * @param word  word to enumerate paths for; must not be longer than the candidate words
+     * @param limit maximum number of paths to return
+     * @return paths, each starting with the word and ending with a 1-char word; empty if the word
+     * is not reducible
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    List<List<String>> findReductionPaths(String word, int limit);
+
+    SortedMap<Integer, Set<String>> findMatchingWordsByLength(SortedSet<Integer> wordLengths) throws ScrabbleMatchException;
+
+    SortedMap<Integer, Set<String>> findMatchingWordsByLength(SortedSet<Integer> wordLengths, Set<String> oneCharWords)
+            throws ScrabbleMatchException;
+
+    MatchingWordsChange addWords(Collection<String> words);
+
+    MatchingWordsChange removeWords(Collection<String> words);
 }
@@ -2,18 +2,37 @@ package com.geowealth.scrabble.impl;
 
 import com.geowealth.scrabble.cli.Args;
 import com.geowealth.scrabble.exceptions.ScrabbleLoadException;
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
 
 import java.util.Set;
 import java.util.TreeSet;
 
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.MATCHING_WORDS;
+
 /**
  * A concrete {@link AbstractScrabbler} class which uses the recursive sequential
  * algorithm defined in the base class to find matching words.
  */
 public class SequentialScrabbler extends AbstractScrabbler {
 
+    // profiler and metrics label of the matching phase
+    private final String phase;
+
     public SequentialScrabbler(Args args) throws ScrabbleLoadException {
+        this(args, "sequential match");
+    }
+
+    /**
+     * Creates a new instance for a subclass which only changes how a single word is checked.
+     *
+     * @param args  command line arguments
+     * @param phase profiler and metrics label of the matching phase
+     * @throws ScrabbleLoadException if the dictionary cannot be loaded
+     */
+    protected SequentialScrabbler(Args args, String phase) throws ScrabbleLoadException {
+
         super(args);
+        this.phase = phase;
     }
 
     /**
@@ -28,7 +47,8 @@ public class SequentialScrabbler extends AbstractScrabbler {
     @Override
     public Set<String> findMatchingWords() {
 
-        getProfiler().start("sequential match");
+        getProfiler().start(phase);
+        long start = System.nanoTime();
 
         // sort matching words
         Set<String> matchingWords = new TreeSet<>();
@@ -43,6 +63,9 @@ public class SequentialScrabbler extends AbstractScrabbler {
             }
         }
 
+        ScrabbleMetrics.get().add(MATCHING_WORDS, matchingWords.size());
+        recordPhase(phase, start);
+
         getProfiler().stop();
         getProfiler().log();
 
@@ -0,0 +1,171 @@
+package com.geowealth.scrabble.impl;
+
+import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.dictionary.Dawg;
+import com.geowealth.scrabble.exceptions.ScrabbleLoadException;
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+
+import java.util.Collection;
+
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.BACKTRACKS;
+
+/**
+ * A {@link SequentialScrabbler} which looks up the words obtained by removing one character by
+ * walking an automaton of the dictionary.
+ * <p>
+ * The words obtained by removing the character at position c of a word all start with the first
+ * c characters of the word, yet the recursive algorithm defined in the base class hashes and
+ * compares each of them from its first character. This algorithm holds the dictionary words of
+ * each length in a minimal automaton ({@link Dawg}) and walks the prefix of the word once, one
+ * state per character; the shorter word without the character at position c is looked up by
+ * resuming from the state reached after the first c characters and walking the rest of the word
+ * from position c + 1. A walk stops at the first character without a transition, and once the
+ * prefix itself has no transition, none of the remaining shorter words is in the dictionary.
+ * <p>
+ * The automata hold the dictionary words up to the candidate length and are built when the
+ * instance is created. When the dictionary changes, only the automata of the lengths of the changed
+ * words are built again. Lookups are not checked against
+ * the Bloom filter, as the walks already stop at the first character which leads nowhere.
+ */
+public final class TrieScrabbler extends SequentialScrabbler {
+
+    // automata[length] accepts the dictionary words with the specified length; replaced as a whole
+    // when the dictionary changes, so that a match never sees a half-updated array
+    private volatile Dawg[] automata;
+
+    public TrieScrabbler(Args args) throws ScrabbleLoadException {
+
+        super(args, "trie match");
+
+        long start = System.nanoTime();
+
+        Dawg[] a = new Dawg[getWordLength() + 1];
+        for (int length = 1; length <= getWordLength(); length++) {
+            a[length] = Dawg.of(getDictionaryWords(length));
+        }
+        automata = a;
+
+        recordPhase("automata", start);
+    }
+
+    /**
+     * Rebuilds the automata of the lengths of the specified words, which have just been added to or
+     * removed from the dictionary. The automata of the other lengths are kept.
+     */
+    private void rebuildAutomata(Collection<String> words) {
+
+        long start = System.nanoTime();
+
+        Dawg[] a = automata.clone();
+        words.stream()
+                .mapToInt(String::length)
+                .filter(length -> length < a.length)
+                .distinct()
+                .forEach(length -> a[length] = Dawg.of(getDictionaryWords(length)));
+        automata = a;
+
+        recordPhase("automata", start);
+    }
+
+    /**
+     * Checks whether the word held in the specified range of a scratch buffer is a match, building
+     * the shorter words in the buffer in the same layout as the base class, so that the reduction
+     * chain of a match can be read from it.
+     *
+     * @param chars  scratch buffer holding the word to check
+     * @param offset index of the first character of the word
+     * @param length number of characters in the word
+     * @return {@code true} if a successful match; {@code false} otherwise
+     */
+    @Override
+    protected boolean isWordMatch(char[] chars, int offset, int length) {
+
+        if (length == 0) {
+            return true;
+        }
+
+        Dawg[] a = automata;
+        if (length >= a.length) {
+            return false;
+        }
+
+        Dawg automaton = a[length];
+        int state = automaton.root();
+        for (int c = offset; c < offset + length && state >= 0; c++) {
+            state = automaton.next(state, chars[c]);
+        }
+        boolean found = state >= 0 && automaton.isFinal(state);
+        ScrabbleMetrics.get().lookup(getWordLength() - length, found);
+
+        return found && isReducible(a, chars, offset, length);
+    }
+
+    /**
+     * Checks whether the word held in the specified range of a scratch buffer, which is known to
+     * be in the dictionary, can be reduced to a 1-char word.
+     */
+    private boolean isReducible(Dawg[] a, char[] chars, int offset, int length) {
+
+        if (length == 1) {
+            return true;
+        }
+
+        // the shorter words are built in place as in the base class, so that the reduction chain
+        // of a match can be read from the buffer
+        int child = offset + length;
+        System.arraycopy(chars, offset + 1, chars, child, length - 1);
+
+        Dawg shorter = a[length - 1];
+
+        // the state reached by the first c characters of the word
+        int prefix = shorter.root();
+
+        for (int c = 0; c < length; c++) {
+
+            if (c > 0) {
+                chars[child + c - 1] = chars[offset + c - 1];
+                prefix = shorter.next(prefix, chars[offset + c - 1]);
+
+                // none of the remaining shorter words starts with a prefix which leads nowhere
+                if (prefix < 0) {
+                    break;
+                }
+
+                // removing any character in a run of equal characters yields the same word
+                if (chars[offset + c] == chars[offset + c - 1]) {
+                    continue;
+                }
+            }
+
+            int state = prefix;
+            for (int i = offset + c + 1; i < offset + length && state >= 0; i++) {
+                state = shorter.next(state, chars[i]);
+            }
+            boolean found = state >= 0 && shorter.isFinal(state);
+            ScrabbleMetrics.get().lookup(getWordLength() - length + 1, found);
+
+            if (found && isReducible(a, chars, child, length - 1)) {
+                return true;
+            }
+        }
+
+        ScrabbleMetrics.get().increment(BACKTRACKS);
+        return false;
+    }
+
+    @Override
+    public synchronized MatchingWordsChange addWords(Collection<String> words) {
+
+        MatchingWordsChange change = super.addWords(words);
+        rebuildAutomata(words);
+        return change;
+    }
+
+    @Override
+    public synchronized MatchingWordsChange removeWords(Collection<String> words) {
+
+        MatchingWordsChange change = super.removeWords(words);
+        rebuildAutomata(words);
+        return change;
+    }
+}
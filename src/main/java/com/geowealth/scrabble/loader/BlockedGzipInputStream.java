@@ -0,0 +1,224 @@
+package com.geowealth.scrabble.loader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * A stream of the uncompressed contents of a blocked gzip file (see {@link Gzip}), whose members
+ * are inflated in parallel.
+ * <p>
+ * The members are located from the sizes in their headers and grouped into ranges of about
+ * {@code rangeSize} compressed bytes. Each range is read and inflated by a thread of its own,
+ * a few ranges ahead of the reader of the stream, which receives the uncompressed ranges in order.
+ * The CRC-32 and the size of each member are checked against its trailer.
+ */
+final class BlockedGzipInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long size;
+    private final int rangeSize;
+    private final int lookahead;
+    private final ExecutorService executor;
+
+    // ranges being inflated, in order
+    private final Queue<Future<byte[]>> ranges = new ArrayDeque<>();
+
+    // position of the next member not yet part of a range
+    private long next;
+
+    private byte[] current = new byte[0];
+    private int position;
+
+    /**
+     * Creates a new stream.
+     *
+     * @param channel     blocked gzip file, which must stay open while the stream is read
+     * @param rangeSize   size (in compressed bytes) of the ranges inflated by a single thread
+     * @param parallelism number of ranges inflated at the same time
+     * @throws IOException if the file size cannot be determined
+     */
+    BlockedGzipInputStream(FileChannel channel, int rangeSize, int parallelism) throws IOException {
+
+        this.channel = channel;
+        this.size = channel.size();
+        this.rangeSize = rangeSize;
+        this.lookahead = 2 * parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("gzip-inflater-", 0).daemon().factory());
+    }
+
+    /**
+     * Checks whether the specified file is a blocked gzip file, i.e. whether its first member
+     * holds its size.
+     *
+     * @param channel gzip file
+     * @return {@code true} if the file is a blocked gzip file; {@code false} otherwise
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isBlocked(FileChannel channel) throws IOException {
+
+        return Gzip.blockSize(channel, 0) > 0;
+    }
+
+    /**
+     * Submits ranges for inflation until the lookahead is full or all members are submitted.
+     */
+    private void submitRanges() throws IOException {
+
+        while (ranges.size() < lookahead && next < size) {
+
+            long start = next;
+            while (next < size && next - start < rangeSize) {
+                long blockSize = Gzip.blockSize(channel, next);
+                if (blockSize < 0) {
+                    throw new ZipException("gzip member without a size at offset " + next);
+                }
+                next += blockSize;
+            }
+
+            if (next > size) {
+                throw new ZipException("gzip file truncated at offset " + size);
+            }
+            long end = next;
+            ranges.add(executor.submit(() -> inflate(start, end)));
+        }
+    }
+
+    /**
+     * Reads and inflates the members between the specified positions.
+     */
+    private byte[] inflate(long start, long end) throws IOException, DataFormatException {
+
+        ByteBuffer compressed = Gzip.read(channel, start, (int) (end - start));
+
+        // the sizes of the uncompressed members, from their trailers, add up to the size of the range
+        long uncompressedSize = 0;
+        for (int p = 0; p < compressed.limit(); p += blockSize(compressed, p)) {
+            uncompressedSize += compressed.getInt(p + blockSize(compressed, p) - 4) & 0xFFFFFFFFL;
+        }
+        if (uncompressedSize > Integer.MAX_VALUE - 8) {
+            throw new ZipException("gzip members too large at offset " + start);
+        }
+
+        byte[] uncompressed = new byte[(int) uncompressedSize];
+        Inflater inflater = new Inflater(true);
+        CRC32 crc = new CRC32();
+        try {
+            int output = 0;
+            for (int p = 0; p < compressed.limit(); ) {
+
+                int blockSize = blockSize(compressed, p);
+                int dataStart = p + Gzip.HEADER_SIZE + 2 + (compressed.getShort(p + Gzip.HEADER_SIZE) & 0xFFFF);
+                int dataEnd = p + blockSize - Gzip.TRAILER_SIZE;
+                int memberSize = compressed.getInt(dataEnd + 4);
+
+                inflater.reset();
+                inflater.setInput(compressed.slice(dataStart, dataEnd - dataStart));
+                int inflated = inflater.inflate(uncompressed, output, memberSize);
+                if (inflated != memberSize || !inflater.finished()) {
+                    throw new ZipException("corrupt gzip member at offset " + (start + p));
+                }
+
+                crc.reset();
+                crc.update(uncompressed, output, memberSize);
+                if ((int) crc.getValue() != compressed.getInt(dataEnd)) {
+                    throw new ZipException("CRC mismatch in gzip member at offset " + (start + p));
+                }
+
+                output += memberSize;
+                p += blockSize;
+            }
+        } finally {
+            inflater.end();
+        }
+        return uncompressed;
+    }
+
+    /**
+     * Returns the size of the member at the specified position of a range, whose header is known
+     * to hold it.
+     */
+    private static int blockSize(ByteBuffer range, int p) {
+
+        ByteBuffer header = range.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int extraLength = header.getShort(p + Gzip.HEADER_SIZE) & 0xFFFF;
+        for (int q = p + Gzip.HEADER_SIZE + 2; q + 4 <= p + Gzip.HEADER_SIZE + 2 + extraLength; ) {
+            int length = header.getShort(q + 2) & 0xFFFF;
+            if (header.get(q) == 'B' && header.get(q + 1) == 'C' && length == 2) {
+                return (header.getShort(q + 4) & 0xFFFF) + 1;
+            }
+            q += 4 + length;
+        }
+        throw new IllegalStateException("gzip member without a size");
+    }
+
+    /**
+     * Moves on to the next uncompressed range, unless the current one has bytes left.
+     *
+     * @return {@code false} at the end of the stream; {@code true} otherwise
+     */
+    private boolean fill() throws IOException {
+
+        while (position == current.length) {
+
+            submitRanges();
+            Future<byte[]> range = ranges.poll();
+            if (range == null) {
+                return false;
+            }
+
+            try {
+                current = range.get();
+                position = 0;
+            } catch (ExecutionException ex) {
+                throw ex.getCause() instanceof IOException cause ? cause : new IOException(ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        return fill() ? current[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+
+        int read = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, read);
+        position += read;
+        return read;
+    }
+
+    @Override
+    public void close() {
+
+        executor.shutdownNow();
+    }
+}
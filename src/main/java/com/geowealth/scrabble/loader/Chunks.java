@@ -0,0 +1,104 @@
+package com.geowealth.scrabble.loader;
+
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+import org.apache.tika.parser.txt.CharsetDetector;
+import org.apache.tika.parser.txt.CharsetMatch;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.BYTES_READ;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.LINES_READ;
+
+/**
+ * Helpers for loaders which split a dictionary into chunks of whole lines and process the
+ * chunks independently of each other.
+ */
+final class Chunks {
+
+    private Chunks() {
+    }
+
+    /**
+     * Detects the charset of a dictionary with Apache Tika.
+     *
+     * @param head    first bytes of the dictionary (up to {@value DictionaryLoader#BUFFER_SIZE_B})
+     * @param charset suggested dictionary charset
+     * @return detected charset; the suggested charset if detection fails
+     */
+    static Charset detectCharset(byte[] head, String charset) {
+
+        CharsetMatch match = new CharsetDetector(DictionaryLoader.BUFFER_SIZE_B)
+                .setDeclaredEncoding(charset)
+                .setText(head)
+                .detect();
+
+        return Charset.forName(match == null ? charset : match.getName());
+    }
+
+    /**
+     * Checks whether every {@code 0x0A} byte of a text in the specified charset is a newline,
+     * i.e. whether a text in the charset can be split into chunks at {@code 0x0A} bytes.
+     */
+    static boolean isNewlineDelimited(Charset charset) {
+
+        boolean singleByte = charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1;
+
+        return (singleByte || charset.equals(StandardCharsets.UTF_8))
+                && new String(new byte[]{'\n'}, charset).equals("\n");
+    }
+
+    /**
+     * Decodes and sanitizes a chunk made of whole lines.
+     *
+     * @param bytes   contents of the chunk
+     * @param charset charset of the chunk
+     * @return sanitized words in the chunk
+     */
+    static List<String> words(ByteBuffer bytes, Charset charset) throws CharacterCodingException {
+
+        ScrabbleMetrics.get().add(BYTES_READ, bytes.remaining());
+
+        // malformed input is replaced, as in the readers used by StreamDictionaryLoader
+        CharBuffer decoded = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(bytes);
+
+        char[] chars = decoded.array();
+        int limit = decoded.arrayOffset() + decoded.limit();
+        List<String> words = new ArrayList<>();
+        long lines = 0;
+
+        // lines are terminated by '\n', '\r' or "\r\n", as in BufferedReader.readLine()
+        for (int from = decoded.arrayOffset() + decoded.position(), to = from; from < limit; from = ++to) {
+
+            while (to < limit && chars[to] != '\n' && chars[to] != '\r') {
+                to++;
+            }
+
+            lines++;
+            String word = LineSanitizer.sanitize(chars, from, to);
+            if (word != null) {
+                // computing the hash code here caches it in the string, so that inserting the word
+                // into the dictionary later does not have to
+                word.hashCode();
+                words.add(word);
+            }
+
+            // a "\r\n" terminator ends a single line
+            if (to + 1 < limit && chars[to] == '\r' && chars[to + 1] == '\n') {
+                to++;
+            }
+        }
+
+        ScrabbleMetrics.get().add(LINES_READ, lines);
+        return words;
+    }
+}
@@ -0,0 +1,422 @@
+package com.geowealth.scrabble.loader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps local copies of dictionaries fetched over HTTP(S), so that a dictionary which has not
+ * changed on the server is not downloaded again.
+ * <p>
+ * Each dictionary is stored in a directory along with the {@code ETag} and {@code Last-Modified}
+ * headers it was served with. A dictionary is requested with a conditional {@code GET} request;
+ * a {@code 304 Not Modified} response means the cached copy is up-to-date, and any other successful
+ * response carries the dictionary, so a changed dictionary takes no extra round trip. A dictionary
+ * without either header is downloaded every time, but its copy is still kept for when that fails.
+ * <p>
+ * If the server accepts byte ranges, a large dictionary is downloaded in several ranges at once,
+ * each written straight to its place in the file: the first range is read from the response to the
+ * conditional request, and the others are requested with an {@code If-Range} header, so that a
+ * dictionary which changes during the download is downloaded again in a single request. The copy
+ * replaces the cached one only once it is complete.
+ * <p>
+ * Failing to revalidate a cached copy (e.g. when the server cannot be reached or responds with an
+ * error) is not an error; the cached copy is used.
+ */
+public final class DictionaryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryCache.class);
+
+    // size (in bytes) below which a dictionary is downloaded in a single request
+    private static final int DEFAULT_MIN_RANGE_SIZE_B = 4 * 1024 * 1024;
+
+    // number of ranges downloaded at once
+    private static final int DEFAULT_RANGES = 4;
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+    private record Validators(String etag, String lastModified) {
+
+        static Validators of(HttpHeaders headers) {
+            return new Validators(headers.firstValue(ETAG).orElse(null),
+                    headers.firstValue(LAST_MODIFIED).orElse(null));
+        }
+
+        boolean isEmpty() {
+            return etag == null && lastModified == null;
+        }
+
+        /**
+         * Returns the strong entity tag or, failing that, the last modification date, to be sent
+         * in an {@code If-Range} header.
+         */
+        Optional<String> ifRange() {
+            return etag != null && !etag.startsWith("W/") ? Optional.of(etag) : Optional.ofNullable(lastModified);
+        }
+    }
+
+    private final Path directory;
+    private final int minRangeSize;
+    private final int ranges;
+    private final HttpClient client;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param directory directory holding the cached dictionaries, created if necessary
+     */
+    public DictionaryCache(Path directory) {
+        this(directory, DEFAULT_MIN_RANGE_SIZE_B, DEFAULT_RANGES);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param directory    directory holding the cached dictionaries, created if necessary
+     * @param minRangeSize size (in bytes) below which a dictionary is downloaded in a single request
+     * @param ranges       maximum number of ranges downloaded at once
+     */
+    public DictionaryCache(Path directory, int minRangeSize, int ranges) {
+
+        if (minRangeSize < 1 || ranges < 1) {
+            throw new IllegalArgumentException("range size and number of ranges must be positive");
+        }
+        this.directory = directory;
+        this.minRangeSize = minRangeSize;
+        this.ranges = ranges;
+        this.client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+    }
+
+    /**
+     * Checks whether the specified {@link URI} can be cached.
+     *
+     * @param uri location of a dictionary
+     * @return {@code true} for HTTP(S) resources; {@code false} otherwise
+     */
+    public static boolean isCacheable(URI uri) {
+
+        return "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+    }
+
+    /**
+     * Returns an up-to-date local copy of a dictionary, downloading it only if it is not cached
+     * or has changed since it was cached.
+     *
+     * @param uri location of the dictionary
+     * @return path of the local copy
+     * @throws IOException if the dictionary is not cached and cannot be downloaded
+     */
+    public Path fetch(URI uri) throws IOException {
+
+        String name = name(uri);
+        Path path = directory.resolve(name + ".dict");
+        Path metadata = directory.resolve(name + ".properties");
+
+        // a copy without validators is downloaded again, but still used if that fails
+        boolean cached = Files.exists(path);
+        Optional<Validators> validators = cached ? readValidators(metadata) : Optional.empty();
+
+        HttpResponse<InputStream> response;
+        try {
+            response = send(conditionalGet(uri, validators), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException ex) {
+            if (cached) {
+                logger.warn("unable to revalidate {}, using the cached copy", uri, ex);
+                return path;
+            }
+            throw ex;
+        }
+
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            response.body().close();
+            if (status == 304 && validators.isPresent()) {
+                logger.debug("{} not modified, using the cached copy", uri);
+                return path;
+            }
+            if (cached) {
+                logger.warn("unable to revalidate {}: HTTP {}, using the cached copy", uri, status);
+                return path;
+            }
+            throw new IOException("unable to download " + uri + ": HTTP " + status);
+        }
+
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, name, ".tmp");
+
+        try {
+            Validators downloaded;
+            try {
+                downloaded = download(uri, response, tmp);
+            } catch (IOException ex) {
+                if (cached) {
+                    logger.warn("unable to download {}, using the cached copy", uri, ex);
+                    return path;
+                }
+                throw ex;
+            }
+
+            // the metadata is removed first, so that it never describes a different copy
+            Files.deleteIfExists(metadata);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (!downloaded.isEmpty()) {
+                writeValidators(metadata, downloaded);
+            }
+
+            logger.debug("{} downloaded to {}", uri, path);
+            return path;
+
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Returns the name of the files holding the cached copy of a dictionary.
+     */
+    private static String name(URI uri) {
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform implementation is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static HttpRequest conditionalGet(URI uri, Optional<Validators> cached) {
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri);
+        cached.ifPresent(validators -> {
+            if (validators.etag() != null) {
+                request.header("If-None-Match", validators.etag());
+            }
+            if (validators.lastModified() != null) {
+                request.header("If-Modified-Since", validators.lastModified());
+            }
+        });
+        return request.build();
+    }
+
+    /**
+     * Downloads a dictionary to the specified file from the successful response to the conditional
+     * request, in ranges if the response allows it.
+     *
+     * @return validators of the downloaded dictionary
+     */
+    private Validators download(URI uri, HttpResponse<InputStream> response, Path file) throws IOException {
+
+        Validators validators = Validators.of(response.headers());
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+
+        boolean ranged = response.statusCode() == 200 && size >= 2L * minRangeSize
+                && response.headers().allValues("Accept-Ranges").contains("bytes")
+                && validators.ifRange().isPresent();
+
+        try (InputStream is = response.body()) {
+            if (!ranged) {
+                try (OutputStream os = Files.newOutputStream(file)) {
+                    is.transferTo(os);
+                }
+                return validators;
+            }
+            if (downloadRanges(uri, validators, size, is, file)) {
+                return validators;
+            }
+        }
+        return downloadWhole(uri, file);
+    }
+
+    private Validators downloadWhole(URI uri, Path file) throws IOException {
+
+        HttpResponse<InputStream> response = send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+
+        try (InputStream is = response.body(); OutputStream os = Files.newOutputStream(file)) {
+            if (response.statusCode() != 200) {
+                throw new IOException("unable to download " + uri + ": HTTP " + response.statusCode());
+            }
+            is.transferTo(os);
+        }
+        return Validators.of(response.headers());
+    }
+
+    /**
+     * Downloads a dictionary of known size in ranges, at the same time. The first range is read from
+     * the body of the response to the conditional request, and the others are requested.
+     *
+     * @param body body of the response to the conditional request, holding the whole dictionary
+     * @return {@code true} if all ranges were downloaded; {@code false} if the server responded
+     * with the whole dictionary instead (e.g. because it changed since the conditional request)
+     */
+    private boolean downloadRanges(URI uri, Validators validators, long size, InputStream body, Path file)
+            throws IOException {
+
+        int count = (int) Math.min(ranges, size / minRangeSize);
+        long rangeSize = (size + count - 1) / count;
+
+        logger.debug("downloading {} in {} ranges", uri, count);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<Future<Boolean>> tasks = new ArrayList<>(count);
+            tasks.add(executor.submit(() -> {
+                writeRange(uri, body, 0, rangeSize - 1, channel);
+                return true;
+            }));
+            for (long start = rangeSize; start < size; start += rangeSize) {
+                long first = start;
+                long last = Math.min(start + rangeSize, size) - 1;
+                tasks.add(executor.submit(() -> downloadRange(uri, validators, first, last, size, channel)));
+            }
+
+            boolean complete = true;
+            for (Future<Boolean> task : tasks) {
+                complete &= task.get();
+            }
+            return complete;
+
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof IOException cause ? cause : new IOException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * Downloads the specified range of a dictionary and writes it at the same position of the file.
+     *
+     * @return {@code true} if the range was downloaded; {@code false} if the server responded
+     * with the whole dictionary instead
+     */
+    private boolean downloadRange(URI uri, Validators validators, long first, long last, long size,
+                                  FileChannel channel) throws IOException {
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Range", "bytes=" + first + "-" + last)
+                .header("If-Range", validators.ifRange().orElseThrow())
+                .build();
+
+        HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        try (InputStream is = response.body()) {
+
+            if (response.statusCode() != 206) {
+                logger.debug("range {}-{} of {} not served: HTTP {}", first, last, uri, response.statusCode());
+                return false;
+            }
+
+            Matcher matcher = CONTENT_RANGE.matcher(response.headers().firstValue("Content-Range").orElse(""));
+            if (!matcher.matches() || Long.parseLong(matcher.group(1)) != first
+                    || Long.parseLong(matcher.group(2)) != last || Long.parseLong(matcher.group(3)) != size) {
+                throw new IOException("unexpected range of " + uri + ": "
+                        + response.headers().firstValue("Content-Range").orElse("none"));
+            }
+
+            writeRange(uri, is, first, last, channel);
+            return true;
+        }
+    }
+
+    /**
+     * Writes the specified range of a dictionary, read from the start of a stream, at the same
+     * position of the file. Any bytes after the range are left in the stream.
+     */
+    private static void writeRange(URI uri, InputStream is, long first, long last, FileChannel channel)
+            throws IOException {
+
+        byte[] buffer = new byte[64 * 1024];
+        long position = first;
+        while (position <= last) {
+            int read = is.read(buffer, 0, (int) Math.min(buffer.length, last + 1 - position));
+            if (read < 0) {
+                throw new IOException("range " + first + "-" + last + " of " + uri + " ended at " + position);
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+        }
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+
+        try {
+            return client.send(request, handler);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static Optional<Validators> readValidators(Path metadata) {
+
+        if (!Files.exists(metadata)) {
+            return Optional.empty();
+        }
+
+        Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(metadata)) {
+            properties.load(is);
+        } catch (IOException ex) {
+            logger.warn("unable to read {}", metadata, ex);
+            return Optional.empty();
+        }
+
+        Validators validators = new Validators(properties.getProperty(ETAG), properties.getProperty(LAST_MODIFIED));
+        return validators.isEmpty() ? Optional.empty() : Optional.of(validators);
+    }
+
+    private static void writeValidators(Path metadata, Validators validators) {
+
+        Properties properties = new Properties();
+        if (validators.etag() != null) {
+            properties.setProperty(ETAG, validators.etag());
+        }
+        if (validators.lastModified() != null) {
+            properties.setProperty(LAST_MODIFIED, validators.lastModified());
+        }
+
+        try (OutputStream os = Files.newOutputStream(metadata)) {
+            properties.store(os, null);
+        } catch (IOException ex) {
+            // the dictionary is downloaded again next time
+            logger.warn("unable to write {}", metadata, ex);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.geowealth.scrabble.loader;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+
+/**
+ * An object that reads a dictionary with one word per line from a {@link URI}, sanitizes its
+ * lines and passes the resulting words to a {@link WordBatchConsumer}.
+ * <p>
+ * Each line undergoes the same sanitization process regardless of the loader used: leading
+ * and trailing whitespace is removed, and lines which are blank or contain any character
+ * outside the Basic Multilingual Plane are skipped. Duplicate words are passed on as they
+ * are found.
+ */
+public interface DictionaryLoader {
+
+    // size of the buffer (in bytes) used to read the dictionary and detect its character encoding
+    int BUFFER_SIZE_B = 1024 * 1024;
+
+    /**
+     * Loads the dictionary at the specified {@link URI}.
+     *
+     * @param uri      location of the dictionary
+     * @param charset  suggested dictionary charset, used as a hint when detecting the encoding
+     * @param consumer receives the sanitized words; it is never called concurrently
+     * @return detected dictionary charset
+     * @throws Exception if the dictionary cannot be read
+     */
+    Charset load(URI uri, String charset, WordBatchConsumer consumer) throws Exception;
+
+    /**
+     * Returns the loader best suited to the specified {@link URI}: local files are memory-mapped
+     * and processed in parallel, HTTP resources are downloaded and processed in a pipeline, and
+     * any other resource is read as a stream.
+     *
+     * @param uri location of the dictionary
+     * @return dictionary loader
+     */
+    static DictionaryLoader forUri(URI uri) {
+
+        if ("file".equalsIgnoreCase(uri.getScheme()) && uri.getAuthority() == null) {
+            return new MappedDictionaryLoader();
+        }
+        if ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme())) {
+            return new PipelinedDictionaryLoader();
+        }
+        return new StreamDictionaryLoader();
+    }
+}
@@ -0,0 +1,121 @@
+package com.geowealth.scrabble.loader;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Detects and reads gzip-compressed dictionaries (RFC 1952).
+ * <p>
+ * A gzip file is a sequence of members, each holding a header, deflate-compressed data and a
+ * trailer with the CRC-32 and the size of the uncompressed data. Where a member ends is only
+ * known once its data has been inflated, unless the member is part of a blocked gzip file (BGZF,
+ * as written by {@code bgzip}), whose header holds the size of the member in an extra field.
+ * The members of a blocked file can thus be located without inflating them, and inflated in
+ * parallel (see {@link BlockedGzipInputStream}).
+ */
+final class Gzip {
+
+    private static final int ID1 = 0x1F;
+    private static final int ID2 = 0x8B;
+    private static final int CM_DEFLATE = 8;
+
+    private static final int FEXTRA = 4;
+
+    // size of the fixed part of a member header, and of its trailer
+    static final int HEADER_SIZE = 10;
+    static final int TRAILER_SIZE = 8;
+
+    // size of the stream buffer of a GZIPInputStream
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Gzip() {
+    }
+
+    /**
+     * Checks whether the specified bytes start with the magic bytes of a gzip member.
+     *
+     * @param head first bytes of a file or stream
+     * @return {@code true} if the bytes start a gzip member; {@code false} otherwise
+     */
+    static boolean isGzip(byte[] head) {
+
+        return head.length >= 2 && (head[0] & 0xFF) == ID1 && (head[1] & 0xFF) == ID2;
+    }
+
+    /**
+     * Returns a stream which decompresses the specified stream if it is gzip-compressed, as detected
+     * from its magic bytes, or which reads it unchanged otherwise. Each member is inflated in turn.
+     *
+     * @param is stream of a dictionary
+     * @return stream of the uncompressed dictionary
+     * @throws IOException if the stream cannot be read
+     */
+    static InputStream decompress(InputStream is) throws IOException {
+
+        InputStream buffered = is.markSupported() ? is : new BufferedInputStream(is, BUFFER_SIZE);
+
+        buffered.mark(2);
+        byte[] head = buffered.readNBytes(2);
+        buffered.reset();
+
+        return isGzip(head) ? new GZIPInputStream(buffered, BUFFER_SIZE) : buffered;
+    }
+
+    /**
+     * Returns the size of the blocked gzip member which starts at the specified position, as held
+     * in the {@code BC} subfield of its extra field.
+     *
+     * @param channel  gzip file
+     * @param position position of the member
+     * @return size of the member (in bytes), or -1 if the member holds no size
+     * @throws ZipException if there is no gzip member at the position
+     * @throws IOException  if the file cannot be read
+     */
+    static long blockSize(FileChannel channel, long position) throws IOException {
+
+        ByteBuffer header = read(channel, position, HEADER_SIZE + 2);
+        if ((header.get(0) & 0xFF) != ID1 || (header.get(1) & 0xFF) != ID2 || header.get(2) != CM_DEFLATE) {
+            throw new ZipException("no gzip member at offset " + position);
+        }
+        if ((header.get(3) & FEXTRA) == 0) {
+            return -1;
+        }
+
+        int extraLength = header.getShort(HEADER_SIZE) & 0xFFFF;
+        ByteBuffer extra = read(channel, position + HEADER_SIZE + 2, extraLength);
+
+        // the extra field is a list of subfields, each with a 2-byte id and a 2-byte length
+        for (int p = 0; p + 4 <= extraLength; ) {
+            int length = extra.getShort(p + 2) & 0xFFFF;
+            if (extra.get(p) == 'B' && extra.get(p + 1) == 'C' && length == 2 && p + 6 <= extraLength) {
+                return (extra.getShort(p + 4) & 0xFFFF) + 1;
+            }
+            p += 4 + length;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the specified number of bytes at the specified position.
+     *
+     * @return little-endian buffer holding the bytes
+     * @throws EOFException if the file ends before
+     */
+    static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("gzip file ends at offset " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,88 @@
+package com.geowealth.scrabble.loader;
+
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.BLANK_LINES;
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.LINES_OUTSIDE_BMP;
+
+/**
+ * Sanitizes dictionary lines before they are accepted as words. Rejected lines are counted
+ * in the {@link ScrabbleMetrics}.
+ */
+final class LineSanitizer {
+
+    private LineSanitizer() {
+    }
+
+    /**
+     * Removes leading and trailing whitespace from the specified line (as {@link String#trim()}
+     * does) and checks whether the result is a valid word.
+     *
+     * @param line line to sanitize
+     * @return sanitized word; {@code null} if the line is blank or contains any character
+     * outside the Basic Multilingual Plane
+     */
+    static String sanitize(String line) {
+
+        String trimmed = line.trim();
+
+        if (trimmed.isEmpty()) {
+            ScrabbleMetrics.get().increment(BLANK_LINES);
+            return null;
+        }
+        if (!allCharsInBMP(trimmed)) {
+            ScrabbleMetrics.get().increment(LINES_OUTSIDE_BMP);
+            return null;
+        }
+        return trimmed;
+    }
+
+    /**
+     * Sanitizes the line held in the specified range of a {@code char} array, creating a
+     * {@link String} only for valid words.
+     *
+     * @param chars array holding the line
+     * @param from  index of the first character of the line
+     * @param to    index after the last character of the line
+     * @return sanitized word; {@code null} if the line is blank or contains any character
+     * outside the Basic Multilingual Plane
+     */
+    static String sanitize(char[] chars, int from, int to) {
+
+        while (from < to && chars[from] <= ' ') {
+            from++;
+        }
+        while (to > from && chars[to - 1] <= ' ') {
+            to--;
+        }
+
+        if (from == to) {
+            ScrabbleMetrics.get().increment(BLANK_LINES);
+            return null;
+        }
+        for (int c = from; c < to; c++) {
+            if (Character.isSurrogate(chars[c])) {
+                ScrabbleMetrics.get().increment(LINES_OUTSIDE_BMP);
+                return null;
+            }
+        }
+        return new String(chars, from, to - from);
+    }
+
+    /**
+     * Checks whether all characters in the supplied string are in the Basic Multilingual Plane.
+     *
+     * @param str string to check
+     * @return {@code true} if all characters are in the Basic Multilingual Plane; {@code false}
+     * otherwise
+     */
+    private static boolean allCharsInBMP(String str) {
+
+        for (int c = 0; c < str.length(); c++) {
+            if (Character.isSurrogate(str.charAt(c))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
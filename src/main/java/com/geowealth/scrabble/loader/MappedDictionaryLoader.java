@@ -0,0 +1,194 @@
+package com.geowealth.scrabble.loader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A {@link DictionaryLoader} which memory-maps a dictionary on the local file system and
+ * processes it in parallel.
+ * <p>
+ * The file is split into chunks which end right after a newline. Each chunk is mapped, decoded
+ * and sanitized by a separate thread. The chunks are processed in waves of as many chunks as
+ * the configured parallelism, and the words of each wave are passed to the consumer together.
+ * <p>
+ * The encoding of the dictionary is detected with Apache Tika from the first
+ * {@value DictionaryLoader#BUFFER_SIZE_B} bytes of the file. Splitting at newline bytes is
+ * only safe for UTF-8 and single-byte encodings which encode a newline as {@code 0x0A}; files
+ * in any other encoding (e.g. UTF-16) are read by a {@link StreamDictionaryLoader} instead.
+ * <p>
+ * Gzip-compressed files cannot be split without inflating them, and are decompressed into a
+ * {@link PipelinedDictionaryLoader} instead. The members of a blocked gzip file (as written by
+ * {@code bgzip}) are located from their headers and inflated in parallel; any other gzip file is
+ * inflated on a single thread.
+ */
+public class MappedDictionaryLoader implements DictionaryLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedDictionaryLoader.class);
+
+    // size (in bytes) of a chunk, before it is extended to the end of the line
+    private static final int DEFAULT_CHUNK_SIZE_B = 8 * 1024 * 1024;
+
+    // size (in bytes) of the buffer used to look for the end of a chunk
+    private static final int SCAN_BUFFER_SIZE_B = 64 * 1024;
+
+    // size (in compressed bytes) of the blocked gzip members inflated by a single thread
+    private static final int COMPRESSED_RANGE_SIZE_B = 1024 * 1024;
+
+    private final int chunkSize;
+    private final int parallelism;
+
+    public MappedDictionaryLoader() {
+        this(DEFAULT_CHUNK_SIZE_B, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new loader.
+     *
+     * @param chunkSize   size (in bytes) of a chunk, before it is extended to the end of the line
+     * @param parallelism number of chunks processed in parallel
+     */
+    public MappedDictionaryLoader(int chunkSize, int parallelism) {
+
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("chunk size and parallelism must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    private record Chunk(long start, long end) {
+    }
+
+    @Override
+    public Charset load(URI uri, String charset, WordBatchConsumer consumer) throws Exception {
+
+        try (FileChannel channel = FileChannel.open(Path.of(uri), StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            if (size == 0) {
+                return Charset.forName(charset);
+            }
+
+            if (Gzip.isGzip(Gzip.read(channel, 0, (int) Math.min(size, 2)).array())) {
+                return loadCompressed(uri, channel, charset, consumer);
+            }
+
+            Charset detected = detectCharset(channel, charset);
+            if (!Chunks.isNewlineDelimited(detected)) {
+                logger.debug("{} cannot be split at newline bytes, reading it as a stream", detected);
+                return new StreamDictionaryLoader().load(uri, charset, consumer);
+            }
+
+            List<Chunk> wave = new ArrayList<>(parallelism);
+
+            for (long start = 0; start < size; ) {
+
+                long end = chunkEnd(channel, start, size);
+                wave.add(new Chunk(start, end));
+                start = end;
+
+                if (wave.size() == parallelism || start == size) {
+                    consumer.accept(process(channel, wave, detected));
+                    wave.clear();
+                }
+            }
+
+            return detected;
+        }
+    }
+
+    private Charset loadCompressed(URI uri, FileChannel channel, String charset, WordBatchConsumer consumer)
+            throws Exception {
+
+        InputStream is;
+        if (BlockedGzipInputStream.isBlocked(channel)) {
+            logger.debug("inflating blocked gzip members of {} in parallel", uri);
+            is = new BlockedGzipInputStream(channel, COMPRESSED_RANGE_SIZE_B, parallelism);
+        } else {
+            logger.debug("inflating {} on a single thread", uri);
+            is = new GZIPInputStream(Channels.newInputStream(channel), SCAN_BUFFER_SIZE_B);
+        }
+
+        try (is) {
+            return new PipelinedDictionaryLoader().load(is, charset, consumer);
+        }
+    }
+
+    private static Charset detectCharset(FileChannel channel, String charset) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), BUFFER_SIZE_B));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // keep reading until the buffer is full
+        }
+
+        return Chunks.detectCharset(buffer.array(), charset);
+    }
+
+    /**
+     * Returns the end of the chunk which begins at the specified position: the position
+     * right after the first newline found at or after {@code start + chunkSize - 1}.
+     */
+    private long chunkEnd(FileChannel channel, long start, long size) throws IOException {
+
+        long position = start + chunkSize - 1;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE_B);
+
+        while (position < size) {
+
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += Math.max(read, 0);
+        }
+        return size;
+    }
+
+    private static List<List<String>> process(FileChannel channel, List<Chunk> chunks, Charset charset)
+            throws IOException {
+
+        try {
+            return chunks.parallelStream().map(chunk -> {
+                try {
+                    return words(channel, chunk, charset);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }).toList();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Maps, decodes and sanitizes a single chunk.
+     *
+     * @return sanitized words in the chunk
+     */
+    private static List<String> words(FileChannel channel, Chunk chunk, Charset charset) throws IOException {
+
+        if (chunk.end() - chunk.start() > Integer.MAX_VALUE) {
+            throw new IOException("line too long at offset " + chunk.start());
+        }
+
+        return Chunks.words(channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(),
+                chunk.end() - chunk.start()), charset);
+    }
+}
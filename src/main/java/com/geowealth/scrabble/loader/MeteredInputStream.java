@@ -0,0 +1,48 @@
+package com.geowealth.scrabble.loader;
+
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.BYTES_READ;
+
+/**
+ * An input stream which counts the bytes read from the underlying stream in the
+ * {@link ScrabbleMetrics}.
+ */
+final class MeteredInputStream extends FilterInputStream {
+
+    MeteredInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        int b = super.read();
+        if (b >= 0) {
+            ScrabbleMetrics.get().increment(BYTES_READ);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            ScrabbleMetrics.get().add(BYTES_READ, read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+
+        long skipped = super.skip(n);
+        ScrabbleMetrics.get().add(BYTES_READ, skipped);
+        return skipped;
+    }
+}
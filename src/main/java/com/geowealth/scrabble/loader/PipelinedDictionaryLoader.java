@@ -0,0 +1,211 @@
+package com.geowealth.scrabble.loader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link DictionaryLoader} which overlaps reading a remote dictionary with processing it.
+ * <p>
+ * Loading is split into three stages connected by bounded queues, so that a slow stage
+ * holds back the stages before it instead of letting data pile up in memory:
+ * <ol>
+ *     <li>a reader thread reads the stream in blocks of whole lines;</li>
+ *     <li>a number of worker threads decode and sanitize the blocks;</li>
+ *     <li>the calling thread passes the resulting batches of words to the consumer.</li>
+ * </ol>
+ * As a result, loading takes about as long as the slower of downloading and processing the
+ * dictionary, rather than their sum.
+ * <p>
+ * The encoding of the dictionary is detected with Apache Tika from the first
+ * {@value DictionaryLoader#BUFFER_SIZE_B} bytes of the stream, after decompressing it if it is
+ * gzip-compressed. Splitting into blocks at newline
+ * bytes is only safe for UTF-8 and single-byte encodings which encode a newline as {@code 0x0A};
+ * dictionaries in any other encoding (e.g. UTF-16) are read on the calling thread instead.
+ */
+public class PipelinedDictionaryLoader implements DictionaryLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedDictionaryLoader.class);
+
+    // size (in bytes) of a block, before it is cut at the last newline
+    private static final int DEFAULT_BLOCK_SIZE_B = 1024 * 1024;
+
+    // number of blocks or batches that each queue can hold
+    private static final int QUEUE_CAPACITY = 16;
+
+    // marks the end of the blocks read
+    private static final ByteBuffer END_OF_BLOCKS = ByteBuffer.allocate(0);
+
+    // marks the end of the batches produced by a worker
+    private static final List<String> END_OF_BATCHES = List.of();
+
+    private final int blockSize;
+    private final int workers;
+
+    public PipelinedDictionaryLoader() {
+        this(DEFAULT_BLOCK_SIZE_B, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Creates a new loader.
+     *
+     * @param blockSize size (in bytes) of a block, before it is cut at the last newline
+     * @param workers   number of threads which decode and sanitize blocks
+     */
+    public PipelinedDictionaryLoader(int blockSize, int workers) {
+
+        if (blockSize < 1 || workers < 1) {
+            throw new IllegalArgumentException("block size and number of workers must be positive");
+        }
+        this.blockSize = blockSize;
+        this.workers = workers;
+    }
+
+    @Override
+    public Charset load(URI uri, String charset, WordBatchConsumer consumer) throws Exception {
+
+        try (InputStream is = Gzip.decompress(uri.toURL().openStream())) {
+            return load(is, charset, consumer);
+        }
+    }
+
+    /**
+     * Loads a dictionary from the specified stream, which is left open.
+     *
+     * @param is       stream of the uncompressed dictionary
+     * @param charset  expected charset of the dictionary
+     * @param consumer receives the sanitized words in batches
+     * @return charset used to decode the dictionary
+     */
+    Charset load(InputStream is, String charset, WordBatchConsumer consumer) throws Exception {
+
+        byte[] head = is.readNBytes(BUFFER_SIZE_B);
+        Charset detected = Chunks.detectCharset(head, charset);
+
+        if (Chunks.isNewlineDelimited(detected)) {
+            pipeline(is, head, detected, consumer);
+        } else {
+            logger.debug("{} cannot be split at newline bytes, reading it on a single thread", detected);
+            StreamDictionaryLoader.readLines(new BufferedReader(new InputStreamReader(new MeteredInputStream(
+                    new SequenceInputStream(new ByteArrayInputStream(head), is)), detected)), consumer);
+        }
+
+        return detected;
+    }
+
+    private void pipeline(InputStream is, byte[] head, Charset charset, WordBatchConsumer consumer)
+            throws Exception {
+
+        BlockingQueue<ByteBuffer> blocks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<List<String>> batches = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 1,
+                Thread.ofPlatform().name("dictionary-loader-", 0).daemon().factory());
+
+        try {
+            Future<?> reader = executor.submit(() -> {
+                try {
+                    readBlocks(is, head, blocks);
+                } finally {
+                    for (int i = 0; i < workers; i++) {
+                        blocks.put(END_OF_BLOCKS);
+                    }
+                }
+                return null;
+            });
+
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                tasks.add(executor.submit(() -> {
+                    try {
+                        for (ByteBuffer block = blocks.take(); block != END_OF_BLOCKS; block = blocks.take()) {
+                            batches.put(Chunks.words(block, charset));
+                        }
+                    } finally {
+                        batches.put(END_OF_BATCHES);
+                    }
+                    return null;
+                }));
+            }
+
+            // a worker which fails stops taking blocks, so keep consuming batches until every
+            // worker is done and only then check whether any stage failed
+            for (int running = workers; running > 0; ) {
+                List<String> batch = batches.take();
+                if (batch == END_OF_BATCHES) {
+                    running--;
+                } else {
+                    consumer.accept(List.of(batch));
+                }
+            }
+
+            // the workers are checked first, as the reader may be blocked if a worker failed
+            tasks.add(reader);
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException ex) {
+                    throw ex.getCause() instanceof Exception cause ? cause : ex;
+                }
+            }
+
+        } finally {
+            // unblocks the reader if the workers failed
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the stream in blocks which end right after a newline (except for the last block),
+     * starting with the bytes already read for charset detection.
+     */
+    private void readBlocks(InputStream is, byte[] head, BlockingQueue<ByteBuffer> blocks) throws Exception {
+
+        byte[] pending = head;
+
+        while (true) {
+
+            byte[] block = Arrays.copyOf(pending, pending.length + blockSize);
+            int read = is.readNBytes(block, pending.length, blockSize);
+            int length = pending.length + read;
+
+            if (read < blockSize) {
+                // end of stream
+                if (length > 0) {
+                    blocks.put(ByteBuffer.wrap(block, 0, length));
+                }
+                return;
+            }
+
+            int end = length;
+            while (end > 0 && block[end - 1] != '\n') {
+                end--;
+            }
+
+            if (end == 0) {
+                // no newline in the block yet, keep reading the line
+                pending = block;
+            } else {
+                blocks.put(ByteBuffer.wrap(block, 0, end));
+                pending = Arrays.copyOfRange(block, end, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.geowealth.scrabble.loader;
+
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+import org.apache.tika.parser.txt.CharsetDetector;
+import org.apache.tika.parser.txt.CharsetMatch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.geowealth.scrabble.metrics.ScrabbleMetrics.Counter.LINES_READ;
+
+/**
+ * A {@link DictionaryLoader} which reads a dictionary from the stream of a {@link java.net.URL URL}
+ * on a single thread. It works with any resource (e.g. on the local file system or on the web).
+ * <p>
+ * The encoding of the dictionary is detected with Apache Tika from the first
+ * {@value DictionaryLoader#BUFFER_SIZE_B} bytes of the stream, after decompressing it if it is
+ * gzip-compressed.
+ */
+public class StreamDictionaryLoader implements DictionaryLoader {
+
+    // number of words passed to the consumer at once
+    private static final int BATCH_SIZE = 64 * 1024;
+
+    @Override
+    public Charset load(URI uri, String charset, WordBatchConsumer consumer) throws Exception {
+
+        // wrap the original stream in a buffered stream as the original may not support mark and reset
+        try (InputStream is = new BufferedInputStream(new MeteredInputStream(
+                Gzip.decompress(uri.toURL().openStream())), BUFFER_SIZE_B)) {
+
+            // used to automatically detect character encoding
+            CharsetMatch match = new CharsetDetector(BUFFER_SIZE_B)
+                    .setDeclaredEncoding(charset)
+                    .setText(is)
+                    .detect();
+
+            if (match == null) {
+                throw new IOException("unable to detect the dictionary charset");
+            }
+
+            try (BufferedReader br = new BufferedReader(match.getReader())) {
+                readLines(br, consumer);
+            }
+
+            return Charset.forName(match.getName());
+        }
+    }
+
+    /**
+     * Reads and sanitizes the lines of a dictionary, passing the words to the consumer in batches.
+     *
+     * @param br       reader of the dictionary
+     * @param consumer receives the sanitized words
+     */
+    static void readLines(BufferedReader br, WordBatchConsumer consumer) throws IOException {
+
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        long lines = 0;
+
+        for (String line = br.readLine(); line != null; line = br.readLine()) {
+
+            lines++;
+            String word = LineSanitizer.sanitize(line);
+
+            if (word != null) {
+                batch.add(word);
+                if (batch.size() == BATCH_SIZE) {
+                    consumer.accept(List.of(batch));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+        }
+
+        ScrabbleMetrics.get().add(LINES_READ, lines);
+
+        if (!batch.isEmpty()) {
+            consumer.accept(List.of(batch));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.geowealth.scrabble.loader;
+
+import java.util.List;
+
+/**
+ * Receives the sanitized words of a dictionary from a {@link DictionaryLoader}. The words are
+ * passed in batches, so that a consumer can process the batches of a single call in parallel.
+ */
+@FunctionalInterface
+public interface WordBatchConsumer {
+
+    void accept(List<List<String>> batches);
+}
@@ -3,13 +3,37 @@ package com.geowealth.scrabble.main;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.ParameterException;
 import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.cli.GenerateArgs;
 import com.geowealth.scrabble.exceptions.ScrabbleLoadException;
 import com.geowealth.scrabble.exceptions.ScrabbleMatchException;
+import com.geowealth.scrabble.generator.DictionaryGenerator;
+import com.geowealth.scrabble.impl.BottomUpScrabbler;
+import com.geowealth.scrabble.impl.DictionaryWatcher;
+import com.geowealth.scrabble.impl.FingerprintScrabbler;
 import com.geowealth.scrabble.impl.ParallelScrabbler;
+import com.geowealth.scrabble.impl.Scrabbler;
 import com.geowealth.scrabble.impl.SequentialScrabbler;
+import com.geowealth.scrabble.impl.TrieScrabbler;
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+import com.geowealth.scrabble.server.ScrabbleServer;
+import com.geowealth.scrabble.shard.ShardCoordinator;
+import com.geowealth.scrabble.shard.ShardWorker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.JMException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class Scrabble {
@@ -18,6 +42,11 @@ public class Scrabble {
 
     public static void main(String[] argv) {
 
+        if (argv.length > 0 && "generate".equals(argv[0])) {
+            generate(Arrays.copyOfRange(argv, 1, argv.length));
+            return;
+        }
+
         Args args = new Args();
         var builder = JCommander.newBuilder().addObject(args).build();
         builder.setProgramName("COMMAND");
@@ -30,30 +59,141 @@ public class Scrabble {
             System.exit(1);
         }
 
+        exposeMetrics(args);
+
+        if (args.getCoordinatorPort() != null) {
+
+            // a worker process started by a coordinator (see -sh)
+            try {
+                ShardWorker.run(scrabbler(args), args.getCoordinatorPort());
+            } catch (Exception ex) {
+                logger.error("error while matching shard", ex);
+                System.exit(1);
+            }
+
+        } else if (args.getShards() != null) {
+
+            try {
+                coordinate(args, argv);
+            } catch (Exception ex) {
+                logger.error("error while matching words", ex);
+                System.exit(1);
+            }
+
+        } else if (args.getServerPort() != null) {
+
+            try {
+                serve(args);
+            } catch (Exception ex) {
+                logger.error("error while starting server", ex);
+                System.exit(1);
+            }
+
+        } else {
+
+            try {
+                matchWords(args);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (Exception ex) {
+                logger.error("error while matching words", ex);
+            }
+        }
+    }
+
+    private static void generate(String[] argv) {
+
+        GenerateArgs args = new GenerateArgs();
+        var builder = JCommander.newBuilder().addObject(args).build();
+        builder.setProgramName("COMMAND generate");
+
         try {
-            matchWords(args);
-        } catch (Exception ex) {
-            logger.error("error while matching words", ex);
+            builder.parse(argv);
+            var summary = new DictionaryGenerator(args).generate(Path.of(args.getOutput()));
+            logger.info("lines written: {}, reducible candidates: {}, irreducible candidates: {}",
+                    summary.lines(), summary.reducibleCandidates(), summary.irreducibleCandidates());
+        } catch (ParameterException | IllegalArgumentException ex) {
+            System.out.println(ex.getMessage());
+            builder.usage();
+            System.exit(1);
+        } catch (IOException ex) {
+            logger.error("error while generating dictionary", ex);
+            System.exit(1);
         }
     }
 
-    private static void matchWords(Args args) throws ScrabbleLoadException, ScrabbleMatchException {
+    /**
+     * Registers the metrics with JMX and, if requested, writes them to a file at exit.
+     */
+    private static void exposeMetrics(Args args) {
+
+        try {
+            ScrabbleMetrics.get().register();
+        } catch (JMException ex) {
+            logger.warn("unable to register metrics with JMX", ex);
+        }
+
+        if (args.getMetricsFile() != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    Files.writeString(Path.of(args.getMetricsFile()), ScrabbleMetrics.get().toJson());
+                } catch (IOException ex) {
+                    logger.error("error while writing metrics", ex);
+                }
+            }));
+        }
+    }
 
-        Set<String> matchingWords;
+    private static Scrabbler scrabbler(Args args) throws ScrabbleLoadException {
 
         if (args.getSequential()) {
 
-            matchingWords = new SequentialScrabbler(args).findMatchingWords();
+            return new SequentialScrabbler(args);
 
         } else if (args.getParallel()) {
 
-            matchingWords = new ParallelScrabbler(args).findMatchingWords();
+            return new ParallelScrabbler(args);
+
+        } else if (args.getBottomUp()) {
+
+            return new BottomUpScrabbler(args);
+
+        } else if (args.getFingerprint()) {
+
+            return new FingerprintScrabbler(args);
+
+        } else if (args.getTrieWalk()) {
+
+            return new TrieScrabbler(args);
 
         } else {
 
             // this code should not be reachable under normal circumstances
             throw new IllegalStateException();
         }
+    }
+
+    private static void serve(Args args) throws ScrabbleLoadException, ScrabbleMatchException, IOException {
+
+        Map<String, Scrabbler> scrabblers = new LinkedHashMap<>();
+        scrabblers.put(args.getDictionaryUrl(), scrabbler(args));
+        for (String url : args.getAdditionalDictionaryUrls()) {
+            scrabblers.putIfAbsent(url, scrabbler(args.withDictionaryUrl(url)));
+        }
+
+        // the server threads keep running after this method returns
+        var server = new ScrabbleServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), args.getServerPort()),
+                scrabblers);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+    }
+
+    private static void coordinate(Args args, String[] argv) throws ScrabbleMatchException {
+
+        var coordinator = new ShardCoordinator(args.getShards(), args.getShardAttempts(),
+                ShardCoordinator.javaLauncher(Scrabble.class, List.of(argv)));
+
+        Set<String> matchingWords = coordinator.findMatchingWords();
 
         logger.info("number of matches: {}", matchingWords.size());
         if (args.getLogMatching()) {
@@ -61,4 +201,87 @@ public class Scrabble {
         }
     }
 
-}
\ No newline at end of file
+    private static void matchWords(Args args) throws ScrabbleLoadException, ScrabbleMatchException,
+            IOException, URISyntaxException, InterruptedException {
+
+        Scrabbler scrabbler = scrabbler(args);
+
+        if (args.getWordLengths().size() > 1) {
+
+            var matchingWords = scrabbler.findMatchingWordsByLength(args.getWordLengths());
+
+            matchingWords.forEach((length, words) -> {
+                logger.info("number of matches with length {}: {}", length, words.size());
+                if (args.getLogMatching()) {
+                    words.forEach(word -> logger.info("match: {}", word));
+                }
+            });
+
+        } else if (args.getCountPaths()) {
+
+            var counts = scrabbler.countReductionPaths();
+
+            logger.info("number of matches: {}", counts.size());
+            counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, BigInteger>comparingByValue().reversed())
+                    .forEach(entry -> {
+                        logger.info("match: {} ({} paths)", entry.getKey(), entry.getValue());
+                        if (args.getEnumeratePaths() != null) {
+                            scrabbler.findReductionPaths(entry.getKey(), args.getEnumeratePaths())
+                                    .forEach(path -> logger.info("  path: {}", String.join(" -> ", path)));
+                        }
+                    });
+
+        } else if (args.getLogChains()) {
+
+            var chains = scrabbler.findMatchingWordChains();
+
+            logger.info("number of matches: {}", chains.size());
+            chains.values().forEach(chain -> logger.info("match: {}", String.join(" -> ", chain)));
+
+        } else {
+
+            Set<String> matchingWords = scrabbler.findMatchingWords();
+
+            logger.info("number of matches: {}", matchingWords.size());
+            if (args.getLogMatching()) {
+                matchingWords.forEach(word -> logger.info("match: {}", word));
+            }
+        }
+
+        if (args.getBloomFilter() != null) {
+            var metrics = ScrabbleMetrics.get();
+            logger.info("bloom filter: rejected {} of {} lookups ({}), false positive rate: {}",
+                    metrics.getFilterRejections(), metrics.getFilterProbes(),
+                    String.format("%.2f%%", 100 * metrics.getFilterRejectionRate()),
+                    String.format("%.4f%%", 100 * metrics.getFilterFalsePositiveRate()));
+        }
+
+        if (args.getWatchDictionary()) {
+            watch(scrabbler, args);
+        }
+    }
+
+    private static void watch(Scrabbler scrabbler, Args args) throws IOException, URISyntaxException,
+            InterruptedException {
+
+        URI uri = new URI(args.getDictionaryUrl());
+        if (!"file".equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("only local dictionaries can be watched: " + uri);
+        }
+
+        int maxWordLength = args.getDiscardLongerWords() ? args.getWordLengths().last() : Integer.MAX_VALUE;
+
+        try (var watcher = new DictionaryWatcher(scrabbler, Path.of(uri), args.getDictionaryCharset(),
+                args.getOneCharWords(), maxWordLength, change -> {
+            logger.info("matches added: {}, matches removed: {}", change.added().size(), change.removed().size());
+            if (args.getLogMatching()) {
+                change.added().forEach(word -> logger.info("+match: {}", word));
+                change.removed().forEach(word -> logger.info("-match: {}", word));
+            }
+        })) {
+            watcher.run();
+        }
+    }
+
+}
@@ -0,0 +1,341 @@
+package com.geowealth.scrabble.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Process-wide counters of the work done while loading dictionaries and finding matching
+ * words. The counters are {@link LongAdder striped}, so updating them from many threads at
+ * once costs a few nanoseconds and they can be left on in production.
+ * <p>
+ * The metrics are exposed through JMX once {@link #register() registered}, and can be dumped
+ * as JSON (see {@link #toJson()}).
+ */
+public final class ScrabbleMetrics implements ScrabbleMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.geowealth.scrabble:type=ScrabbleMetrics";
+
+    /**
+     * A counter of a single kind of event.
+     */
+    public enum Counter {
+
+        BYTES_READ("bytesRead"),
+        LINES_READ("linesRead"),
+        BLANK_LINES("blankLines"),
+        LINES_OUTSIDE_BMP("linesOutsideBmp"),
+        WORDS_LOADED("wordsLoaded"),
+        DUPLICATE_WORDS("duplicateWords"),
+        DISCARDED_WORDS("discardedWords"),
+        CANDIDATE_WORDS("candidateWords"),
+        PRUNED_CANDIDATES("prunedCandidates"),
+        MATCHING_WORDS("matchingWords"),
+        BACKTRACKS("backtracks"),
+        REDUCIBLE_LOOKUPS("reducibleLookups"),
+        REDUCIBLE_HITS("reducibleHits"),
+        FILTER_PROBES("filterProbes"),
+        FILTER_REJECTIONS("filterRejections"),
+        FILTER_FALSE_POSITIVES("filterFalsePositives");
+
+        private final String jsonName;
+
+        Counter(String jsonName) {
+            this.jsonName = jsonName;
+        }
+    }
+
+    // deepest lookup counted separately; deeper lookups (with words longer than 50 chars) are counted with it
+    private static final int MAX_DEPTH = 50;
+
+    private static final ScrabbleMetrics INSTANCE = new ScrabbleMetrics();
+
+    // runs of a phase taking 2^(HISTOGRAM_BUCKETS - 2) milliseconds or more are counted in the last bucket
+    private static final int HISTOGRAM_BUCKETS = 24;
+
+    private record Phase(LongAdder count, LongAdder totalNanos, LongAccumulator maxNanos, LongAdder[] histogram) {
+
+        Phase() {
+            this(new LongAdder(), new LongAdder(), new LongAccumulator(Math::max, 0), adders(HISTOGRAM_BUCKETS));
+        }
+    }
+
+    private final LongAdder[] counters = adders(Counter.values().length);
+    private final LongAdder[] lookupHits = adders(MAX_DEPTH + 1);
+    private final LongAdder[] lookupMisses = adders(MAX_DEPTH + 1);
+    private final Map<String, Phase> phases = new ConcurrentHashMap<>();
+
+    private ScrabbleMetrics() {
+    }
+
+    /**
+     * Returns the metrics of this process.
+     */
+    public static ScrabbleMetrics get() {
+
+        return INSTANCE;
+    }
+
+    private static LongAdder[] adders(int count) {
+
+        LongAdder[] adders = new LongAdder[count];
+        Arrays.setAll(adders, i -> new LongAdder());
+        return adders;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, unless they are already registered.
+     *
+     * @throws JMException if the metrics cannot be registered
+     */
+    public void register() throws JMException {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException ex) {
+            // registered already
+        }
+    }
+
+    public void increment(Counter counter) {
+
+        counters[counter.ordinal()].increment();
+    }
+
+    public void add(Counter counter, long value) {
+
+        counters[counter.ordinal()].add(value);
+    }
+
+    public long get(Counter counter) {
+
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * Counts a dictionary lookup made by the recursive word matching algorithm.
+     *
+     * @param depth number of characters removed from the candidate word
+     * @param hit   whether the lookup found a word
+     */
+    public void lookup(int depth, boolean hit) {
+
+        (hit ? lookupHits : lookupMisses)[Math.min(Math.max(depth, 0), MAX_DEPTH)].increment();
+    }
+
+    /**
+     * Records a completed run of a phase.
+     *
+     * @param phase name of the phase
+     * @param nanos time the run has taken (in nanoseconds)
+     */
+    public void recordPhase(String phase, long nanos) {
+
+        Phase p = phases.computeIfAbsent(phase, name -> new Phase());
+        p.count().increment();
+        p.totalNanos().add(nanos);
+        p.maxNanos().accumulate(nanos);
+        p.histogram()[histogramBucket(nanos)].increment();
+    }
+
+    /**
+     * Returns the histogram bucket of a run of a phase: bucket 0 holds the runs shorter than a
+     * millisecond, and bucket i the runs of at least 2^(i-1) and less than 2^i milliseconds.
+     */
+    static int histogramBucket(long nanos) {
+
+        long millis = Math.max(nanos, 0) / 1_000_000;
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(millis), HISTOGRAM_BUCKETS - 1);
+    }
+
+    @Override
+    public long getBytesRead() {
+        return get(Counter.BYTES_READ);
+    }
+
+    @Override
+    public long getLinesRead() {
+        return get(Counter.LINES_READ);
+    }
+
+    @Override
+    public long getBlankLines() {
+        return get(Counter.BLANK_LINES);
+    }
+
+    @Override
+    public long getLinesOutsideBmp() {
+        return get(Counter.LINES_OUTSIDE_BMP);
+    }
+
+    @Override
+    public long getWordsLoaded() {
+        return get(Counter.WORDS_LOADED);
+    }
+
+    @Override
+    public long getDuplicateWords() {
+        return get(Counter.DUPLICATE_WORDS);
+    }
+
+    @Override
+    public long getDiscardedWords() {
+        return get(Counter.DISCARDED_WORDS);
+    }
+
+    @Override
+    public long getCandidateWords() {
+        return get(Counter.CANDIDATE_WORDS);
+    }
+
+    @Override
+    public long getPrunedCandidates() {
+        return get(Counter.PRUNED_CANDIDATES);
+    }
+
+    @Override
+    public long getMatchingWords() {
+        return get(Counter.MATCHING_WORDS);
+    }
+
+    @Override
+    public long getBacktracks() {
+        return get(Counter.BACKTRACKS);
+    }
+
+    @Override
+    public long getReducibleLookups() {
+        return get(Counter.REDUCIBLE_LOOKUPS);
+    }
+
+    @Override
+    public long getReducibleHits() {
+        return get(Counter.REDUCIBLE_HITS);
+    }
+
+    @Override
+    public long getFilterProbes() {
+        return get(Counter.FILTER_PROBES);
+    }
+
+    @Override
+    public long getFilterRejections() {
+        return get(Counter.FILTER_REJECTIONS);
+    }
+
+    @Override
+    public long getFilterFalsePositives() {
+        return get(Counter.FILTER_FALSE_POSITIVES);
+    }
+
+    @Override
+    public double getFilterRejectionRate() {
+        long probes = getFilterProbes();
+        return probes == 0 ? 0 : (double) getFilterRejections() / probes;
+    }
+
+    @Override
+    public double getFilterFalsePositiveRate() {
+        // the probes of words which are not in the dictionary are either rejected or false positives
+        long falsePositives = getFilterFalsePositives();
+        long misses = getFilterRejections() + falsePositives;
+        return misses == 0 ? 0 : (double) falsePositives / misses;
+    }
+
+    @Override
+    public long[] getLookupHitsByDepth() {
+        return sums(lookupHits);
+    }
+
+    @Override
+    public long[] getLookupMissesByDepth() {
+        return sums(lookupMisses);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        return phaseValues(phase -> phase.count().sum());
+    }
+
+    @Override
+    public Map<String, Long> getPhaseTotalMillis() {
+        return phaseValues(phase -> phase.totalNanos().sum() / 1_000_000);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseMaxMillis() {
+        return phaseValues(phase -> phase.maxNanos().get() / 1_000_000);
+    }
+
+    @Override
+    public Map<String, long[]> getPhaseHistograms() {
+        return phaseValues(phase -> sums(phase.histogram()));
+    }
+
+    /**
+     * Returns the sums of the specified adders, without the trailing zeros.
+     */
+    private static long[] sums(LongAdder[] adders) {
+
+        long[] sums = Arrays.stream(adders).mapToLong(LongAdder::sum).toArray();
+        int length = sums.length;
+        while (length > 0 && sums[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(sums, length);
+    }
+
+    private <T> Map<String, T> phaseValues(Function<Phase, T> value) {
+
+        return phases.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
+                entry -> value.apply(entry.getValue()), (a, b) -> a, TreeMap::new));
+    }
+
+    @Override
+    public String toJson() {
+
+        StringBuilder sb = new StringBuilder("{\"counters\":{");
+        for (Counter counter : Counter.values()) {
+            sb.append(counter.ordinal() == 0 ? "" : ",").append('"').append(counter.jsonName).append("\":")
+                    .append(get(counter));
+        }
+
+        sb.append("},\"lookupsByDepth\":{\"hits\":").append(Arrays.toString(getLookupHitsByDepth()).replace(" ", ""))
+                .append(",\"misses\":").append(Arrays.toString(getLookupMissesByDepth()).replace(" ", ""))
+                .append("},\"phases\":{");
+
+        var counts = getPhaseCounts();
+        var totals = getPhaseTotalMillis();
+        var maxima = getPhaseMaxMillis();
+        var histograms = getPhaseHistograms();
+        sb.append(counts.keySet().stream().map(phase -> json(phase) + ":{\"count\":" + counts.get(phase)
+                        + ",\"totalMillis\":" + totals.get(phase) + ",\"maxMillis\":" + maxima.get(phase)
+                        + ",\"histogram\":" + Arrays.toString(histograms.get(phase)).replace(" ", "") + "}")
+                .collect(Collectors.joining(",")));
+
+        return sb.append("}}").toString();
+    }
+
+    private static String json(String value) {
+
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    @Override
+    public void reset() {
+
+        Arrays.stream(counters).forEach(LongAdder::reset);
+        Arrays.stream(lookupHits).forEach(LongAdder::reset);
+        Arrays.stream(lookupMisses).forEach(LongAdder::reset);
+        phases.clear();
+    }
+}
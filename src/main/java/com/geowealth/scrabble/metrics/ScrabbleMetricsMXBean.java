@@ -0,0 +1,115 @@
+package com.geowealth.scrabble.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link ScrabbleMetrics}, registered with the platform MBean
+ * server as {@value ScrabbleMetrics#OBJECT_NAME}. All counters are cumulative since the JVM
+ * started or since the last {@link #reset()}.
+ */
+public interface ScrabbleMetricsMXBean {
+
+    long getBytesRead();
+
+    long getLinesRead();
+
+    long getBlankLines();
+
+    long getLinesOutsideBmp();
+
+    long getWordsLoaded();
+
+    long getDuplicateWords();
+
+    long getDiscardedWords();
+
+    /**
+     * Returns the number of candidate words, counted once when each scrabbler is created.
+     */
+    long getCandidateWords();
+
+    /**
+     * Returns the number of words with the candidate length which contain none of the 1-char
+     * words, counted once when each scrabbler is created.
+     */
+    long getPrunedCandidates();
+
+    long getMatchingWords();
+
+    long getBacktracks();
+
+    long getReducibleLookups();
+
+    long getReducibleHits();
+
+    /**
+     * Returns the number of dictionary lookups checked against the Bloom filter first.
+     */
+    long getFilterProbes();
+
+    /**
+     * Returns the number of dictionary lookups rejected by the Bloom filter, without probing the
+     * dictionary.
+     */
+    long getFilterRejections();
+
+    /**
+     * Returns the number of dictionary lookups passed by the Bloom filter which did not find a word.
+     */
+    long getFilterFalsePositives();
+
+    /**
+     * Returns the share of the dictionary lookups checked against the Bloom filter which it rejected.
+     */
+    double getFilterRejectionRate();
+
+    /**
+     * Returns the share of the lookups of words not in the dictionary which the Bloom filter
+     * failed to reject.
+     */
+    double getFilterFalsePositiveRate();
+
+    /**
+     * Returns the number of dictionary lookups made by the recursive word matching algorithm
+     * which found a word, indexed by depth (the number of characters removed from the candidate).
+     */
+    long[] getLookupHitsByDepth();
+
+    /**
+     * Returns the number of dictionary lookups made by the recursive word matching algorithm
+     * which did not find a word, indexed by depth (the number of characters removed from the candidate).
+     */
+    long[] getLookupMissesByDepth();
+
+    /**
+     * Returns the number of times each phase (e.g. {@code load}) has completed, keyed by phase.
+     */
+    Map<String, Long> getPhaseCounts();
+
+    /**
+     * Returns the total time (in milliseconds) spent in each phase, keyed by phase.
+     */
+    Map<String, Long> getPhaseTotalMillis();
+
+    /**
+     * Returns the longest time (in milliseconds) a single run of each phase has taken, keyed by phase.
+     */
+    Map<String, Long> getPhaseMaxMillis();
+
+    /**
+     * Returns a histogram of the times single runs of each phase have taken, keyed by phase. Bucket
+     * 0 counts the runs shorter than a millisecond, and bucket i the runs of at least 2^(i-1) and
+     * less than 2^i milliseconds; trailing empty buckets are left out.
+     */
+    Map<String, long[]> getPhaseHistograms();
+
+    /**
+     * Returns all metrics as a JSON object.
+     */
+    String toJson();
+
+    /**
+     * Resets all metrics to zero.
+     */
+    void reset();
+}
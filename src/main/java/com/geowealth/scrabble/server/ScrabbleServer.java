@@ -0,0 +1,346 @@
+package com.geowealth.scrabble.server;
+
+import com.geowealth.scrabble.exceptions.ScrabbleMatchException;
+import com.geowealth.scrabble.impl.Scrabbler;
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A local HTTP server which keeps one or more dictionaries loaded and answers match queries
+ * against them. Each query is handled on its own virtual thread. The following queries are
+ * supported (all of them accept the optional parameters listed below):
+ * <ul>
+ *     <li>{@code GET /matches?length=9} returns the matching words with the specified length</li>
+ *     <li>{@code GET /reducible?word=...} returns whether the specified word is reducible, i.e. whether
+ *     it is a matching word of its own length</li>
+ *     <li>{@code GET /metrics} returns the {@link ScrabbleMetrics} of the server process (the optional
+ *     parameters below are ignored)</li>
+ * </ul>
+ * Optional parameters:
+ * <ul>
+ *     <li>{@code dictionary}: URL of the dictionary to query; defaults to the first dictionary</li>
+ *     <li>{@code oneCharWords}: comma-separated case-sensitive 1-char words to treat as if they
+ *     were in the dictionary</li>
+ * </ul>
+ * Responses are JSON objects; a failed query returns an object with an {@code error} member.
+ * <p>
+ * The matching words of all lengths are computed in a single pass (see
+ * {@link Scrabbler#findMatchingWordsByLength(SortedSet, Set)}) the first time a dictionary is
+ * queried with a given set of 1-char words, and are cached after that, so that most queries
+ * are answered without any word matching. Up to {@value #MAX_CACHED_RESULTS} results are cached;
+ * beyond that, the least recently used result is evicted. The dictionaries are queried with the
+ * default set of 1-char words while the server starts.
+ */
+public class ScrabbleServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScrabbleServer.class);
+
+    // longest word length accepted by the command line and by queries
+    private static final int MAX_WORD_LENGTH = 50;
+
+    // number of cached results, beyond which the least recently used result is evicted
+    private static final int MAX_CACHED_RESULTS = 64;
+
+    private static final SortedSet<Integer> ALL_WORD_LENGTHS = IntStream.rangeClosed(2, MAX_WORD_LENGTH).boxed()
+            .collect(Collectors.toCollection(TreeSet::new));
+
+    private record Query(String dictionary, Set<String> oneCharWords) {
+    }
+
+    private final Map<String, Scrabbler> scrabblers;
+    private final String defaultDictionary;
+    // cached results in access order, guarded by synchronizing on the map
+    private final Map<Query, CompletableFuture<SortedMap<Integer, Set<String>>>> results =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    /**
+     * Creates a new server which serves the specified dictionaries. The server does not accept
+     * queries until it is {@link #start() started}.
+     *
+     * @param address    local address to bind to; a port of 0 picks a free port
+     * @param scrabblers scrabblers holding the dictionaries, keyed by dictionary URL; the first
+     *                   one is queried by default
+     * @throws IOException if the server cannot be bound to the specified address
+     */
+    public ScrabbleServer(InetSocketAddress address, Map<String, ? extends Scrabbler> scrabblers) throws IOException {
+
+        if (scrabblers.isEmpty()) {
+            throw new IllegalArgumentException("no dictionaries to serve");
+        }
+
+        this.scrabblers = new LinkedHashMap<>(scrabblers);
+        this.defaultDictionary = this.scrabblers.keySet().iterator().next();
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/matches", exchange -> handle(exchange, this::matches));
+        server.createContext("/reducible", exchange -> handle(exchange, this::reducible));
+        server.createContext("/metrics", exchange -> handle(exchange, params -> ScrabbleMetrics.get().toJson()));
+    }
+
+    /**
+     * Computes the matching words in the served dictionaries and starts accepting queries.
+     *
+     * @throws ScrabbleMatchException if matching words cannot be computed
+     */
+    public void start() throws ScrabbleMatchException {
+
+        for (String dictionary : scrabblers.keySet()) {
+            matchingWords(new Query(dictionary, Set.of()));
+        }
+
+        server.start();
+
+        logger.info("serving {} dictionaries at http://{}:{}", scrabblers.size(),
+                getAddress().getHostString(), getAddress().getPort());
+    }
+
+    public InetSocketAddress getAddress() {
+
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+
+        server.stop(0);
+        executor.close();
+    }
+
+    /**
+     * Answers a query for the matching words with a given length.
+     */
+    private String matches(Map<String, String> params) throws ScrabbleMatchException {
+
+        Query query = query(params);
+
+        int length;
+        try {
+            length = Integer.parseInt(required(params, "length"));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("length: not a number");
+        }
+
+        if (length < 2 || length > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("length: value must be >=2 and <=" + MAX_WORD_LENGTH + " characters");
+        }
+
+        Set<String> words = matchingWords(query).get(length);
+
+        return "{\"dictionary\":" + json(query.dictionary()) + ",\"length\":" + length
+                + ",\"count\":" + words.size() + ",\"words\":" + json(words) + "}";
+    }
+
+    /**
+     * Answers a query whether a given word is reducible.
+     */
+    private String reducible(Map<String, String> params) throws ScrabbleMatchException {
+
+        Query query = query(params);
+        String word = required(params, "word");
+
+        boolean reducible;
+        if (word.length() == 1) {
+            reducible = query.oneCharWords().contains(word)
+                    || scrabblers.get(query.dictionary()).getDictionaryWords().contains(word);
+        } else {
+            reducible = word.length() <= MAX_WORD_LENGTH && matchingWords(query).get(word.length()).contains(word);
+        }
+
+        return "{\"dictionary\":" + json(query.dictionary()) + ",\"word\":" + json(word)
+                + ",\"reducible\":" + reducible + "}";
+    }
+
+    private Query query(Map<String, String> params) {
+
+        String dictionary = params.getOrDefault("dictionary", defaultDictionary);
+        if (!scrabblers.containsKey(dictionary)) {
+            throw new NoSuchElementException("dictionary: not served");
+        }
+
+        Set<String> oneCharWords = new TreeSet<>();
+        String value = params.get("oneCharWords");
+        if (value != null && !value.isEmpty()) {
+            for (String word : value.split(",", -1)) {
+                if (word.length() != 1) {
+                    throw new IllegalArgumentException("oneCharWords: each specified word must have length=1");
+                }
+                oneCharWords.add(word);
+            }
+        }
+
+        return new Query(dictionary, Set.copyOf(oneCharWords));
+    }
+
+    /**
+     * Returns the matching words of all lengths for the specified query, computing them only
+     * once per query even if requested by several threads at the same time.
+     */
+    private SortedMap<Integer, Set<String>> matchingWords(Query query) throws ScrabbleMatchException {
+
+        var future = new CompletableFuture<SortedMap<Integer, Set<String>>>();
+
+        CompletableFuture<SortedMap<Integer, Set<String>>> existing;
+        synchronized (results) {
+            existing = results.putIfAbsent(query, future);
+            if (results.size() > MAX_CACHED_RESULTS) {
+                var eldest = results.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            future.complete(scrabblers.get(query.dictionary())
+                    .findMatchingWordsByLength(ALL_WORD_LENGTHS, query.oneCharWords()));
+        } catch (ScrabbleMatchException | RuntimeException ex) {
+            synchronized (results) {
+                results.remove(query, future);
+            }
+            future.completeExceptionally(ex);
+        }
+
+        return join(future);
+    }
+
+    private static SortedMap<Integer, Set<String>> join(CompletableFuture<SortedMap<Integer, Set<String>>> future)
+            throws ScrabbleMatchException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ScrabbleMatchException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof ScrabbleMatchException sme) {
+                throw sme;
+            }
+            throw new ScrabbleMatchException(ex.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    private interface QueryHandler {
+
+        String handle(Map<String, String> params) throws ScrabbleMatchException;
+    }
+
+    private static void handle(HttpExchange exchange, QueryHandler handler) throws IOException {
+
+        int status;
+        String body;
+
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                status = 405;
+                body = error("method not allowed");
+            } else {
+                status = 200;
+                body = handler.handle(params(exchange.getRequestURI().getRawQuery()));
+            }
+        } catch (IllegalArgumentException ex) {
+            status = 400;
+            body = error(ex.getMessage());
+        } catch (NoSuchElementException ex) {
+            status = 404;
+            body = error(ex.getMessage());
+        } catch (Exception ex) {
+            logger.error("error while answering query {}", exchange.getRequestURI(), ex);
+            status = 500;
+            body = error("internal error");
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static Map<String, String> params(String rawQuery) {
+
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery != null) {
+            for (String param : rawQuery.split("&")) {
+                int eq = param.indexOf('=');
+                if (eq > 0) {
+                    params.put(URLDecoder.decode(param.substring(0, eq), StandardCharsets.UTF_8),
+                            URLDecoder.decode(param.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(name + ": missing");
+        }
+        return value;
+    }
+
+    private static String error(String message) {
+
+        return "{\"error\":" + json(message) + "}";
+    }
+
+    private static String json(Collection<String> values) {
+
+        return values.stream().map(ScrabbleServer::json).collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String json(String value) {
+
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                default -> {
+                    if (c < ' ') {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,309 @@
+package com.geowealth.scrabble.shard;
+
+import com.geowealth.scrabble.exceptions.ScrabbleMatchException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SequencedSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Finds matching words in several worker processes on the local machine, for dictionaries which
+ * do not fit the heap of a single JVM or keep more cores busy than it has.
+ * <p>
+ * The candidate words are split into shards by their hash code (see {@link #shardOf(String, int)}).
+ * Each shard is matched by a worker process of its own, which loads the dictionary (without the
+ * words longer than the candidates, which never take part in a match), matches the candidates of
+ * its shard and sends the matching words, in sorted order, to a socket the coordinator listens
+ * on at the loopback address. The coordinator merges the sorted lists of all shards.
+ * <p>
+ * A worker which exits before sending all its matching words, or with a non-zero status, is
+ * replaced by a new one, up to a number of attempts per shard.
+ */
+public class ShardCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    // how often a coordinator waiting for a worker to connect checks that it is still running
+    private static final int ACCEPT_TIMEOUT_MILLIS = 500;
+
+    /**
+     * Starts a worker process which matches a shard of the candidate words.
+     */
+    @FunctionalInterface
+    public interface WorkerLauncher {
+
+        /**
+         * Starts a worker process which sends the matching words of the specified shard to the
+         * specified local port.
+         *
+         * @param shard  index of the shard to match
+         * @param shards number of shards
+         * @param port   local port the coordinator listens on
+         * @return worker process
+         * @throws IOException if the process cannot be started
+         */
+        Process launch(int shard, int shards, int port) throws IOException;
+    }
+
+    private final int shards;
+    private final int attempts;
+    private final WorkerLauncher launcher;
+
+    /**
+     * Creates a new coordinator.
+     *
+     * @param shards   number of shards, each matched by a worker process of its own
+     * @param attempts number of workers started for a shard before giving up
+     * @param launcher starts the worker processes
+     */
+    public ShardCoordinator(int shards, int attempts, WorkerLauncher launcher) {
+
+        if (shards <= 0 || attempts <= 0) {
+            throw new IllegalArgumentException("shards and attempts must be >0");
+        }
+        this.shards = shards;
+        this.attempts = attempts;
+        this.launcher = launcher;
+    }
+
+    /**
+     * Returns the shard which the specified candidate word belongs to.
+     *
+     * @param word   candidate word
+     * @param shards number of shards
+     * @return index of the shard, from 0 to {@code shards - 1}
+     */
+    public static int shardOf(String word, int shards) {
+
+        // String.hashCode() is the same in every JVM; the multiplication spreads similar hash codes
+        return Math.floorMod(word.hashCode() * 0x9E3779B9, shards);
+    }
+
+    /**
+     * Returns a launcher which starts the specified main class in a new JVM with the class path,
+     * memory and system properties of this one, passing it the specified arguments followed by
+     * those which select the shard to match. The metrics file option is left out, as the metrics
+     * file belongs to the coordinator and would otherwise be overwritten by every worker.
+     *
+     * @param mainClass main class of the workers
+     * @param argv      command line arguments of the workers
+     * @return launcher of worker processes
+     */
+    public static WorkerLauncher javaLauncher(Class<?> mainClass, List<String> argv) {
+
+        List<String> workerArgv = withoutOption(argv, "-mf", "--metrics-file");
+
+        return (shard, shards, port) -> {
+
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                    .filter(arg -> arg.startsWith("-Xm") || arg.startsWith("-Xss") || arg.startsWith("-D"))
+                    .forEach(command::add);
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), mainClass.getName()));
+            command.addAll(workerArgv);
+            if (!workerArgv.contains("-dlw") && !workerArgv.contains("--discard-longer-words")) {
+                command.add("-dlw");
+            }
+            command.addAll(List.of("--shard", shard + "/" + shards, "--coordinator-port", String.valueOf(port)));
+
+            return new ProcessBuilder(command).inheritIO().start();
+        };
+    }
+
+    /**
+     * Returns the specified arguments without any option with one of the specified names and the
+     * value which follows it.
+     */
+    private static List<String> withoutOption(List<String> argv, String... names) {
+
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < argv.size(); i++) {
+            if (List.of(names).contains(argv.get(i))) {
+                i++;
+            } else {
+                result.add(argv.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Matches all shards, each in a worker process of its own, and merges their matching words.
+     *
+     * @return matching words in sorted order
+     * @throws ScrabbleMatchException if a shard cannot be matched by any of its workers
+     */
+    public SequencedSet<String> findMatchingWords() throws ScrabbleMatchException {
+
+        long start = System.nanoTime();
+
+        List<List<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<Future<List<String>>> futures = IntStream.range(0, shards)
+                    .mapToObj(shard -> executor.submit(() -> matchShard(shard)))
+                    .toList();
+
+            for (Future<List<String>> future : futures) {
+                results.add(future.get());
+            }
+
+        } catch (ExecutionException ex) {
+            throw new ScrabbleMatchException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ScrabbleMatchException(ex);
+        }
+
+        SequencedSet<String> matchingWords = merge(results);
+        logger.debug("matched {} shards in {} ms", shards, (System.nanoTime() - start) / 1_000_000);
+        return matchingWords;
+    }
+
+    /**
+     * Matches the specified shard, starting a new worker whenever one fails.
+     */
+    private List<String> matchShard(int shard) throws IOException, InterruptedException {
+
+        IOException failure = null;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                List<String> words = matchShardOnce(shard);
+                logger.debug("shard {}/{}: {} matching words", shard, shards, words.size());
+                return words;
+            } catch (IOException ex) {
+                logger.warn("worker of shard {}/{} failed (attempt {} of {}): {}", shard, shards, attempt, attempts,
+                        ex.getMessage());
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        throw failure;
+    }
+
+    private List<String> matchShardOnce(int shard) throws IOException, InterruptedException {
+
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+
+            server.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+            Process process = launcher.launch(shard, shards, server.getLocalPort());
+
+            try {
+                List<String> words;
+                try (Socket socket = accept(server, process);
+                     var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                             StandardCharsets.UTF_8))) {
+                    words = read(reader);
+                }
+
+                int status = process.waitFor();
+                if (status != 0) {
+                    throw new IOException("worker exited with status " + status);
+                }
+                return words;
+
+            } finally {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Waits for the specified worker to connect, as long as it is running.
+     */
+    private static Socket accept(ServerSocket server, Process process) throws IOException {
+
+        while (true) {
+            try {
+                return server.accept();
+            } catch (SocketTimeoutException ex) {
+                if (!process.isAlive()) {
+                    throw new IOException("worker exited with status " + process.exitValue() + " before connecting");
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the matching words sent by a worker: their number, then one word per line, in sorted order.
+     */
+    private static List<String> read(BufferedReader reader) throws IOException {
+
+        String line = reader.readLine();
+        if (line == null) {
+            throw new EOFException("worker disconnected before sending any words");
+        }
+
+        int count;
+        try {
+            count = Integer.parseInt(line);
+        } catch (NumberFormatException ex) {
+            throw new IOException("invalid number of words: " + line);
+        }
+
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String word = reader.readLine();
+            if (word == null) {
+                throw new EOFException("worker disconnected after " + i + " of " + count + " words");
+            }
+            if (i > 0 && word.compareTo(words.get(i - 1)) <= 0) {
+                throw new IOException("words out of order: " + word);
+            }
+            words.add(word);
+        }
+        return words;
+    }
+
+    /**
+     * Merges sorted lists of distinct words into a single sorted set.
+     */
+    static SequencedSet<String> merge(List<List<String>> sorted) {
+
+        // each cursor holds the index of a list and the position of its next word
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(Math.max(1, sorted.size()),
+                Comparator.comparing(cursor -> sorted.get(cursor[0]).get(cursor[1])));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                cursors.add(new int[]{i, 0});
+            }
+        }
+
+        SequencedSet<String> merged = new LinkedHashSet<>();
+        while (!cursors.isEmpty()) {
+            int[] cursor = cursors.poll();
+            List<String> words = sorted.get(cursor[0]);
+            merged.add(words.get(cursor[1]));
+            if (++cursor[1] < words.size()) {
+                cursors.add(cursor);
+            }
+        }
+        return Collections.unmodifiableSequencedSet(merged);
+    }
+}
@@ -0,0 +1,53 @@
+package com.geowealth.scrabble.shard;
+
+import com.geowealth.scrabble.exceptions.ScrabbleMatchException;
+import com.geowealth.scrabble.impl.Scrabbler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The part of a worker process started by a {@link ShardCoordinator} which sends the matching
+ * words of its shard back to the coordinator.
+ */
+public final class ShardWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardWorker.class);
+
+    private ShardWorker() {
+    }
+
+    /**
+     * Finds the matching words of a scrabbler whose candidate words are limited to a shard, and
+     * sends them in sorted order to the coordinator listening on the specified local port.
+     *
+     * @param scrabbler scrabbler holding the candidate words of the shard
+     * @param port      local port the coordinator listens on
+     * @throws ScrabbleMatchException if matching words cannot be found
+     * @throws IOException            if the matching words cannot be sent
+     */
+    public static void run(Scrabbler scrabbler, int port) throws ScrabbleMatchException, IOException {
+
+        Set<String> matchingWords = new TreeSet<>(scrabbler.findMatchingWords());
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             var writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            writer.write(matchingWords.size() + "\n");
+            for (String word : matchingWords) {
+                writer.write(word);
+                writer.write('\n');
+            }
+        }
+
+        logger.debug("sent {} matching words to port {}", matchingWords.size(), port);
+    }
+}
@@ -2,10 +2,13 @@ package com.geowealth.scrabble;
 
 import com.beust.jcommander.ParameterException;
 import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.dictionary.DictionaryBackend;
+import com.geowealth.scrabble.impl.ExecutionBackend;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
 
 import static com.geowealth.scrabble.ArgsUtils.args;
@@ -58,6 +61,68 @@ public class ArgsTest {
         }));
     }
 
+    @Test
+    public void testArgs_whenNoDictionaryBackendSpecified_thenDefault() {
+        Args args = args("-du", VALID_URL_WEB, "-seq");
+        assertEquals(DictionaryBackend.HEAP, args.getDictionaryBackend());
+    }
+
+    @Test
+    public void testArgs_whenInvalidDictionaryBackend_thenThrow() {
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-db", "DISK"));
+    }
+
+    @Test
+    public void testArgs_whenValidDictionaryBackend_thenSuccess() {
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-db", "OFF_HEAP");
+        assertEquals(DictionaryBackend.OFF_HEAP, args.getDictionaryBackend());
+    }
+
+    @Test
+    public void testArgs_whenCacheDirectoryNotSpecified_thenDefault() {
+        Args args = args("-du", VALID_URL_WEB, "-seq");
+        assertNull(args.getCacheDirectory());
+    }
+
+    @Test
+    public void testArgs_whenCacheDirectorySpecified_thenSuccess() {
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-cd", "cache");
+        assertEquals("cache", args.getCacheDirectory());
+    }
+
+    @Test
+    public void testArgs_whenSnapshotDirectoryNotSpecified_thenDefault() {
+        Args args = args("-du", VALID_URL_WEB, "-seq");
+        assertNull(args.getSnapshotDirectory());
+    }
+
+    @Test
+    public void testArgs_whenSnapshotDirectorySpecified_thenSuccess() {
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-sd", "snapshots");
+        assertEquals("snapshots", args.getSnapshotDirectory());
+    }
+
+    @Test
+    public void testArgs_whenSnapshotDirectoryWithOtherBackend_thenThrow() {
+        assertDoesNotThrow(() -> args("-du", VALID_URL_WEB, "-seq", "-sd", "snapshots", "-db", "HEAP"));
+        assertThrowsExactly(ParameterException.class,
+                () -> args("-du", VALID_URL_WEB, "-seq", "-sd", "snapshots", "-db", "DAWG"));
+        assertThrowsExactly(ParameterException.class,
+                () -> args("-du", VALID_URL_WEB, "-seq", "-sd", "snapshots", "-db", "OFF_HEAP"));
+    }
+
+    @Test
+    public void testArgs_whenDiscardLongerWordsNotSpecified_thenDefault() {
+        Args args = args("-du", VALID_URL_WEB, "-seq");
+        assertEquals(false, args.getDiscardLongerWords());
+    }
+
+    @Test
+    public void testArgs_whenDiscardLongerWordsSpecified_thenSuccess() {
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-dlw");
+        assertEquals(true, args.getDiscardLongerWords());
+    }
+
     @Test
     public void testArgs_whenWordLengthNotSpecified_thenDefault() {
         Args args = args("-du", VALID_URL_WEB, "-seq");
@@ -75,6 +140,70 @@ public class ArgsTest {
         assertDoesNotThrow(() -> args("-du", VALID_URL_WEB, "-seq", "-wl", "9"));
     }
 
+    @Test
+    public void testArgs_whenWordLengthsNotSpecified_thenWordLength() {
+        assertEquals(Set.of(9), args("-du", VALID_URL_WEB, "-seq").getWordLengths());
+        assertEquals(Set.of(4), args("-du", VALID_URL_WEB, "-seq", "-wl", "4").getWordLengths());
+    }
+
+    @Test
+    public void testArgs_whenValidWordLengths_thenSuccess() {
+        assertEquals(List.of(2, 3, 4, 5), List.copyOf(args("-du", VALID_URL_WEB, "-seq", "-wls", "2-5").getWordLengths()));
+        assertEquals(List.of(2, 7, 9, 10, 11), List.copyOf(args("-du", VALID_URL_WEB, "-seq", "-wls", "9-11,2,7").getWordLengths()));
+        assertEquals(List.of(5), List.copyOf(args("-du", VALID_URL_WEB, "-seq", "-wls", "5").getWordLengths()));
+    }
+
+    @Test
+    public void testArgs_whenInvalidWordLengths_thenThrow() {
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-wls", "1-5"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-wls", "2-51"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-wls", "5-2"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-wls", "2-3-4"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-wls", "2,,4"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-wls", "a"));
+    }
+
+    @Test
+    public void testArgs_whenWordLengthAndWordLengths_thenThrow() {
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-wl", "4", "-wls", "2-5"));
+    }
+
+    @Test
+    public void testArgs_whenWatchDictionary_thenSuccess() {
+        assertEquals(false, args("-du", VALID_URL_WEB, "-seq").getWatchDictionary());
+        assertEquals(true, args("-du", VALID_URL_WEB, "-seq", "-wd").getWatchDictionary());
+    }
+
+    @Test
+    public void testArgs_whenServerPortNotSpecified_thenDefault() {
+        Args args = args("-du", VALID_URL_WEB, "-seq");
+        assertNull(args.getServerPort());
+        assertEquals(Set.of(), args.getAdditionalDictionaryUrls());
+    }
+
+    @Test
+    public void testArgs_whenValidServerPort_thenSuccess() {
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-sp", "8080", "-adu", VALID_URL_WEB + "?a," + VALID_URL_WEB + "?b");
+        assertEquals(8080, args.getServerPort());
+        assertEquals(Set.of(VALID_URL_WEB + "?a", VALID_URL_WEB + "?b"), args.getAdditionalDictionaryUrls());
+    }
+
+    @Test
+    public void testArgs_whenInvalidServerPort_thenThrow() {
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-sp", "-1"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-sp", "65536"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-adu", "not a url"));
+    }
+
+    @Test
+    public void testArgs_whenWithDictionaryUrl_thenOnlyUrlChanged() {
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-wl", "4", "-ocw", "A");
+        Args copy = args.withDictionaryUrl(VALID_URL_WEB + "?other");
+        assertEquals(VALID_URL_WEB + "?other", copy.getDictionaryUrl());
+        assertEquals(VALID_URL_WEB, args.getDictionaryUrl());
+        assertEquals(args, copy.withDictionaryUrl(VALID_URL_WEB));
+    }
+
     @Test
     public void testArgs_whenOneCharWordsNotSpecified_thenDefault() {
         Args args = args("-du", VALID_URL_WEB, "-seq");
@@ -131,6 +260,43 @@ public class ArgsTest {
         });
     }
 
+    @Test
+    public void testArgs_whenSeqAndBottomUpSpecified_thenThrow() {
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-bu"));
+    }
+
+    @Test
+    public void testArgs_whenOnlyBottomUpSpecified_thenSuccess() {
+        assertDoesNotThrow(() -> {
+            Args args = args("-du", VALID_URL_WEB, "-bu");
+            assertEquals(Boolean.TRUE, args.getBottomUp());
+            assertEquals(Boolean.FALSE, args.getSequential());
+            assertEquals(Boolean.FALSE, args.getParallel());
+        });
+    }
+
+    @Test
+    public void testArgs_whenOnlyFingerprintSpecified_thenSuccess() {
+        assertDoesNotThrow(() -> {
+            Args args = args("-du", VALID_URL_WEB, "-fp");
+            assertEquals(Boolean.TRUE, args.getFingerprint());
+            assertEquals(Boolean.FALSE, args.getSequential());
+            assertEquals(Boolean.FALSE, args.getBottomUp());
+        });
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-fp"));
+    }
+
+    @Test
+    public void testArgs_whenOnlyTrieWalkSpecified_thenSuccess() {
+        assertDoesNotThrow(() -> {
+            Args args = args("-du", VALID_URL_WEB, "-tw");
+            assertEquals(Boolean.TRUE, args.getTrieWalk());
+            assertEquals(Boolean.FALSE, args.getSequential());
+            assertEquals(Boolean.FALSE, args.getFingerprint());
+        });
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-fp", "-tw"));
+    }
+
     @Test
     public void testArgs_whenLogMatchingNotSpecified_thenDefault() {
         Args args = args("-du", VALID_URL_WEB, "-seq");
@@ -148,6 +314,85 @@ public class ArgsTest {
         assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "--NO-SUCH-OPTION"));
     }
 
+    @Test
+    public void testArgs_whenExecutionBackend_thenSuccess() {
+        Args defaults = args("-du", VALID_URL_WEB, "-par");
+        assertEquals(ExecutionBackend.COMMON_POOL, defaults.getExecutionBackend());
+        assertEquals(Runtime.getRuntime().availableProcessors(), defaults.getParallelism());
+        assertNull(defaults.getChunkSize());
+
+        Args args = args("-du", VALID_URL_WEB, "-par", "-eb", "VIRTUAL", "-pl", "3", "-cs", "100");
+        assertEquals(ExecutionBackend.VIRTUAL, args.getExecutionBackend());
+        assertEquals(3, args.getParallelism());
+        assertEquals(100, args.getChunkSize());
+        assertEquals(args, args("--dictionary-url", VALID_URL_WEB, "--parallel", "--execution-backend", "VIRTUAL",
+                "--parallelism", "3", "--chunk-size", "100"));
+        assertNotEquals(args, defaults);
+    }
+
+    @Test
+    public void testArgs_whenInvalidExecutionBackend_thenThrow() {
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-par", "-eb", "GPU"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-par", "-eb", "FORK_JOIN", "-pl", "0"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-par", "-cs", "0"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-par", "-pl", "2"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-eb", "PLATFORM"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-bu", "-cs", "10"));
+    }
+
+    @Test
+    public void testArgs_whenLogChains_thenSuccess() {
+        assertFalse(args("-du", VALID_URL_WEB, "-seq", "-lm").getLogChains());
+        assertTrue(args("-du", VALID_URL_WEB, "-seq", "-lm", "-lc").getLogChains());
+        assertTrue(args("-du", VALID_URL_WEB, "-bu", "--log-matching", "--log-chains").getLogChains());
+        assertNotEquals(args("-du", VALID_URL_WEB, "-seq", "-lm"), args("-du", VALID_URL_WEB, "-seq", "-lm", "-lc"));
+    }
+
+    @Test
+    public void testArgs_whenLogChainsWithoutLogMatchingOrWithWordLengths_thenThrow() {
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-lc"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-lm", "-lc", "-wls", "2-5"));
+    }
+
+    @Test
+    public void testArgs_whenCountPaths_thenSuccess() {
+        assertFalse(args("-du", VALID_URL_WEB, "-seq", "-lm").getCountPaths());
+        assertNull(args("-du", VALID_URL_WEB, "-seq", "-lm", "-cp").getEnumeratePaths());
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-lm", "-cp", "-ep", "5");
+        assertTrue(args.getCountPaths());
+        assertEquals(5, args.getEnumeratePaths());
+        assertEquals(args, args("-du", VALID_URL_WEB, "-seq", "--log-matching", "--count-paths", "--enumerate-paths", "5"));
+        assertNotEquals(args, args("-du", VALID_URL_WEB, "-seq", "-lm", "-cp"));
+    }
+
+    @Test
+    public void testArgs_whenCountPathsInvalid_thenThrow() {
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-cp"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-lm", "-ep", "5"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-lm", "-cp", "-ep", "0"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-lm", "-cp", "-lc"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-lm", "-cp", "-wls", "2-5"));
+    }
+
+    @Test
+    public void testArgs_whenBloomFilter_thenSuccess() {
+        assertNull(args("-du", VALID_URL_WEB, "-seq").getBloomFilter());
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-bf", "12");
+        assertEquals(12, args.getBloomFilter());
+        assertEquals(args, args("-du", VALID_URL_WEB, "-seq", "--bloom-filter", "12"));
+        assertNotEquals(args, args("-du", VALID_URL_WEB, "-seq"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-bf", "0"));
+    }
+
+    @Test
+    public void testArgs_whenMetricsFile_thenSuccess() {
+        assertNull(args("-du", VALID_URL_WEB, "-seq").getMetricsFile());
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-mf", "metrics.json");
+        assertEquals("metrics.json", args.getMetricsFile());
+        assertEquals(args, args("--dictionary-url", VALID_URL_WEB, "--sequential", "--metrics-file", "metrics.json"));
+        assertNotEquals(args, args("-du", VALID_URL_WEB, "-seq"));
+    }
+
     @Test
     public void testArgs_whenSameDefaultShortAndLongParamsTestEqual_thenSuccess() {
         Args shortArgs = args("-du", VALID_URL_WEB, "-seq");
@@ -177,4 +422,37 @@ public class ArgsTest {
         assertNotEquals(args1, args2);
     }
 
+
+    @Test
+    public void testArgs_whenShardsSpecified_thenSuccess() {
+        Args args = args("-du", VALID_URL_WEB, "-seq", "-sh", "4");
+        assertEquals(4, args.getShards());
+        assertEquals(3, args.getShardAttempts());
+        assertNull(args.getShardIndex());
+
+        args = args("-du", VALID_URL_WEB, "-seq", "-sh", "4", "-sa", "1");
+        assertEquals(1, args.getShardAttempts());
+    }
+
+    @Test
+    public void testArgs_whenInvalidShards_thenThrow() {
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-sh", "0"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-sa", "2"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-sh", "2", "-sp", "0"));
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "-sh", "2", "-lm", "-lc"));
+    }
+
+    @Test
+    public void testArgs_whenShardOfWorkerSpecified_thenIndexAndCount() {
+        Args args = args("-du", VALID_URL_WEB, "-seq", "--shard", "2/5", "--coordinator-port", "4000");
+        assertEquals(2, args.getShardIndex());
+        assertEquals(5, args.getShardCount());
+        assertEquals(4000, args.getCoordinatorPort());
+
+        assertThrowsExactly(ParameterException.class, () -> args("-du", VALID_URL_WEB, "-seq", "--shard", "2/5"));
+        assertThrowsExactly(ParameterException.class,
+                () -> args("-du", VALID_URL_WEB, "-seq", "--shard", "5/5", "--coordinator-port", "4000"));
+        assertThrowsExactly(ParameterException.class,
+                () -> args("-du", VALID_URL_WEB, "-seq", "--shard", "x", "--coordinator-port", "4000"));
+    }
 }
@@ -2,6 +2,7 @@ package com.geowealth.scrabble;
 
 import com.beust.jcommander.JCommander;
 import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.cli.GenerateArgs;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.math3.util.Combinations;
 
@@ -28,6 +29,21 @@ public class ArgsUtils {
         return args;
     }
 
+    /**
+     * Creates a new {@link GenerateArgs} instance from an array of command-line arguments.
+     *
+     * @param argv command-line arguments of the {@code generate} command
+     * @return {@link GenerateArgs} instance
+     */
+    static GenerateArgs generateArgs(String... argv) {
+
+        GenerateArgs args = new GenerateArgs();
+        var builder = JCommander.newBuilder().addObject(args).build();
+        builder.parse(argv);
+
+        return args;
+    }
+
     /**
      * Creates a list of all valid command-line argument combinations based on the given options.
      * Each combination is represented by an {@link Args} instance within the list. The provided
@@ -0,0 +1,122 @@
+package com.geowealth.scrabble;
+
+import com.beust.jcommander.ParameterException;
+import com.geowealth.scrabble.cli.GenerateArgs;
+import com.geowealth.scrabble.generator.DictionaryGenerator;
+import com.geowealth.scrabble.impl.BottomUpScrabbler;
+import com.geowealth.scrabble.impl.ParallelScrabbler;
+import com.geowealth.scrabble.impl.Scrabbler;
+import com.geowealth.scrabble.impl.SequentialScrabbler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.geowealth.scrabble.ArgsUtils.args;
+import static com.geowealth.scrabble.ArgsUtils.generateArgs;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DictionaryGeneratorTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Path generate(String... argv) throws Exception {
+
+        Path path = tempDir.resolve("dictionary-" + Arrays.hashCode(argv) + ".txt");
+        var args = generateArgs(argv);
+        var summary = new DictionaryGenerator(args).generate(path);
+        assertEquals(args.getSize(), summary.lines());
+        return path;
+    }
+
+    @Test
+    public void testGenerateArgs_whenDefaults_thenSuccess() {
+
+        GenerateArgs args = generateArgs("-o", "out.txt");
+        assertEquals(1_000_000L, args.getSize());
+        assertEquals(10_000L, args.getCandidates());
+        assertEquals(Set.of("a"), args.getOneCharWords());
+        assertEquals(14, args.getLengthDistribution().size());
+        assertEquals(new TreeMap<>(Map.of(3, 1.0, 4, 4.0, 5, 4.0, 9, 2.0)),
+                generateArgs("-o", "out.txt", "-ld", "3:1,4-5:4,9:2").getLengthDistribution());
+    }
+
+    @Test
+    public void testGenerateArgs_whenInvalid_thenThrow() {
+
+        assertThrowsExactly(ParameterException.class, () -> generateArgs("-n", "10"));
+        assertThrowsExactly(ParameterException.class, () -> generateArgs("-o", "out.txt", "-n", "0"));
+        assertThrowsExactly(ParameterException.class, () -> generateArgs("-o", "out.txt", "-rs", "1.5"));
+        assertThrowsExactly(ParameterException.class, () -> generateArgs("-o", "out.txt", "-a", "abca"));
+        assertThrowsExactly(ParameterException.class, () -> generateArgs("-o", "out.txt", "-a", "ab c"));
+        assertThrowsExactly(ParameterException.class, () -> generateArgs("-o", "out.txt", "-ld", "1-5"));
+        assertThrowsExactly(ParameterException.class, () -> generateArgs("-o", "out.txt", "-ld", "3:0"));
+        assertThrowsExactly(ParameterException.class, () -> generateArgs("-o", "out.txt", "-nmd", "0"));
+    }
+
+    @Test
+    public void testGenerator_whenInconsistentOptions_thenThrow() {
+
+        // the last character of the alphabet is reserved
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> new DictionaryGenerator(generateArgs("-o", "out.txt", "-ocw", "z")));
+        // the near-miss chains do not fit into the candidate length
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> new DictionaryGenerator(generateArgs("-o", "out.txt", "-wl", "5", "-nmd", "3")));
+        // the chains do not fit into the dictionary size
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> new DictionaryGenerator(generateArgs("-o", "out.txt", "-n", "100", "-c", "50")));
+    }
+
+    @Test
+    public void testGenerator_whenSameSeed_thenSameDictionary() throws Exception {
+
+        var first = generate("-o", "first", "-n", "20000", "-s", "42");
+        var second = generate("-o", "second", "-n", "20000", "-s", "42");
+        var other = generate("-o", "other", "-n", "20000", "-s", "43");
+
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+        assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(other)));
+        assertEquals(20000, Files.readAllLines(first).size());
+    }
+
+    @Test
+    public void testGenerator_whenMatched_thenReducibleShareOfCandidates() throws Exception {
+
+        var path = generate("-o", "x", "-n", "50000", "-c", "400", "-rs", "0.25", "-ocw", "a,i");
+        var url = path.toUri().toString();
+
+        for (Scrabbler scrabbler : List.of(new SequentialScrabbler(args("-du", url, "-seq", "-ocw", "a,i")),
+                new ParallelScrabbler(args("-du", url, "-par", "-ocw", "a,i")),
+                new BottomUpScrabbler(args("-du", url, "-bu", "-ocw", "a,i")))) {
+
+            assertEquals(400, scrabbler.getCandidateWords().size());
+            assertEquals(100, scrabbler.findMatchingWords().size());
+        }
+    }
+
+    @Test
+    public void testGenerator_whenNearMissChains_thenIrreducibleAfterDepth() throws Exception {
+
+        var path = generate("-o", "x", "-n", "5000", "-c", "20", "-rs", "0", "-nmd", "4", "-ld", "2-8");
+        var scrabbler = new SequentialScrabbler(args("-du", path.toUri().toString(), "-seq", "-ocw", "a"));
+
+        assertEquals(20, scrabbler.getCandidateWords().size());
+        assertTrue(scrabbler.findMatchingWords().isEmpty());
+
+        // every candidate holds the reserved character twice, and so do 4 shorter words of its chain
+        for (String candidate : scrabbler.getCandidateWords()) {
+            assertEquals(2, candidate.chars().filter(c -> c == 'z').count(), candidate);
+        }
+        long shorter = Files.readAllLines(path).stream().filter(word -> word.indexOf('z') >= 0 && word.length() < 9)
+                .count();
+        assertEquals(20 * 4, shorter);
+    }
+}
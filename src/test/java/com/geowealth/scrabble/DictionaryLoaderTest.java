@@ -0,0 +1,475 @@
+package com.geowealth.scrabble;
+
+import com.geowealth.scrabble.loader.DictionaryCache;
+import com.geowealth.scrabble.loader.DictionaryLoader;
+import com.geowealth.scrabble.loader.MappedDictionaryLoader;
+import com.geowealth.scrabble.loader.PipelinedDictionaryLoader;
+import com.geowealth.scrabble.loader.StreamDictionaryLoader;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DictionaryLoaderTest {
+
+    /**
+     * Starts a local HTTP server which serves the specified contents at {@code /dictionary.txt}.
+     */
+    static HttpServer serve(byte[] contents) throws Exception {
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/dictionary.txt", exchange -> {
+            exchange.sendResponseHeaders(200, contents.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(contents);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    static URI uri(HttpServer server) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/dictionary.txt");
+    }
+
+    private static List<String> load(DictionaryLoader loader, URI uri, String charset) throws Exception {
+
+        var words = new ArrayList<String>();
+        loader.load(uri, charset, batches -> batches.forEach(words::addAll));
+        return words;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/bg-utf8.txt", "/chars-outside-bmp.txt", "/en-all-lines-valid.txt",
+            "/leading-trailing-whitespace.txt", "/whitespace-only.txt", "/zero-bytes.txt"})
+    public void test_whenMappedWithSmallChunks_thenSameWordsAsStream(String resource) throws Exception {
+
+        URL url = DictionaryLoaderTest.class.getResource(resource);
+        assertNotNull(url);
+
+        var expected = load(new StreamDictionaryLoader(), url.toURI(), "UTF-8");
+
+        for (int chunkSize : new int[]{1, 7, 64, 1024 * 1024}) {
+            assertEquals(expected, load(new MappedDictionaryLoader(chunkSize, 3), url.toURI(), "UTF-8"));
+        }
+    }
+
+    @Test
+    public void test_whenMixedLineTerminators_thenSameWordsAsStream() throws Exception {
+
+        File tmp = File.createTempFile("scrabbler", null);
+
+        try {
+            FileUtils.writeStringToFile(tmp, "един\r\nдва\rтри\n\r\n  четири \r\n\nпет", "windows-1251");
+            URI uri = tmp.toURI();
+
+            var expected = load(new StreamDictionaryLoader(), uri, "windows-1251");
+            assertEquals(List.of("един", "два", "три", "четири", "пет"), expected);
+
+            for (int chunkSize : new int[]{1, 5, 1024}) {
+                assertEquals(expected, load(new MappedDictionaryLoader(chunkSize, 2), uri, "windows-1251"));
+            }
+        } finally {
+            FileUtils.deleteQuietly(tmp);
+        }
+    }
+
+    @Test
+    public void test_whenEncodingNotNewlineDelimited_thenSameWordsAsStream() throws Exception {
+
+        File tmp = File.createTempFile("scrabbler", null);
+
+        try {
+            // UTF-16 with a byte order mark, in which 0x0A bytes are also found inside characters
+            FileUtils.writeStringToFile(tmp, "\uFEFFਊ\nword\nਊਊ\n", StandardCharsets.UTF_16BE);
+            URI uri = tmp.toURI();
+
+            assertEquals(load(new StreamDictionaryLoader(), uri, "UTF-16"),
+                    load(new MappedDictionaryLoader(1, 2), uri, "UTF-16"));
+        } finally {
+            FileUtils.deleteQuietly(tmp);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/bg-utf8.txt", "/chars-outside-bmp.txt", "/leading-trailing-whitespace.txt",
+            "/whitespace-only.txt", "/zero-bytes.txt"})
+    public void test_whenPipelinedFromHttp_thenSameWordsAsStream(String resource) throws Exception {
+
+        byte[] contents;
+        try (InputStream is = DictionaryLoaderTest.class.getResourceAsStream(resource)) {
+            assertNotNull(is);
+            contents = IOUtils.toByteArray(is);
+        }
+
+        HttpServer server = serve(contents);
+
+        try {
+            var expected = load(new StreamDictionaryLoader(), uri(server), "UTF-8");
+
+            for (int blockSize : new int[]{1, 7, 1024 * 1024}) {
+                var words = load(new PipelinedDictionaryLoader(blockSize, 3), uri(server), "UTF-8");
+                // batches may be consumed in any order
+                assertEquals(new HashSet<>(expected), new HashSet<>(words));
+                assertEquals(expected.size(), words.size());
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void test_whenLargeDictionaryPipelinedFromHttp_thenAllWordsLoaded() throws Exception {
+
+        var builder = new StringBuilder();
+        for (int i = 0; i < 500_000; i++) {
+            builder.append(Integer.toString(i, 36)).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+
+        HttpServer server = serve(builder.toString().getBytes(StandardCharsets.UTF_8));
+
+        try {
+            var words = load(new PipelinedDictionaryLoader(64 * 1024, 4), uri(server), "UTF-8");
+            assertEquals(500_000, words.size());
+            assertEquals(500_000, new HashSet<>(words).size());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void test_whenHttpDictionaryNotFound_thenThrow() throws Exception {
+
+        HttpServer server = serve(new byte[0]);
+
+        try {
+            URI missing = uri(server).resolve("/missing.txt");
+            assertThrows(Exception.class, () -> load(new PipelinedDictionaryLoader(), missing, "UTF-8"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Compresses the specified contents into one gzip member per part of the specified size.
+     */
+    private static byte[] gzip(byte[] contents, int partSize) throws Exception {
+
+        var out = new ByteArrayOutputStream();
+        for (int p = 0; p < contents.length; p += partSize) {
+            try (var gz = new GZIPOutputStream(out) {
+                @Override
+                public void close() throws java.io.IOException {
+                    // keeps the underlying stream open for the next member
+                    finish();
+                }
+            }) {
+                gz.write(contents, p, Math.min(partSize, contents.length - p));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Compresses the specified contents into a blocked gzip file (BGZF) with one member per block
+     * of the specified size, followed by an empty member as written by {@code bgzip}.
+     */
+    private static byte[] bgzip(byte[] contents, int blockSize) throws Exception {
+
+        var out = new ByteArrayOutputStream();
+        for (int p = 0; p <= contents.length; p += blockSize) {
+
+            int length = p == contents.length ? 0 : Math.min(blockSize, contents.length - p);
+
+            var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            deflater.setInput(contents, p, length);
+            deflater.finish();
+            byte[] data = new byte[length + 64];
+            int compressed = deflater.deflate(data);
+            deflater.end();
+
+            var crc = new CRC32();
+            crc.update(contents, p, length);
+
+            ByteBuffer member = ByteBuffer.allocate(18 + compressed + 8).order(ByteOrder.LITTLE_ENDIAN);
+            member.put(new byte[]{0x1F, (byte) 0x8B, 8, 4, 0, 0, 0, 0, 0, (byte) 0xFF});
+            member.putShort((short) 6).put((byte) 'B').put((byte) 'C').putShort((short) 2)
+                    .putShort((short) (member.capacity() - 1));
+            member.put(data, 0, compressed).putInt((int) crc.getValue()).putInt(length);
+            out.write(member.array());
+
+            if (length == 0) {
+                break;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 1024 * 1024})
+    public void test_whenGzipCompressed_thenSameWordsAsUncompressed(int partSize) throws Exception {
+
+        URL url = DictionaryLoaderTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        var expected = load(new StreamDictionaryLoader(), url.toURI(), "UTF-8");
+        byte[] compressed = gzip(FileUtils.readFileToByteArray(new File(url.toURI())), partSize);
+
+        File tmp = File.createTempFile("scrabbler", ".gz");
+        HttpServer server = serve(compressed);
+
+        try {
+            FileUtils.writeByteArrayToFile(tmp, compressed);
+
+            assertEquals(expected, load(new StreamDictionaryLoader(), tmp.toURI(), "UTF-8"));
+            assertEquals(expected, load(new MappedDictionaryLoader(), tmp.toURI(), "UTF-8"));
+
+            var words = load(new PipelinedDictionaryLoader(7, 3), uri(server), "UTF-8");
+            assertEquals(new HashSet<>(expected), new HashSet<>(words));
+            assertEquals(expected.size(), words.size());
+        } finally {
+            server.stop(0);
+            FileUtils.deleteQuietly(tmp);
+        }
+    }
+
+    @Test
+    public void test_whenBlockedGzipCompressed_thenSameWordsAsUncompressed() throws Exception {
+
+        var builder = new StringBuilder();
+        for (int i = 0; i < 1_000_000; i++) {
+            builder.append(Integer.toString(i, 36)).append('\n');
+        }
+        byte[] contents = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        File tmp = File.createTempFile("scrabbler", ".gz");
+
+        try {
+            FileUtils.writeByteArrayToFile(tmp, bgzip(contents, 60_000));
+
+            var words = load(new MappedDictionaryLoader(), tmp.toURI(), "UTF-8");
+            assertEquals(1_000_000, words.size());
+            assertEquals(1_000_000, new HashSet<>(words).size());
+            assertEquals(new HashSet<>(load(new StreamDictionaryLoader(), tmp.toURI(), "UTF-8")),
+                    new HashSet<>(words));
+        } finally {
+            FileUtils.deleteQuietly(tmp);
+        }
+    }
+
+    @Test
+    public void test_whenBlockedGzipCorrupt_thenThrow() throws Exception {
+
+        byte[] compressed = bgzip("one\ntwo\nthree\n".getBytes(StandardCharsets.UTF_8), 4);
+        // flips a bit in the CRC-32 of the first member
+        int firstSize = (compressed[16] & 0xFF | (compressed[17] & 0xFF) << 8) + 1;
+        compressed[firstSize - 8] ^= 1;
+
+        File tmp = File.createTempFile("scrabbler", ".gz");
+
+        try {
+            FileUtils.writeByteArrayToFile(tmp, compressed);
+            assertThrows(ZipException.class, () -> load(new MappedDictionaryLoader(), tmp.toURI(), "UTF-8"));
+        } finally {
+            FileUtils.deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * Starts a local HTTP server which serves the current contents at {@code /dictionary.txt} with an
+     * entity tag, answering conditional and range requests, and records the requests. While there
+     * are no contents, it responds with {@code 503 Service Unavailable}.
+     */
+    private static HttpServer serveCacheable(AtomicReference<byte[]> contents, List<String> requests)
+            throws Exception {
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/dictionary.txt", exchange -> {
+
+            byte[] body = contents.get();
+            if (body == null) {
+                synchronized (requests) {
+                    requests.add(exchange.getRequestMethod());
+                }
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            String etag = "\"" + Arrays.hashCode(body) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            synchronized (requests) {
+                requests.add(exchange.getRequestMethod() + (range == null ? "" : " " + range));
+            }
+
+            int status = 200;
+            int first = 0;
+            int last = body.length - 1;
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                status = 304;
+            } else if (range != null && etag.equals(exchange.getRequestHeaders().getFirst("If-Range"))) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                first = Integer.parseInt(bounds[0]);
+                last = Integer.parseInt(bounds[1]);
+                status = 206;
+                exchange.getResponseHeaders().set("Content-Range",
+                        "bytes " + first + "-" + last + "/" + body.length);
+            }
+
+            if (status == 304 || exchange.getRequestMethod().equals("HEAD")) {
+                exchange.getResponseHeaders().set("Content-Length", Integer.toString(body.length));
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+                return;
+            }
+
+            exchange.sendResponseHeaders(status, last - first + 1);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body, first, last - first + 1);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    public void test_whenCachedDictionaryNotModified_thenNotDownloadedAgain() throws Exception {
+
+        var contents = new AtomicReference<>("one\ntwo\nthree\n".getBytes(StandardCharsets.UTF_8));
+        var requests = new ArrayList<String>();
+        HttpServer server = serveCacheable(contents, requests);
+        Path directory = Files.createTempDirectory("cache");
+
+        try {
+            var cache = new DictionaryCache(directory);
+
+            Path path = cache.fetch(uri(server));
+            assertArrayEquals(contents.get(), Files.readAllBytes(path));
+            assertEquals(List.of("GET"), requests);
+
+            requests.clear();
+            assertEquals(path, cache.fetch(uri(server)));
+            assertArrayEquals(contents.get(), Files.readAllBytes(path));
+            assertEquals(List.of("GET"), requests);
+
+            // a changed dictionary is downloaded again
+            contents.set("four\nfive\n".getBytes(StandardCharsets.UTF_8));
+            requests.clear();
+            assertEquals(List.of("four", "five"), load(new MappedDictionaryLoader(), cache.fetch(uri(server)).toUri(),
+                    "UTF-8"));
+            assertEquals(List.of("GET"), requests);
+
+            // the server responds with an error, so the cached copy is used
+            byte[] cached = contents.getAndSet(null);
+            requests.clear();
+            assertArrayEquals(cached, Files.readAllBytes(cache.fetch(uri(server))));
+            assertEquals(List.of("GET"), requests);
+            contents.set(cached);
+
+            // the server cannot be reached, so the cached copy is used
+            URI uri = uri(server);
+            server.stop(0);
+            assertArrayEquals(contents.get(), Files.readAllBytes(new DictionaryCache(directory).fetch(uri)));
+        } finally {
+            server.stop(0);
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+    @Test
+    public void test_whenDictionaryWithoutValidatorsCached_thenUsedIfServerUnreachable() throws Exception {
+
+        byte[] contents = "one\ntwo\n".getBytes(StandardCharsets.UTF_8);
+        HttpServer server = serve(contents);
+        Path directory = Files.createTempDirectory("cache");
+
+        try {
+            URI uri = uri(server);
+            var cache = new DictionaryCache(directory);
+
+            // without an entity tag or modification date, the dictionary is downloaded every time
+            Path path = cache.fetch(uri);
+            assertArrayEquals(contents, Files.readAllBytes(path));
+            assertEquals(path, cache.fetch(uri));
+
+            server.stop(0);
+            assertEquals(path, cache.fetch(uri));
+            assertArrayEquals(contents, Files.readAllBytes(path));
+        } finally {
+            server.stop(0);
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+    @Test
+    public void test_whenServerAcceptsRanges_thenDownloadedInRanges() throws Exception {
+
+        var builder = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.append(Integer.toString(i, 36)).append('\n');
+        }
+
+        var contents = new AtomicReference<>(builder.toString().getBytes(StandardCharsets.UTF_8));
+        var requests = new ArrayList<String>();
+        HttpServer server = serveCacheable(contents, requests);
+        Path directory = Files.createTempDirectory("cache");
+
+        try {
+            Path path = new DictionaryCache(directory, 64 * 1024, 4).fetch(uri(server));
+
+            assertArrayEquals(contents.get(), Files.readAllBytes(path));
+            // the first range is read from the response to the conditional request
+            assertEquals(4, requests.size());
+            assertEquals(3, requests.stream().filter(request -> request.startsWith("GET bytes=")).count());
+        } finally {
+            server.stop(0);
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+    @Test
+    public void test_whenCachedDictionaryNotFound_thenThrow() throws Exception {
+
+        HttpServer server = serve(new byte[0]);
+        Path directory = Files.createTempDirectory("cache");
+
+        try {
+            URI missing = uri(server).resolve("/missing.txt");
+            assertThrows(IOException.class, () -> new DictionaryCache(directory).fetch(missing));
+        } finally {
+            server.stop(0);
+            FileUtils.deleteQuietly(directory.toFile());
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+package com.geowealth.scrabble;
+
+import com.geowealth.scrabble.impl.BottomUpScrabbler;
+import com.geowealth.scrabble.impl.FingerprintScrabbler;
+import com.geowealth.scrabble.impl.ParallelScrabbler;
+import com.geowealth.scrabble.impl.SequentialScrabbler;
+import com.geowealth.scrabble.impl.TrieScrabbler;
+import com.geowealth.scrabble.loader.MappedDictionaryLoader;
+import com.geowealth.scrabble.loader.PipelinedDictionaryLoader;
+import com.geowealth.scrabble.loader.StreamDictionaryLoader;
+import com.geowealth.scrabble.metrics.ScrabbleMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.geowealth.scrabble.ArgsUtils.args;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScrabbleMetricsTest {
+
+    private final ScrabbleMetrics metrics = ScrabbleMetrics.get();
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    public void reset() {
+        metrics.reset();
+    }
+
+    private static Path resource(String name) throws Exception {
+
+        URL url = ScrabbleMetricsTest.class.getResource(name);
+        assertNotNull(url);
+        return Path.of(url.toURI());
+    }
+
+    @Test
+    public void test_whenBlankLines_thenCounted() throws Exception {
+
+        Path path = resource("/whitespace-only.txt");
+        new SequentialScrabbler(args("-du", path.toUri().toString(), "-seq"));
+
+        assertEquals(Files.size(path), metrics.getBytesRead());
+        assertEquals(11, metrics.getLinesRead());
+        assertEquals(11, metrics.getBlankLines());
+        assertEquals(0, metrics.getWordsLoaded());
+    }
+
+    @Test
+    public void test_whenLinesOutsideBmp_thenCountedByEveryLoader() throws Exception {
+
+        Path path = resource("/chars-outside-bmp.txt");
+        List<String> lines = Files.readAllLines(path);
+        long outsideBmp = lines.stream().filter(line -> line.codePoints().anyMatch(Character::isSupplementaryCodePoint))
+                .count();
+        assertTrue(outsideBmp > 0);
+
+        for (var loader : List.of(new StreamDictionaryLoader(), new MappedDictionaryLoader(7, 3),
+                new PipelinedDictionaryLoader())) {
+
+            metrics.reset();
+            loader.load(path.toUri(), "UTF-8", batches -> {
+            });
+
+            assertEquals(Files.size(path), metrics.getBytesRead(), loader.getClass().getSimpleName());
+            assertEquals(lines.size(), metrics.getLinesRead(), loader.getClass().getSimpleName());
+            assertEquals(outsideBmp, metrics.getLinesOutsideBmp(), loader.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void test_whenDuplicateAndLongerWords_thenCounted() throws Exception {
+
+        Path path = tempDir.resolve("duplicates.txt");
+        Files.writeString(path, "a\r\nab\r\nab\r\n\r\nabc\nabcdefghij\nabc\n", StandardCharsets.UTF_8);
+
+        new SequentialScrabbler(args("-du", path.toUri().toString(), "-seq", "-wl", "3", "-dlw"));
+
+        assertEquals(7, metrics.getLinesRead());
+        assertEquals(1, metrics.getBlankLines());
+        assertEquals(2, metrics.getDuplicateWords());
+        assertEquals(1, metrics.getDiscardedWords());
+        assertEquals(3, metrics.getWordsLoaded());
+    }
+
+    @Test
+    public void test_whenMatched_thenLookupsByDepth() throws Exception {
+
+        String url = resource("/en-all-lines-valid.txt").toUri().toString();
+
+        var sequential = new SequentialScrabbler(args("-du", url, "-seq", "-ocw", "i"));
+
+        // the candidates are counted once, when the dictionary is loaded
+        long candidates = sequential.getCandidateWords().size();
+        assertEquals(candidates, metrics.getCandidateWords());
+        assertTrue(metrics.getPrunedCandidates() > 0);
+
+        metrics.reset();
+        var matchingWords = sequential.findMatchingWords();
+
+        long[] hits = metrics.getLookupHitsByDepth();
+        long[] misses = metrics.getLookupMissesByDepth();
+
+        // every candidate is looked up at depth 0, and every match is found at depth 8
+        assertEquals(0, metrics.getCandidateWords());
+        assertEquals(candidates, hits[0] + (misses.length > 0 ? misses[0] : 0));
+        assertEquals(matchingWords.size(), hits[8]);
+        assertEquals(matchingWords.size(), metrics.getMatchingWords());
+        assertEquals(1, metrics.getPhaseCounts().get("sequential match"));
+
+        // the parallel algorithm makes the same lookups
+        var parallel = new ParallelScrabbler(args("-du", url, "-par", "-ocw", "i"));
+        metrics.reset();
+        parallel.findMatchingWords();
+
+        assertArrayEquals(hits, metrics.getLookupHitsByDepth());
+        assertArrayEquals(misses, metrics.getLookupMissesByDepth());
+
+        // and so does the fingerprint algorithm
+        var fingerprint = new FingerprintScrabbler(args("-du", url, "-fp", "-ocw", "i"));
+        metrics.reset();
+        fingerprint.findMatchingWords();
+
+        assertArrayEquals(hits, metrics.getLookupHitsByDepth());
+        assertArrayEquals(misses, metrics.getLookupMissesByDepth());
+
+        // and the trie walk algorithm, which skips the lookups of the shorter words whose prefix leads nowhere
+        var trieWalk = new TrieScrabbler(args("-du", url, "-tw", "-ocw", "i"));
+        metrics.reset();
+        trieWalk.findMatchingWords();
+
+        assertArrayEquals(hits, metrics.getLookupHitsByDepth());
+        long[] trieMisses = metrics.getLookupMissesByDepth();
+        for (int depth = 0; depth < misses.length; depth++) {
+            assertTrue(depth >= trieMisses.length || trieMisses[depth] <= misses[depth]);
+        }
+        assertTrue(Arrays.stream(trieMisses).sum() < Arrays.stream(misses).sum());
+    }
+
+    @Test
+    public void test_whenBloomFilter_thenSameMatchesAndMissesRejected() throws Exception {
+
+        String url = resource("/en-all-lines-valid.txt").toUri().toString();
+
+        var expected = new SequentialScrabbler(args("-du", url, "-seq", "-ocw", "i")).findMatchingWords();
+
+        var scrabbler = new SequentialScrabbler(args("-du", url, "-seq", "-ocw", "i", "-bf", "10"));
+        assertEquals(1, metrics.getPhaseCounts().get("filter"));
+        metrics.reset();
+
+        assertEquals(expected, scrabbler.findMatchingWords());
+
+        // every lookup is checked against the filter, and every miss is either rejected or a false positive
+        long hits = Arrays.stream(metrics.getLookupHitsByDepth()).sum();
+        long misses = Arrays.stream(metrics.getLookupMissesByDepth()).sum();
+        assertEquals(hits + misses, metrics.getFilterProbes());
+        assertEquals(misses, metrics.getFilterRejections() + metrics.getFilterFalsePositives());
+
+        assertTrue(metrics.getFilterRejectionRate() > 0.5, String.valueOf(metrics.getFilterRejectionRate()));
+        assertTrue(metrics.getFilterFalsePositiveRate() < 0.05, String.valueOf(metrics.getFilterFalsePositiveRate()));
+        assertTrue(metrics.toJson().contains("\"filterRejections\":" + metrics.getFilterRejections()));
+    }
+
+    @Test
+    public void test_whenBottomUp_thenReducibleLookups() throws Exception {
+
+        String url = resource("/en-all-lines-valid.txt").toUri().toString();
+
+        var scrabbler = new BottomUpScrabbler(args("-du", url, "-bu", "-ocw", "i"));
+        assertEquals(1, metrics.getPhaseCounts().get("load"));
+
+        var matchingWords = scrabbler.findMatchingWords();
+
+        assertTrue(metrics.getReducibleHits() > 0);
+        assertTrue(metrics.getReducibleLookups() >= metrics.getReducibleHits());
+        assertEquals(matchingWords.size(), metrics.getMatchingWords());
+        assertEquals(0, metrics.getLookupHitsByDepth().length);
+    }
+
+    @Test
+    public void test_whenRegistered_thenExposedThroughJmx() throws Exception {
+
+        new SequentialScrabbler(args("-du", resource("/bg-utf8.txt").toUri().toString(), "-seq"));
+
+        metrics.register();
+        metrics.register();
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName(ScrabbleMetrics.OBJECT_NAME);
+
+        assertEquals(metrics.getLinesRead(), server.getAttribute(name, "LinesRead"));
+        assertEquals(metrics.getWordsLoaded(), server.getAttribute(name, "WordsLoaded"));
+        assertTrue(metrics.getLinesRead() > 0);
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0, metrics.getLinesRead());
+    }
+
+    @Test
+    public void test_whenDumped_thenJson() throws Exception {
+
+        var scrabbler = new SequentialScrabbler(args("-du", resource("/en-all-lines-valid.txt").toUri().toString(),
+                "-seq", "-ocw", "i"));
+        scrabbler.findMatchingWords();
+
+        String json = metrics.toJson();
+
+        assertTrue(json.startsWith("{\"counters\":{\"bytesRead\":" + metrics.getBytesRead() + ","), json);
+        assertTrue(json.contains("\"hits\":" + Arrays.toString(metrics.getLookupHitsByDepth()).replace(" ", "")), json);
+        assertTrue(json.contains("\"sequential match\":{\"count\":1,"), json);
+        assertTrue(json.endsWith("}}"), json);
+    }
+
+    @Test
+    public void test_whenPhasesRecorded_thenHistogramBuckets() {
+
+        metrics.recordPhase("test", 500_000);
+        metrics.recordPhase("test", 1_000_000);
+        metrics.recordPhase("test", 3_000_000);
+        metrics.recordPhase("test", 3_999_999);
+        metrics.recordPhase("test", Long.MAX_VALUE);
+
+        long[] histogram = metrics.getPhaseHistograms().get("test");
+        assertEquals(24, histogram.length);
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[1]);
+        assertEquals(2, histogram[2]);
+        assertEquals(1, histogram[23]);
+        assertEquals(5, Arrays.stream(histogram).sum());
+        assertTrue(metrics.toJson().contains("\"histogram\":[1,1,2,0,"), metrics.toJson());
+    }
+}
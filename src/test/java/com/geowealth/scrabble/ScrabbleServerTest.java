@@ -0,0 +1,191 @@
+package com.geowealth.scrabble;
+
+import com.geowealth.scrabble.impl.ParallelScrabbler;
+import com.geowealth.scrabble.impl.Scrabbler;
+import com.geowealth.scrabble.impl.SequentialScrabbler;
+import com.geowealth.scrabble.server.ScrabbleServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.geowealth.scrabble.ArgsUtils.args;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScrabbleServerTest {
+
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    private static String bgUrl;
+    private static String enUrl;
+    private static ScrabbleServer server;
+
+    @BeforeAll
+    public static void startServer() throws Exception {
+
+        URL bg = ScrabbleServerTest.class.getResource("/bg-utf8.txt");
+        URL en = ScrabbleServerTest.class.getResource("/no-one-char-words.txt");
+        assertNotNull(bg);
+        assertNotNull(en);
+
+        bgUrl = bg.toString();
+        enUrl = en.toString();
+
+        Map<String, Scrabbler> scrabblers = new LinkedHashMap<>();
+        scrabblers.put(bgUrl, new ParallelScrabbler(args("-du", bgUrl, "-par")));
+        scrabblers.put(enUrl, new ParallelScrabbler(args("-du", enUrl, "-par")));
+
+        server = new ScrabbleServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), scrabblers);
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.close();
+    }
+
+    private static HttpResponse<String> get(String pathAndQuery) throws Exception {
+
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + pathAndQuery);
+        return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void assertMatches(Set<String> expected, HttpResponse<String> response) {
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"count\":" + expected.size() + ","), response.body());
+        expected.forEach(word -> assertTrue(response.body().contains("\"" + word + "\""), word));
+    }
+
+    @Test
+    public void test_whenMatchesQueried_thenSameMatchesAsSequential() throws Exception {
+
+        for (int length = 2; length <= 6; length++) {
+            var expected = new SequentialScrabbler(args("-du", bgUrl, "-seq", "-wl", String.valueOf(length)))
+                    .findMatchingWords();
+            assertMatches(expected, get("/matches?length=" + length));
+        }
+    }
+
+    @Test
+    public void test_whenOneCharWordsQueried_thenSameMatchesAsOneCharWordsArgs() throws Exception {
+
+        int matches = 0;
+        for (int length = 2; length <= 6; length++) {
+            var expected = new SequentialScrabbler(args("-du", bgUrl, "-seq", "-wl", String.valueOf(length), "-ocw", "а,и"))
+                    .findMatchingWords();
+            assertMatches(expected, get("/matches?length=" + length + "&oneCharWords=" + encode("а,и")));
+            matches += expected.size();
+        }
+        assertTrue(matches > 0);
+    }
+
+    @Test
+    public void test_whenOtherDictionaryQueried_thenItsMatches() throws Exception {
+
+        assertMatches(Set.of(), get("/matches?length=9&dictionary=" + encode(enUrl)));
+        assertMatches(Set.of("abcdefghi"), get("/matches?length=9&oneCharWords=i&dictionary=" + encode(enUrl)));
+    }
+
+    @Test
+    public void test_whenReducibleQueried_thenAnswered() throws Exception {
+
+        var reducible = get("/reducible?oneCharWords=i&word=abcdefghi&dictionary=" + encode(enUrl));
+        assertEquals(200, reducible.statusCode());
+        assertTrue(reducible.body().contains("\"reducible\":true"), reducible.body());
+
+        var irreducible = get("/reducible?word=abcdefghi&dictionary=" + encode(enUrl));
+        assertEquals(200, irreducible.statusCode());
+        assertTrue(irreducible.body().contains("\"reducible\":false"), irreducible.body());
+
+        var oneChar = get("/reducible?word=i&oneCharWords=i&dictionary=" + encode(enUrl));
+        assertTrue(oneChar.body().contains("\"reducible\":true"), oneChar.body());
+    }
+
+    @Test
+    public void test_whenMetricsQueried_thenJson() throws Exception {
+
+        var metrics = get("/metrics");
+        assertEquals(200, metrics.statusCode());
+        assertTrue(metrics.body().startsWith("{\"counters\":{\"bytesRead\":"), metrics.body());
+    }
+
+    @Test
+    public void test_whenInvalidQuery_thenError() throws Exception {
+
+        assertEquals(400, get("/matches").statusCode());
+        assertEquals(400, get("/matches?length=1").statusCode());
+        assertEquals(400, get("/matches?length=abc").statusCode());
+        assertEquals(400, get("/matches?length=4&oneCharWords=ab").statusCode());
+        assertEquals(400, get("/reducible").statusCode());
+        assertEquals(404, get("/matches?length=4&dictionary=unknown").statusCode());
+        assertTrue(get("/matches?length=1").body().startsWith("{\"error\":"));
+    }
+
+    @Test
+    public void test_whenQueriedConcurrently_thenSameAnswers() throws Exception {
+
+        var expected = get("/matches?length=4&oneCharWords=" + encode("я")).body();
+
+        try (var executor = Executors.newFixedThreadPool(16)) {
+
+            List<Callable<String>> queries = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                queries.add(() -> get("/matches?length=4&oneCharWords=" + encode("я")).body());
+            }
+
+            for (Future<String> answer : executor.invokeAll(queries)) {
+                assertEquals(expected, answer.get());
+            }
+        }
+    }
+
+    @Test
+    public void test_whenMoreDistinctQueriesThanCached_thenSameAnswers() throws Exception {
+
+        // more distinct sets of 1-char words than the server caches results for
+        List<String> oneCharWords = new ArrayList<>();
+        for (char c = 'а'; c <= 'я'; c++) {
+            oneCharWords.add(String.valueOf(c));
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            oneCharWords.add(String.valueOf(c));
+            oneCharWords.add(String.valueOf(Character.toUpperCase(c)));
+        }
+
+        try (var executor = Executors.newFixedThreadPool(16)) {
+
+            List<Callable<String>> queries = new ArrayList<>();
+            for (String word : oneCharWords) {
+                queries.add(() -> get("/matches?length=4&oneCharWords=" + encode(word)).body());
+            }
+
+            List<Future<String>> answers = executor.invokeAll(queries);
+            for (int i = 0; i < oneCharWords.size(); i++) {
+                assertEquals(get("/matches?length=4&oneCharWords=" + encode(oneCharWords.get(i))).body(),
+                        answers.get(i).get());
+            }
+        }
+    }
+}
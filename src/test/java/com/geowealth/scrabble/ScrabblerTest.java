@@ -1,22 +1,52 @@
 package com.geowealth.scrabble;
 
 import com.geowealth.scrabble.cli.Args;
+import com.geowealth.scrabble.generator.DictionaryGenerator;
+import com.geowealth.scrabble.impl.BottomUpScrabbler;
+import com.geowealth.scrabble.impl.DictionaryWatcher;
+import com.geowealth.scrabble.impl.ExecutionBackend;
+import com.geowealth.scrabble.impl.FingerprintScrabbler;
+import com.geowealth.scrabble.impl.MatchingWordsChange;
 import com.geowealth.scrabble.impl.ParallelScrabbler;
 import com.geowealth.scrabble.impl.Scrabbler;
 import com.geowealth.scrabble.impl.SequentialScrabbler;
+import com.geowealth.scrabble.impl.TrieScrabbler;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.File;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.geowealth.scrabble.ArgsUtils.allArgCombinations;
@@ -26,7 +56,8 @@ import static org.junit.jupiter.api.Assertions.*;
 public class ScrabblerTest {
 
     private static Stream<Class<? extends Scrabbler>> allScrabblerClasses() {
-        return Stream.of(SequentialScrabbler.class, ParallelScrabbler.class);
+        return Stream.of(SequentialScrabbler.class, ParallelScrabbler.class, BottomUpScrabbler.class,
+                FingerprintScrabbler.class, TrieScrabbler.class);
     }
 
     private static Scrabbler scrabbler(Class<? extends Scrabbler> cl, Args args) throws Exception {
@@ -176,6 +207,379 @@ public class ScrabblerTest {
         assertEquals(Set.of("abcdefghi"), scrabbler.findMatchingWords());
     }
 
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenAnyWordLength_thenSameMatchesAsSequential(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        for (int wordLength = 2; wordLength <= 12; wordLength++) {
+            Args args = args("-du", url.toString(), "-seq", "-wl", String.valueOf(wordLength), "-ocw", "а,и");
+            assertEquals(new SequentialScrabbler(args).findMatchingWords(), scrabbler(cl, args).findMatchingWords());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenStreamed_thenSameMatches(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        for (int wordLength = 2; wordLength <= 8; wordLength++) {
+            Scrabbler scrabbler = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", String.valueOf(wordLength),
+                    "-ocw", "а,и"));
+            try (var matchingWords = scrabbler.streamMatchingWords()) {
+                assertEquals(scrabbler.findMatchingWords(), matchingWords.collect(Collectors.toSet()));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenChainsFound_thenValidChainForEachMatch(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        for (int wordLength = 2; wordLength <= 8; wordLength++) {
+
+            Scrabbler scrabbler = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", String.valueOf(wordLength),
+                    "-ocw", "а,и"));
+            var chains = scrabbler.findMatchingWordChains();
+
+            assertEquals(scrabbler.findMatchingWords(), chains.keySet());
+
+            for (var entry : chains.entrySet()) {
+
+                List<String> chain = entry.getValue();
+                assertEquals(wordLength, chain.size());
+                assertEquals(entry.getKey(), chain.getFirst());
+
+                for (int i = 0; i < chain.size(); i++) {
+                    assertEquals(wordLength - i, chain.get(i).length());
+                    assertTrue(scrabbler.getDictionaryWords().contains(chain.get(i)), chain.get(i));
+                    if (i > 0) {
+                        assertTrue(isDeletion(chain.get(i - 1), chain.get(i)), chain.toString());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the shorter word can be obtained by removing one character of the longer word.
+     */
+    private static boolean isDeletion(String longer, String shorter) {
+
+        for (int c = 0; c < longer.length(); c++) {
+            if ((longer.substring(0, c) + longer.substring(c + 1)).equals(shorter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void test_whenChainsFound_thenChainOfKnownMatch() throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/no-one-char-words.txt");
+        assertNotNull(url);
+
+        var expected = List.of("abcdefghi", "abcdeghi", "acdeghi", "acdegi", "cdegi", "degi", "dgi", "gi", "i");
+        for (var cl : allScrabblerClasses().toList()) {
+            var chains = scrabbler(cl, args("-du", url.toString(), "-seq", "-ocw", "i")).findMatchingWordChains();
+            assertEquals(Map.of("abcdefghi", expected), chains, cl.getSimpleName());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenPathsCounted_thenSameAsExhaustiveSearch(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        for (int wordLength = 2; wordLength <= 8; wordLength++) {
+
+            Scrabbler scrabbler = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", String.valueOf(wordLength),
+                    "-ocw", "а,и"));
+            var counts = scrabbler.countReductionPaths();
+
+            assertEquals(scrabbler.findMatchingWords(), counts.keySet());
+
+            Map<String, BigInteger> memo = new HashMap<>();
+            for (var entry : counts.entrySet()) {
+
+                assertEquals(countPaths(entry.getKey(), scrabbler.getDictionaryWords(), memo), entry.getValue(),
+                        entry.getKey());
+
+                // every path is valid and enumerated once
+                var paths = scrabbler.findReductionPaths(entry.getKey(), Integer.MAX_VALUE);
+                assertEquals(entry.getValue().intValueExact(), paths.size());
+                assertEquals(paths.size(), new HashSet<>(paths).size());
+                for (List<String> path : paths) {
+                    assertEquals(wordLength, path.size());
+                    assertEquals(entry.getKey(), path.getFirst());
+                    for (int i = 1; i < path.size(); i++) {
+                        assertTrue(scrabbler.getDictionaryWords().contains(path.get(i)), path.get(i));
+                        assertTrue(isDeletion(path.get(i - 1), path.get(i)), path.toString());
+                    }
+                }
+
+                assertEquals(1, scrabbler.findReductionPaths(entry.getKey(), 1).size());
+                assertTrue(scrabbler.findReductionPaths(entry.getKey(), 0).isEmpty());
+            }
+        }
+    }
+
+    /**
+     * Counts the reduction paths of the specified word by searching all deletions top down.
+     */
+    private static BigInteger countPaths(String word, Set<String> dictionary, Map<String, BigInteger> memo) {
+
+        if (!dictionary.contains(word)) {
+            return BigInteger.ZERO;
+        }
+        if (word.length() == 1) {
+            return BigInteger.ONE;
+        }
+
+        BigInteger count = memo.get(word);
+        if (count == null) {
+            Set<String> deletions = new HashSet<>();
+            for (int c = 0; c < word.length(); c++) {
+                deletions.add(word.substring(0, c) + word.substring(c + 1));
+            }
+            count = BigInteger.ZERO;
+            for (String deletion : deletions) {
+                count = count.add(countPaths(deletion, dictionary, memo));
+            }
+            memo.put(word, count);
+        }
+        return count;
+    }
+
+    @Test
+    public void test_whenPathsCountExceedsLong_thenExactCount() throws Exception {
+
+        // every word of 'a's and at most two 'b's up to the candidate length
+        Path path = Files.createTempFile("scrabbler", null);
+        Set<String> words = new HashSet<>();
+        for (int length = 1; length <= 50; length++) {
+            // a 'b' at position -1 is no 'b' at all, and two 'b's at the same position are one 'b'
+            for (int first = -1; first < length; first++) {
+                for (int second = first; second < length; second++) {
+                    char[] chars = "a".repeat(length).toCharArray();
+                    if (first >= 0) {
+                        chars[first] = 'b';
+                        chars[second] = 'b';
+                    }
+                    words.add(new String(chars));
+                }
+            }
+        }
+
+        try {
+            Files.write(path, words);
+            String word = "a".repeat(16) + "b" + "a".repeat(16) + "b" + "a".repeat(16);
+
+            for (var cl : allScrabblerClasses().toList()) {
+
+                Scrabbler scrabbler = scrabbler(cl, args("-du", path.toUri().toString(), "-seq", "-wl", "50"));
+                BigInteger count = scrabbler.countReductionPaths().get(word);
+
+                assertTrue(count.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0, count.toString());
+                assertEquals(countPaths(word, words, new HashMap<>()), count);
+
+                // enumerating stops at the limit, however many paths there are
+                var paths = scrabbler.findReductionPaths(word, 1000);
+                assertEquals(1000, paths.size());
+                assertEquals(1000, new HashSet<>(paths).size());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void test_whenLongWords_thenFingerprintAndTrieWalkSameAsSequential() throws Exception {
+
+        Path path = Files.createTempFile("scrabbler", null);
+
+        try {
+            new DictionaryGenerator(ArgsUtils.generateArgs("-o", path.toString(), "-n", "50000", "-c", "500",
+                    "-wl", "40", "-nmd", "20", "-ld", "2-40", "-ocw", "a,e")).generate(path);
+            String url = path.toUri().toString();
+
+            var expected = new SequentialScrabbler(args("-du", url, "-seq", "-wl", "40", "-ocw", "a,e"));
+            var fingerprint = new FingerprintScrabbler(args("-du", url, "-fp", "-wl", "40", "-ocw", "a,e"));
+            var trieWalk = new TrieScrabbler(args("-du", url, "-tw", "-wl", "40", "-ocw", "a,e"));
+
+            assertEquals(250, expected.findMatchingWords().size());
+            assertEquals(expected.findMatchingWords(), fingerprint.findMatchingWords());
+            assertEquals(expected.findMatchingWordChains(), fingerprint.findMatchingWordChains());
+            assertEquals(expected.findMatchingWords(), trieWalk.findMatchingWords());
+            assertEquals(expected.findMatchingWordChains(), trieWalk.findMatchingWordChains());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionBackend.class)
+    public void test_whenStreamClosedEarly_thenRemainingCandidatesNotChecked(ExecutionBackend backend)
+            throws Exception {
+
+        Path path = Files.createTempFile("scrabbler", null);
+
+        try {
+            new DictionaryGenerator(ArgsUtils.generateArgs("-o", path.toString(), "-n", "100000", "-c", "10000",
+                    "-rs", "1")).generate(path);
+
+            // the words checked by the scrabbler; all candidates match, so each checked word is put in the buffer
+            AtomicInteger checked = new AtomicInteger();
+            // released once the chunks have checked enough words to fill the buffer
+            CountDownLatch bufferFull = new CountDownLatch(1);
+            int consumed = 10;
+            int bufferSize = 1024;
+            int chunkSize = 16;
+
+            try (var scrabbler = new ParallelScrabbler(args("-du", path.toUri().toString(), "-par", "-ocw", "a",
+                    "-eb", backend.name(), "-cs", String.valueOf(chunkSize))) {
+                @Override
+                protected boolean isWordMatch(String word) {
+                    if (checked.incrementAndGet() >= consumed + bufferSize) {
+                        bufferFull.countDown();
+                    }
+                    return super.isWordMatch(word);
+                }
+            }) {
+
+                assertEquals(10000, scrabbler.getCandidateWords().size());
+
+                List<String> first;
+                try (var matchingWords = scrabbler.streamMatchingWords()) {
+                    first = matchingWords.limit(consumed).toList();
+                    assertTrue(bufferFull.await(30, TimeUnit.SECONDS));
+                }
+
+                // each running chunk checks at most one word it cannot put in the full buffer; at most one
+                // chunk per thread is running
+                int parallelism = Math.max(Runtime.getRuntime().availableProcessors(),
+                        ForkJoinPool.getCommonPoolParallelism());
+                assertEquals(consumed, first.size());
+                assertTrue(scrabbler.getCandidateWords().containsAll(first));
+                assertTrue(checked.get() <= consumed + bufferSize + parallelism * chunkSize, checked::toString);
+                assertTrue(checked.get() < 10000, checked::toString);
+
+                // the scrabbler can still be used after a stream is cancelled
+                assertEquals(10000, scrabbler.findMatchingWords().size());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ExecutionBackend.class, names = "COMMON_POOL", mode = EnumSource.Mode.EXCLUDE)
+    public void test_whenClosedWhileStreamOpen_thenStreamStops(ExecutionBackend backend) throws Exception {
+
+        Path path = Files.createTempFile("scrabbler", null);
+
+        try {
+            new DictionaryGenerator(ArgsUtils.generateArgs("-o", path.toString(), "-n", "100000", "-c", "10000",
+                    "-rs", "1")).generate(path);
+
+            var scrabbler = new ParallelScrabbler(args("-du", path.toUri().toString(), "-par", "-ocw", "a",
+                    "-eb", backend.name(), "-cs", "16"));
+
+            try (var matchingWords = scrabbler.streamMatchingWords()) {
+
+                Iterator<String> iterator = matchingWords.iterator();
+                for (int i = 0; i < 10; i++) {
+                    iterator.next();
+                }
+
+                // the chunks waiting for room in the buffer give up instead of keeping the pool open
+                assertTimeoutPreemptively(Duration.ofSeconds(30), scrabbler::close);
+
+                // the words already confirmed are still given to the consumer
+                Set<String> rest = new HashSet<>();
+                assertThrows(CancellationException.class, () -> assertTimeoutPreemptively(Duration.ofSeconds(30),
+                        () -> iterator.forEachRemaining(rest::add)));
+                assertTrue(rest.size() < 10000 - 10, () -> String.valueOf(rest.size()));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenSeveralWordLengths_thenSameMatchesAsEachLength(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        Scrabbler scrabbler = scrabbler(cl, args("-du", url.toString(), "-seq", "-wls", "2-6,9,12", "-ocw", "а,и"));
+        var matchingWords = scrabbler.findMatchingWordsByLength(new TreeSet<>(Set.of(2, 3, 4, 5, 6, 9, 12)));
+
+        assertEquals(List.of(2, 3, 4, 5, 6, 9, 12), List.copyOf(matchingWords.keySet()));
+        assertTrue(matchingWords.values().stream().anyMatch(words -> !words.isEmpty()));
+
+        for (var entry : matchingWords.entrySet()) {
+            Args args = args("-du", url.toString(), "-seq", "-wl", String.valueOf(entry.getKey()), "-ocw", "а,и");
+            assertEquals(new SequentialScrabbler(args).findMatchingWords(), entry.getValue());
+        }
+
+        // the candidates have the longest length
+        assertTrue(scrabbler.getCandidateWords().stream().allMatch(word -> word.length() == 12));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionBackend.class)
+    public void test_whenExecutionBackendAndChunkSize_thenSameMatchesAsSequential(ExecutionBackend backend)
+            throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        var expected = new SequentialScrabbler(args("-du", url.toString(), "-seq", "-wls", "2-6", "-ocw", "а,и"))
+                .findMatchingWordsByLength(new TreeSet<>(Set.of(2, 3, 4, 5, 6)));
+
+        for (String chunkSize : new String[]{"1", "3", "1000", null}) {
+
+            List<String> argv = new ArrayList<>(List.of("-du", url.toString(), "-par", "-wls", "2-6", "-ocw", "а,и",
+                    "-eb", backend.name()));
+            if (backend != ExecutionBackend.COMMON_POOL) {
+                argv.addAll(List.of("-pl", "2"));
+            }
+            if (chunkSize != null) {
+                argv.addAll(List.of("-cs", chunkSize));
+            }
+
+            try (var scrabbler = new ParallelScrabbler(args(argv.toArray(String[]::new)))) {
+                assertEquals(expected.get(6), scrabbler.findMatchingWords());
+                assertEquals(expected, scrabbler.findMatchingWordsByLength(new TreeSet<>(Set.of(2, 3, 4, 5, 6))));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenNoOneCharWords_thenNoMatchesForAnyLength(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/no-one-char-words.txt");
+        assertNotNull(url);
+
+        Scrabbler scrabbler = scrabbler(cl, args("-du", url.toString(), "-seq", "-wls", "2-9"));
+        var matchingWords = scrabbler.findMatchingWordsByLength(new TreeSet<>(Set.of(2, 9)));
+
+        assertEquals(Map.of(2, Set.of(), 9, Set.of()), matchingWords);
+    }
+
     @ParameterizedTest
     @MethodSource("allScrabblerClasses")
     public void testArgs_whenCreateScrabblerWithAnyArgCombination_thenSuccess(Class<? extends Scrabbler> cl) {
@@ -191,4 +595,360 @@ public class ScrabblerTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenOffHeapDictionary_thenSameResultsAsHeap(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        Scrabbler heap = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", "4", "-db", "HEAP"));
+        Scrabbler offHeap = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", "4", "-db", "OFF_HEAP"));
+
+        assertEquals(heap.getDictionaryWords(), offHeap.getDictionaryWords());
+        assertEquals(heap.getCandidateWords(), offHeap.getCandidateWords());
+        assertEquals(Set.of("вяръ", "земя"), offHeap.findMatchingWords());
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenCompactDictionary_thenSameResultsAsHeap(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        for (int wordLength = 2; wordLength <= 8; wordLength++) {
+
+            Scrabbler heap = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", String.valueOf(wordLength),
+                    "-ocw", "а,и", "-db", "HEAP"));
+            Scrabbler compact = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", String.valueOf(wordLength),
+                    "-ocw", "а,и", "-db", "COMPACT"));
+
+            assertEquals(heap.getDictionaryWords(), compact.getDictionaryWords());
+            assertEquals(heap.getCandidateWords(), compact.getCandidateWords());
+            assertEquals(heap.findMatchingWords(), compact.findMatchingWords());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenDawgDictionary_thenSameResultsAsHeap(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        for (int wordLength = 2; wordLength <= 8; wordLength++) {
+
+            Scrabbler heap = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", String.valueOf(wordLength),
+                    "-ocw", "а,и", "-db", "HEAP"));
+            Scrabbler dawg = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", String.valueOf(wordLength),
+                    "-ocw", "а,и", "-db", "DAWG"));
+
+            assertEquals(heap.getDictionaryWords(), dawg.getDictionaryWords());
+            assertEquals(heap.getCandidateWords(), dawg.getCandidateWords());
+            assertEquals(heap.findMatchingWords(), dawg.findMatchingWords());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenLongerWordsDiscarded_thenSameMatches(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        Scrabbler scrabbler = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", "4", "-dlw"));
+
+        assertTrue(scrabbler.getDictionaryWords().stream().allMatch(word -> word.length() <= 4));
+        assertEquals(14, scrabbler.getCandidateWords().size());
+        assertEquals(Set.of("вяръ", "земя"), scrabbler.findMatchingWords());
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenSnapshotDirectorySpecified_thenSnapshotWrittenAndReused(Class<? extends Scrabbler> cl) throws Exception {
+
+        File tmp = File.createTempFile("scrabbler", null);
+        Path snapshots = Files.createTempDirectory("snapshots");
+
+        try (InputStream is = ScrabblerTest.class.getResourceAsStream("/bg-utf8.txt")) {
+
+            assertNotNull(is);
+
+            List<String> lines = IOUtils.readLines(is, StandardCharsets.UTF_8);
+            FileUtils.writeLines(tmp, StandardCharsets.UTF_8.name(), lines);
+
+            Args args = args("-du", tmp.toPath().toUri().toString(), "-seq", "-wl", "4",
+                    "-sd", snapshots.toString(), "-ocw", "ъ");
+
+            Scrabbler loaded = scrabbler(cl, args);
+            try (Stream<Path> files = Files.list(snapshots)) {
+                assertEquals(1, files.filter(file -> file.toString().endsWith(".snapshot")).count());
+            }
+
+            Scrabbler fromSnapshot = scrabbler(cl, args);
+            assertEquals(loaded.getDictionaryWords(), fromSnapshot.getDictionaryWords());
+            assertEquals(loaded.getCandidateWords(), fromSnapshot.getCandidateWords());
+            assertEquals(loaded.findMatchingWords(), fromSnapshot.findMatchingWords());
+            assertTrue(fromSnapshot.getDictionaryWords().contains("ъ"));
+
+            // a changed dictionary invalidates the snapshot
+            FileUtils.writeLines(tmp, StandardCharsets.UTF_8.name(), List.of("а", "я", "яа", "ая"), true);
+            Files.setLastModifiedTime(tmp.toPath(), FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+            Scrabbler changed = scrabbler(cl, args("-du", tmp.toPath().toUri().toString(), "-seq", "-wl", "2",
+                    "-sd", snapshots.toString()));
+            Scrabbler reloaded = scrabbler(cl, args("-du", tmp.toPath().toUri().toString(), "-seq", "-wl", "2"));
+            assertTrue(changed.getDictionaryWords().containsAll(List.of("яа", "ая")));
+            assertEquals(reloaded.getDictionaryWords(), changed.getDictionaryWords());
+            assertEquals(reloaded.findMatchingWords(), changed.findMatchingWords());
+
+        } finally {
+            FileUtils.deleteQuietly(tmp);
+            FileUtils.deleteQuietly(snapshots.toFile());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenWordsAddedAndRemoved_thenSameMatchesAsRecomputed(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+
+        Scrabbler scrabbler = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", "4", "-ocw", "а,и"));
+        Set<String> matchingWords = new TreeSet<>(scrabbler.findMatchingWords());
+
+        // words to add are derived from dictionary words, so that many of them affect the matches
+        var random = new Random(7);
+        var shortWords = scrabbler.getDictionaryWords().stream().filter(word -> word.length() <= 4).sorted().toList();
+        var alphabet = "аеиоуяъзмвр";
+
+        int changes = 0;
+        for (int i = 0; i < 300; i++) {
+
+            String word = shortWords.get(random.nextInt(shortWords.size()));
+            MatchingWordsChange change;
+
+            if (random.nextBoolean() && scrabbler.getDictionaryWords().contains(word)) {
+                change = scrabbler.removeWords(List.of(word));
+            } else {
+                String derived;
+                if (word.length() < 4 && random.nextBoolean()) {
+                    int position = random.nextInt(word.length() + 1);
+                    derived = word.substring(0, position) + alphabet.charAt(random.nextInt(alphabet.length()))
+                            + word.substring(position);
+                } else if (word.length() > 1) {
+                    int position = random.nextInt(word.length());
+                    derived = word.substring(0, position) + word.substring(position + 1);
+                } else {
+                    derived = String.valueOf(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                change = scrabbler.addWords(List.of(derived, word));
+            }
+
+            matchingWords.addAll(change.added());
+            matchingWords.removeAll(change.removed());
+            assertTrue(Collections.disjoint(change.added(), change.removed()));
+            changes += change.added().size() + change.removed().size();
+
+            if (i % 25 == 0) {
+                assertEquals(scrabbler.findMatchingWords(), matchingWords, "after change " + i);
+            }
+        }
+
+        assertEquals(scrabbler.findMatchingWords(), matchingWords);
+        assertTrue(changes > 10, "changes: " + changes);
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenOneCharWordRemovedAndAdded_thenMatchesRemovedAndAdded(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/no-one-char-words.txt");
+        assertNotNull(url);
+
+        Scrabbler scrabbler = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", "9", "-ocw", "i"));
+        assertEquals(Set.of("abcdefghi"), scrabbler.findMatchingWords());
+
+        assertEquals(new MatchingWordsChange(Set.of(), Set.of("abcdefghi")), scrabbler.removeWords(List.of("i")));
+        assertEquals(Set.of(), scrabbler.findMatchingWords());
+        assertEquals(Set.of(), scrabbler.getCandidateWords());
+
+        assertEquals(new MatchingWordsChange(Set.of("abcdefghi"), Set.of()), scrabbler.addWords(List.of("i")));
+        assertEquals(Set.of("abcdefghi"), scrabbler.findMatchingWords());
+
+        // adding and removing the same word in one change cancels out
+        var change = scrabbler.removeWords(List.of("i")).then(scrabbler.addWords(List.of("i")));
+        assertTrue(change.isEmpty());
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> scrabbler.addWords(List.of("")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allScrabblerClasses")
+    public void test_whenBloomFilterAndWordAdded_thenWordNotRejected(Class<? extends Scrabbler> cl) throws Exception {
+
+        URL url = ScrabblerTest.class.getResource("/no-one-char-words.txt");
+        assertNotNull(url);
+
+        // the 1-char word is not in the dictionary when the filter is built
+        Scrabbler scrabbler = scrabbler(cl, args("-du", url.toString(), "-seq", "-wl", "9", "-bf", "8"));
+        assertEquals(Set.of(), scrabbler.findMatchingWords());
+
+        assertEquals(new MatchingWordsChange(Set.of("abcdefghi"), Set.of()), scrabbler.addWords(List.of("i")));
+        assertEquals(Set.of("abcdefghi"), scrabbler.findMatchingWords());
+    }
+
+    @Test
+    public void test_whenWatchedDictionaryEdited_thenChangeApplied() throws Exception {
+
+        Path dir = Files.createTempDirectory("watched");
+        Path file = dir.resolve("dictionary.txt");
+
+        try {
+            Files.write(file, List.of("a", "ab", "abc", "abcd", "bcd"), StandardCharsets.UTF_8);
+
+            Scrabbler scrabbler = new SequentialScrabbler(args("-du", file.toUri().toString(), "-seq", "-wl", "4"));
+            assertEquals(Set.of("abcd"), scrabbler.findMatchingWords());
+
+            var changes = new LinkedBlockingQueue<MatchingWordsChange>();
+
+            try (var watcher = new DictionaryWatcher(scrabbler, file, "UTF-8", Set.of(), changes::add)) {
+
+                Thread thread = Thread.ofPlatform().start(() -> {
+                    try {
+                        watcher.run();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+
+                // give the watcher time to start watching
+                Thread.sleep(200);
+
+                Files.write(file, List.of("a", "b", "ab", "abc", "bcd", "bc", "abcd", "xbcd"), StandardCharsets.UTF_8);
+
+                var change = changes.poll(10, TimeUnit.SECONDS);
+                assertNotNull(change);
+                assertEquals(new MatchingWordsChange(Set.of("xbcd"), Set.of()), change);
+                assertEquals(Set.of("abcd", "xbcd"), scrabbler.findMatchingWords());
+
+                watcher.close();
+                thread.join(5000);
+                assertFalse(thread.isAlive());
+            }
+
+            // reloading applies removals too
+            Files.write(file, List.of("b", "bc", "bcd", "xbcd"), StandardCharsets.UTF_8);
+            var watcher = new DictionaryWatcher(scrabbler, file, "UTF-8", Set.of(), change -> {});
+            assertEquals(new MatchingWordsChange(Set.of(), Set.of("abcd")), watcher.reload());
+            assertEquals(Set.of("xbcd"), scrabbler.findMatchingWords());
+            watcher.close();
+
+        } finally {
+            FileUtils.deleteQuietly(dir.toFile());
+        }
+    }
+
+    @Test
+    public void test_whenLongerWordsDiscarded_thenNotAddedOnReload() throws Exception {
+
+        Path dir = Files.createTempDirectory("watched");
+        Path file = dir.resolve("dictionary.txt");
+
+        try {
+            Files.write(file, List.of("a", "ab", "abc", "abcd", "abcde", "abcdef"), StandardCharsets.UTF_8);
+
+            List<String> addedWords = new ArrayList<>();
+            Scrabbler scrabbler = new SequentialScrabbler(args("-du", file.toUri().toString(), "-seq", "-wl", "4",
+                    "-dlw")) {
+                @Override
+                public synchronized MatchingWordsChange addWords(Collection<String> words) {
+                    addedWords.addAll(words);
+                    return super.addWords(words);
+                }
+            };
+            assertFalse(scrabbler.getDictionaryWords().contains("abcde"));
+
+            Files.write(file, List.of("a", "ab", "abc", "abcd", "abcde", "abcdef", "b", "bcdefg"),
+                    StandardCharsets.UTF_8);
+            try (var watcher = new DictionaryWatcher(scrabbler, file, "UTF-8", Set.of(), 4, change -> {})) {
+                watcher.reload();
+            }
+
+            assertEquals(List.of("b"), addedWords);
+        } finally {
+            FileUtils.deleteQuietly(dir.toFile());
+        }
+    }
+
+    @Test
+    public void test_whenMatchingWords_thenNoAllocationPerCandidate() throws Exception {
+
+        // all words over a 3-letter alphabet with length <= 7, with about a quarter of them
+        // removed so that matching has to backtrack
+        var words = new ArrayList<>(List.of("a", "b", "c"));
+        var random = new Random(42);
+        List<String> level = words;
+        for (int length = 2; length <= 7; length++) {
+            var next = new ArrayList<String>();
+            for (String word : level) {
+                for (char c : "abc".toCharArray()) {
+                    next.add(word + c);
+                }
+            }
+            next.stream().filter(word -> random.nextInt(4) > 0).forEach(words::add);
+            level = next;
+        }
+
+        File tmp = File.createTempFile("scrabbler", null);
+
+        try {
+            FileUtils.writeLines(tmp, StandardCharsets.UTF_8.name(), words);
+
+            var scrabbler = new MatchingScrabbler(args("-du", tmp.toPath().toUri().toString(), "-seq", "-wl", "7"));
+            var candidates = new ArrayList<>(scrabbler.getCandidateWords());
+            assertTrue(candidates.size() > 1000);
+
+            // warm up
+            for (int i = 0; i < 20; i++) {
+                candidates.forEach(scrabbler::isWordMatch);
+            }
+
+            var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().threadId();
+
+            long matches = 0;
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (String candidate : candidates) {
+                if (scrabbler.isWordMatch(candidate)) {
+                    matches++;
+                }
+            }
+            long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+            assertTrue(matches > 0);
+            assertTrue(allocated < candidates.size(), "allocated " + allocated + " bytes");
+
+        } finally {
+            FileUtils.deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * Exposes the word matching algorithm of {@link SequentialScrabbler} to tests.
+     */
+    private static class MatchingScrabbler extends SequentialScrabbler {
+
+        MatchingScrabbler(Args args) throws Exception {
+            super(args);
+        }
+
+        @Override
+        public boolean isWordMatch(String word) {
+            return super.isWordMatch(word);
+        }
+    }
+
 }
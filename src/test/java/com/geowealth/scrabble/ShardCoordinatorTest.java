@@ -0,0 +1,120 @@
+package com.geowealth.scrabble;
+
+import com.geowealth.scrabble.exceptions.ScrabbleMatchException;
+import com.geowealth.scrabble.impl.SequentialScrabbler;
+import com.geowealth.scrabble.main.Scrabble;
+import com.geowealth.scrabble.shard.ShardCoordinator;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.geowealth.scrabble.ArgsUtils.args;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardCoordinatorTest {
+
+    private static String bgUrl() {
+
+        URL url = ShardCoordinatorTest.class.getResource("/bg-utf8.txt");
+        assertNotNull(url);
+        return url.toString();
+    }
+
+    @Test
+    public void test_whenShardsSpecified_thenCandidatesSplitWithoutOverlap() throws Exception {
+
+        String url = bgUrl();
+        var all = new SequentialScrabbler(args("-du", url, "-seq", "-wl", "5", "-ocw", "а,и"));
+
+        List<String> sharded = new ArrayList<>();
+        Set<String> matches = new HashSet<>();
+        for (int shard = 0; shard < 3; shard++) {
+            var scrabbler = new SequentialScrabbler(args("-du", url, "-seq", "-wl", "5", "-ocw", "а,и",
+                    "--shard", shard + "/3", "--coordinator-port", "1"));
+            for (String word : scrabbler.getCandidateWords()) {
+                assertEquals(shard, ShardCoordinator.shardOf(word, 3));
+                sharded.add(word);
+            }
+            matches.addAll(scrabbler.findMatchingWords());
+        }
+
+        assertEquals(all.getCandidateWords().size(), sharded.size());
+        assertEquals(all.getCandidateWords(), new HashSet<>(sharded));
+        assertEquals(all.findMatchingWords(), matches);
+    }
+
+    @Test
+    public void test_whenWorkerProcessesMatchShards_thenSameMatchesInSortedOrder() throws Exception {
+
+        String url = bgUrl();
+        var expected = new SequentialScrabbler(args("-du", url, "-seq", "-wl", "5", "-ocw", "а,и")).findMatchingWords();
+
+        var coordinator = new ShardCoordinator(3, 1, ShardCoordinator.javaLauncher(Scrabble.class,
+                List.of("-du", url, "-seq", "-wl", "5", "-ocw", "а,и")));
+
+        assertEquals(List.copyOf(expected), List.copyOf(coordinator.findMatchingWords()));
+    }
+
+    @Test
+    public void test_whenMetricsFileSpecified_thenNotWrittenByWorkers() throws Exception {
+
+        String url = bgUrl();
+        Path metricsFile = Files.createTempFile("metrics", ".json");
+        Files.delete(metricsFile);
+
+        try {
+            var coordinator = new ShardCoordinator(2, 1, ShardCoordinator.javaLauncher(Scrabble.class,
+                    List.of("-du", url, "-seq", "-wl", "4", "-mf", metricsFile.toString())));
+
+            assertFalse(coordinator.findMatchingWords().isEmpty());
+            // the workers have exited, so they would have written the file by now
+            assertFalse(Files.exists(metricsFile));
+        } finally {
+            Files.deleteIfExists(metricsFile);
+        }
+    }
+
+    @Test
+    public void test_whenWorkerFails_thenShardRetried() throws Exception {
+
+        String url = bgUrl();
+        var expected = new SequentialScrabbler(args("-du", url, "-seq", "-wl", "4")).findMatchingWords();
+
+        // the first worker of each shard exits before connecting, as its arguments are invalid
+        var good = ShardCoordinator.javaLauncher(Scrabble.class, List.of("-du", url, "-par", "-wl", "4"));
+        var bad = ShardCoordinator.javaLauncher(Scrabble.class, List.of("-du", url, "-par", "-wl", "1"));
+        AtomicInteger launches = new AtomicInteger();
+        Set<Integer> failed = ConcurrentHashMap.newKeySet();
+
+        var coordinator = new ShardCoordinator(2, 2, (shard, shards, port) -> {
+            launches.incrementAndGet();
+            return failed.add(shard) ? bad.launch(shard, shards, port) : good.launch(shard, shards, port);
+        });
+
+        assertEquals(List.copyOf(expected), List.copyOf(coordinator.findMatchingWords()));
+        assertEquals(4, launches.get());
+    }
+
+    @Test
+    public void test_whenAllAttemptsFail_thenThrow() {
+
+        var bad = ShardCoordinator.javaLauncher(Scrabble.class, List.of("-du", bgUrl(), "-seq", "-wl", "1"));
+        AtomicInteger launches = new AtomicInteger();
+
+        var coordinator = new ShardCoordinator(1, 2, (shard, shards, port) -> {
+            launches.incrementAndGet();
+            return bad.launch(shard, shards, port);
+        });
+
+        assertThrowsExactly(ScrabbleMatchException.class, coordinator::findMatchingWords);
+        assertEquals(2, launches.get());
+    }
+}
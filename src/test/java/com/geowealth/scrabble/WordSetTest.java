@@ -0,0 +1,298 @@
+package com.geowealth.scrabble;
+
+import com.geowealth.scrabble.dictionary.BloomFilter;
+import com.geowealth.scrabble.dictionary.ByteWordSet;
+import com.geowealth.scrabble.dictionary.DawgWordSet;
+import com.geowealth.scrabble.dictionary.DictionaryBackend;
+import com.geowealth.scrabble.dictionary.LengthPartitionedWordSet;
+import com.geowealth.scrabble.dictionary.OffHeapWordSet;
+import com.geowealth.scrabble.dictionary.WordHashSet;
+import com.geowealth.scrabble.dictionary.WordSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordSetTest {
+
+    private static Stream<Supplier<WordSet>> allWordSets() {
+        return Stream.of(WordHashSet::new, OffHeapWordSet::new, ByteWordSet::new, DawgWordSet::new,
+                () -> new LengthPartitionedWordSet(WordHashSet::new, Integer.MAX_VALUE),
+                () -> new LengthPartitionedWordSet(OffHeapWordSet::new, Integer.MAX_VALUE),
+                () -> new LengthPartitionedWordSet(DictionaryBackend.COMPACT.newWordSetFactory(), Integer.MAX_VALUE),
+                () -> new LengthPartitionedWordSet(DictionaryBackend.DAWG.newWordSetFactory(), Integer.MAX_VALUE));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allWordSets")
+    public void test_whenWordsAdded_thenContained(Supplier<WordSet> supplier) {
+
+        WordSet words = supplier.get();
+        assertTrue(words.add("земя"));
+        assertTrue(words.add("abc"));
+        assertFalse(words.add("abc"));
+
+        assertEquals(2, words.size());
+        assertEquals(Set.of("земя", "abc"), new HashSet<>(words));
+        assertTrue(words.contains("abc"));
+        assertFalse(words.contains("ab"));
+        assertFalse(words.contains(new StringBuilder("abc")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allWordSets")
+    public void test_whenLookupByCharRange_thenSameAsLookupByString(Supplier<WordSet> supplier) {
+
+        WordSet words = supplier.get();
+        words.add("ab");
+        words.add("земя");
+
+        char[] chars = "xxabземяyy".toCharArray();
+        assertTrue(words.contains(chars, 2, 2));
+        assertTrue(words.contains(chars, 4, 4));
+        assertFalse(words.contains(chars, 2, 3));
+        assertFalse(words.contains(chars, 1, 2));
+        assertFalse(words.contains(chars, 0, 0));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allWordSets")
+    public void test_whenManyWordsAdded_thenAllContained(Supplier<WordSet> supplier) {
+
+        WordSet words = supplier.get();
+        for (int i = 0; i < 100_000; i++) {
+            words.add(Integer.toString(i, 36));
+        }
+
+        assertEquals(100_000, words.size());
+        for (int i = 0; i < 100_000; i++) {
+            char[] chars = Integer.toString(i, 36).toCharArray();
+            assertTrue(words.contains(chars, 0, chars.length));
+        }
+        assertFalse(words.contains("-1"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allWordSets")
+    public void test_whenWordsRemoved_thenOthersStillContained(Supplier<WordSet> supplier) {
+
+        WordSet words = supplier.get();
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            words.add(Integer.toString(i, 36));
+            expected.add(Integer.toString(i, 36));
+        }
+
+        for (int i = 0; i < 50_000; i += 3) {
+            assertTrue(words.remove(Integer.toString(i, 36)));
+            assertFalse(words.remove(Integer.toString(i, 36)));
+            expected.remove(Integer.toString(i, 36));
+        }
+        assertFalse(words.remove("-1"));
+        assertFalse(words.remove(42));
+
+        assertEquals(expected.size(), words.size());
+        assertEquals(expected, new HashSet<>(words));
+        for (int i = 0; i < 50_000; i++) {
+            char[] chars = Integer.toString(i, 36).toCharArray();
+            assertEquals(i % 3 != 0, words.contains(chars, 0, chars.length));
+        }
+
+        // removed words can be added again
+        assertTrue(words.add("0"));
+        assertTrue(words.contains("0"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allWordSets")
+    public void test_whenIterated_thenAllWordsReturned(Supplier<WordSet> supplier) {
+
+        WordSet words = supplier.get();
+        var expected = new ArrayList<String>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.add("word" + i);
+        }
+        expected.add("x".repeat(100_000));
+        words.addAll(expected);
+
+        assertEquals(new HashSet<>(expected), new HashSet<>(words));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allWordSets")
+    public void test_whenBatchesWithDuplicatesAdded_thenEachWordAddedOnce(Supplier<WordSet> supplier) {
+
+        WordSet words = supplier.get();
+        words.add("0");
+
+        var batches = new ArrayList<List<String>>();
+        for (int batch = 0; batch < 8; batch++) {
+            var list = new ArrayList<String>();
+            for (int i = 0; i < 50_000; i++) {
+                list.add(Integer.toString(batch * 25_000 + i));
+            }
+            batches.add(list);
+        }
+        words.addBatches(batches);
+
+        assertEquals(225_000, words.size());
+        for (int i = 0; i < 225_000; i++) {
+            assertTrue(words.contains(Integer.toString(i)));
+        }
+        assertFalse(words.contains("225000"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("allWordSets")
+    public void test_whenLengthPartitionedWithMaxLength_thenLongerWordsIgnored(Supplier<WordSet> supplier) {
+
+        var words = new LengthPartitionedWordSet(supplier, 3);
+        words.addAll(List.of("a", "ab", "abc", "abcd"));
+        words.addBatches(List.of(List.of("b", "bcde"), List.of("bc", "bcdef")));
+
+        assertEquals(Set.of("a", "ab", "abc", "b", "bc"), new HashSet<>(words));
+        assertEquals(Set.of("a", "b"), new HashSet<>(words.wordsOfLength(1)));
+        assertEquals(Set.of(), new HashSet<>(words.wordsOfLength(4)));
+        assertFalse(words.contains("abcd"));
+        assertFalse(words.contains("abcd".toCharArray(), 0, 4));
+    }
+
+    @Test
+    public void test_whenBloomFilter_thenNoFalseNegativesAndFewFalsePositives() {
+
+        Random random = new Random(42);
+        BloomFilter filter = new BloomFilter(100_000, 10);
+
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            added.add(Long.toString(random.nextLong() >>> 1, 36));
+        }
+        added.forEach(filter::add);
+
+        for (String word : added) {
+            assertTrue(filter.mightContain(word.toCharArray(), 0, word.length()), word);
+        }
+
+        // the words looked up are held within larger arrays, as in a scratch buffer
+        Set<String> present = new HashSet<>(added);
+        int falsePositives = 0;
+        int absent = 0;
+        for (int i = 0; i < 100_000; i++) {
+            String word = Long.toString(random.nextLong() >>> 1, 36);
+            if (!present.contains(word)) {
+                absent++;
+                if (filter.mightContain(("#" + word + "#").toCharArray(), 1, word.length())) {
+                    falsePositives++;
+                }
+            }
+        }
+
+        double rate = (double) falsePositives / absent;
+        assertTrue(rate < 0.02, String.valueOf(rate));
+        assertEquals(filter.expectedFalsePositiveRate(), rate, 0.01);
+        assertTrue(filter.sizeInBytes() <= 100_000 * 10 / 8 + 64);
+    }
+
+    @Test
+    public void test_whenMoreThan255DistinctChars_thenByteWordSetHoldsAllWords() {
+
+        // each word holds a character of its own, so the alphabet runs out of codes
+        WordSet words = new ByteWordSet();
+        Set<String> expected = new HashSet<>();
+        for (char c = 0x400; c < 0x400 + 600; c++) {
+            String word = "ab" + c + "λ" + "x".repeat(c % 300);
+            assertTrue(words.add(word));
+            expected.add(word);
+        }
+        assertFalse(words.add("ab" + (char) 0x400 + "λ" + "x".repeat(0x400 % 300)));
+
+        assertEquals(600, words.size());
+        assertEquals(expected, new HashSet<>(words));
+        for (String word : expected) {
+            assertTrue(words.contains(word), word);
+            assertTrue(words.contains(word.toCharArray(), 0, word.length()), word);
+        }
+        assertFalse(words.contains("ab" + (char) 0x700));
+
+        char last = 0x400 + 599;
+        String wide = "ab" + last + "λ" + "x".repeat(last % 300);
+        assertTrue(words.remove(wide));
+        assertFalse(words.contains(wide));
+        assertEquals(599, words.size());
+    }
+
+    @Test
+    public void test_whenWordsAddedOutOfOrder_thenDawgWordSetMergesThem() {
+
+        Random random = new Random(42);
+        List<String> sorted = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            sorted.add(Integer.toString(random.nextInt(1_000_000), 36));
+        }
+        List<String> words = new ArrayList<>(new TreeSet<>(sorted));
+
+        // mostly sorted, with some words repeated or moved out of order
+        DawgWordSet dawg = new DawgWordSet();
+        for (int i = 0; i < words.size(); i++) {
+            dawg.add(words.get(i));
+            if (i % 100 == 0) {
+                dawg.add(words.get(random.nextInt(words.size())));
+            }
+        }
+        for (int i = 0; i < words.size(); i += 7) {
+            dawg.remove(words.get(i));
+        }
+
+        Set<String> expected = new HashSet<>(words);
+        for (int i = 0; i < words.size(); i += 7) {
+            expected.remove(words.get(i));
+        }
+        assertEquals(expected.size(), dawg.size());
+        assertEquals(expected, new HashSet<>(dawg));
+        for (String word : words) {
+            assertEquals(expected.contains(word), dawg.contains(word), word);
+        }
+
+        // words added after the automaton is built, including ones removed from it
+        assertTrue(dawg.add(words.get(0)));
+        assertTrue(dawg.add("zzzzzz"));
+        assertFalse(dawg.add("zzzzzz"));
+        assertTrue(dawg.contains(words.get(0)));
+        assertTrue(dawg.contains("zzzzzz".toCharArray(), 0, 6));
+        assertEquals(expected.size() + 2, dawg.size());
+    }
+
+    @Test
+    public void test_whenSortedDictionary_thenDawgWordSetSmallerThanStrings() {
+
+        // words which share prefixes and suffixes, like inflected forms of a natural language
+        List<String> stems = List.of("говор", "писа", "чете", "игра", "мисл", "work", "play", "read");
+        List<String> endings = List.of("", "а", "ам", "ах", "еше", "ите", "ing", "ed", "s", "er", "ers");
+        Set<String> words = new TreeSet<>();
+        for (String prefix : List.of("", "из", "пре", "на", "re", "un", "over")) {
+            for (String stem : stems) {
+                for (String ending : endings) {
+                    words.add(prefix + stem + ending);
+                }
+            }
+        }
+
+        DawgWordSet dawg = new DawgWordSet();
+        words.forEach(dawg::add);
+
+        long baseline = words.stream().mapToLong(WordHashSet::sizeInBytes).sum();
+        assertEquals(words, new HashSet<>(dawg));
+        assertTrue(dawg.sizeInBytes() * 10 < baseline, dawg.sizeInBytes() + " / " + baseline);
+        assertEquals(new ArrayList<>(words), new ArrayList<>(dawg));
+    }
+}